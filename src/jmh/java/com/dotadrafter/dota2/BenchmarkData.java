@@ -0,0 +1,53 @@
+package com.dotadrafter.dota2;
+
+import com.dotadrafter.dota2.dto.HeroStatsDto;
+import com.dotadrafter.dota2.model.Hero;
+import com.dotadrafter.dota2.model.HeroAttribute;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic hero data sized like the live OpenDota catalog.
+ */
+public final class BenchmarkData {
+
+    public static final int HERO_COUNT = 125;
+
+    private static final String[] ROLES = {"Carry", "Support", "Nuker", "Disabler", "Jungler", "Durable",
+            "Escape", "Pusher", "Initiator"};
+    private static final String[] ATTRIBUTES = {"str", "agi", "int", "all"};
+
+    private BenchmarkData() {
+    }
+
+    public static List<HeroStatsDto> heroStats() {
+        List<HeroStatsDto> stats = new ArrayList<>(HERO_COUNT);
+        for (int i = 1; i <= HERO_COUNT; i++) {
+            HeroStatsDto dto = new HeroStatsDto();
+            dto.setId((long) i);
+            dto.setLocalizedName("Hero " + i);
+            dto.setPrimaryAttr(ATTRIBUTES[i % ATTRIBUTES.length]);
+            dto.setAttackType(i % 2 == 0 ? "Melee" : "Ranged");
+            dto.setRoles(List.of(ROLES[i % ROLES.length], ROLES[(i * 7) % ROLES.length]));
+            dto.setBaseStr(18.0 + i % 7);
+            dto.setBaseAgi(16.0 + i % 9);
+            dto.setBaseInt(14.0 + i % 11);
+            dto.setImg("/apps/dota2/images/dota_react/heroes/hero_" + i + ".png?");
+            stats.add(dto);
+        }
+        return stats;
+    }
+
+    public static List<Hero> heroes() {
+        List<Hero> heroes = new ArrayList<>(HERO_COUNT);
+        for (int i = 1; i <= HERO_COUNT; i++) {
+            heroes.add(new Hero((long) i, "Hero " + i, HeroAttribute.values()[i % HeroAttribute.values().length],
+                    List.of(ROLES[i % ROLES.length], ROLES[(i * 7) % ROLES.length]),
+                    18.0 + i % 7, 16.0 + i % 9, 14.0 + i % 11,
+                    "https://cdn.cloudflare.steamstatic.com/apps/dota2/images/dota_react/heroes/hero_" + i + ".png?",
+                    null, null));
+        }
+        return heroes;
+    }
+}
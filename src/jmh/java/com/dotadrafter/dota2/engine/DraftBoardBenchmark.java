@@ -0,0 +1,74 @@
+package com.dotadrafter.dota2.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rule checks behind every pick and ban: the taken-hero lookup (formerly
+ * {@code isHeroInDraft}), validation and turn advance/undo (formerly
+ * {@code advanceTurn}), and a whole Captain's Mode draft.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DraftBoardBenchmark {
+
+    private static final int TURNS = TurnSchedule.CAPTAINS_MODE.length();
+
+    private DraftBoard midDraft;
+    private DraftBoard scratch;
+    private int probe;
+
+    @Setup
+    public void setUp() {
+        midDraft = new DraftBoard(TurnSchedule.CAPTAINS_MODE);
+        for (int turn = 0; turn < 12; turn++) {
+            midDraft.apply(TurnSchedule.CAPTAINS_MODE.action(turn), turn + 1);
+        }
+        scratch = new DraftBoard(TurnSchedule.CAPTAINS_MODE);
+    }
+
+    @Benchmark
+    public boolean isTaken() {
+        probe = (probe + 37) & 0x7F;
+        return midDraft.isTaken(probe);
+    }
+
+    @Benchmark
+    public ActionOutcome validate() {
+        probe = (probe + 37) & 0x7F;
+        return midDraft.validate(DraftAction.PICK, probe + 1);
+    }
+
+    @Benchmark
+    public int applyAndUndo() {
+        midDraft.apply(midDraft.getSchedule().action(midDraft.getTurnIndex()), 100);
+        int turn = midDraft.getTurnIndex();
+        midDraft.undo();
+        return turn;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(24)
+    public boolean fullCaptainsModeDraft() {
+        scratch.reset();
+        for (int turn = 0; turn < TURNS; turn++) {
+            scratch.apply(TurnSchedule.CAPTAINS_MODE.action(turn), turn + 1);
+        }
+        return scratch.isComplete();
+    }
+}
@@ -0,0 +1,75 @@
+package com.dotadrafter.dota2.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An eight-turn look-ahead from the first pick of a Captain's Mode draft over 120
+ * heroes with random matchups, on pools of 1, 2 and 4 workers. Compare the
+ * scores across {@code parallelism} to see how the search scales with cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DraftSearchBenchmark {
+
+    private static final int HEROES = 120;
+
+    @Param({"1", "2", "4"})
+    private int parallelism;
+
+    private ForkJoinPool pool;
+    private DraftSearch search;
+    private DraftBoard root;
+
+    @Setup
+    public void setUp() {
+        int[] ids = new int[HEROES];
+        int[] roles = new int[HEROES + 1];
+        byte[] attributes = new byte[HEROES + 1];
+        SplittableRandom random = new SplittableRandom(42);
+        MatchupMatrices matrices = MatchupMatrices.empty(HEROES + 1);
+        for (int id = 1; id <= HEROES; id++) {
+            ids[id - 1] = id;
+            roles[id] = 1 << random.nextInt(8);
+            attributes[id] = (byte) random.nextInt(4);
+            for (int other = 1; other < id; other++) {
+                matrices.set(id, other, random.nextDouble(-1, 1), random.nextDouble(-1, 1));
+            }
+        }
+        pool = new ForkJoinPool(parallelism);
+        search = new DraftSearch(new DraftScorer(new HeroProfiles(ids, roles, attributes), matrices), pool, 6);
+        // From the first pick, where the order of the heroes taken matters more than in the opening bans
+        root = new DraftBoard(TurnSchedule.CAPTAINS_MODE);
+        for (int turn = 0; turn < 7; turn++) {
+            root.apply(DraftAction.BAN, HEROES - turn);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public SearchResult searchEightTurns() {
+        return search.search(root, 8, TimeUnit.SECONDS.toNanos(30));
+    }
+}
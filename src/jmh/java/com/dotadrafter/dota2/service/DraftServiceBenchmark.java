@@ -0,0 +1,92 @@
+package com.dotadrafter.dota2.service;
+
+import com.dotadrafter.dota2.BenchmarkData;
+import com.dotadrafter.dota2.config.DraftLogProperties;
+import com.dotadrafter.dota2.config.DraftProperties;
+import com.dotadrafter.dota2.engine.DraftAction;
+import com.dotadrafter.dota2.engine.TurnSchedule;
+import com.dotadrafter.dota2.model.DraftState;
+import com.dotadrafter.dota2.repository.DraftEventLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code pickHero}/{@code banHero} through the whole service path: striped
+ * lock, catalog lookup, rule check, event log append, broadcast and
+ * statistics. One invocation starts a Captain's Mode draft and plays all of
+ * its turns, so the score is the average cost per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DraftServiceBenchmark {
+
+    private static final TurnSchedule SCHEDULE = TurnSchedule.CAPTAINS_MODE;
+
+    private DraftEventLog draftEventLog;
+    private DraftService draftService;
+
+    @Setup
+    public void setUp() throws IOException {
+        HeroCatalogService catalog = new HeroCatalogService(null, new ObjectMapper(), HeroMatchStats.empty(), new SimpleMeterRegistry());
+        catalog.publish(BenchmarkData.heroes());
+
+        DraftLogProperties logProperties = new DraftLogProperties();
+        logProperties.setDirectory(Files.createTempDirectory("draft-log-bench").toString());
+        draftEventLog = new DraftEventLog(logProperties);
+        DraftProperties draftProperties = new DraftProperties();
+        draftService = new DraftService(draftEventLog, catalog, new DraftEventBroadcaster(),
+                new DraftFormatRegistry(draftProperties), new DraftLocks(256),
+                new DraftStatistics(catalog, 60), draftProperties, new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() {
+        draftEventLog.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(25)
+    public DraftState draftSingleThreaded() {
+        return playDraft();
+    }
+
+    @Benchmark
+    @Threads(8)
+    @OperationsPerInvocation(25)
+    public DraftState draftEightThreads() {
+        return playDraft();
+    }
+
+    private DraftState playDraft() {
+        DraftState state = draftService.startNewDraft(SCHEDULE.getName());
+        Long draftId = state.getId();
+        for (int turn = 0; turn < SCHEDULE.length(); turn++) {
+            long heroId = turn + 1;
+            state = SCHEDULE.action(turn) == DraftAction.PICK
+                    ? draftService.pickHero(draftId, heroId)
+                    : draftService.banHero(draftId, heroId);
+        }
+        return state;
+    }
+}
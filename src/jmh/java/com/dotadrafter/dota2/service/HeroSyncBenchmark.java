@@ -0,0 +1,84 @@
+package com.dotadrafter.dota2.service;
+
+import com.dotadrafter.dota2.BenchmarkData;
+import com.dotadrafter.dota2.client.HeroImageCache;
+import com.dotadrafter.dota2.client.OpenDotaClient;
+import com.dotadrafter.dota2.config.HeroImageProperties;
+import com.dotadrafter.dota2.config.OpenDotaProperties;
+import com.dotadrafter.dota2.dto.HeroStatsDto;
+import com.dotadrafter.dota2.dto.HeroSyncResult;
+import com.dotadrafter.dota2.model.Hero;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hero sync hot paths: mapping one OpenDota record, and a whole sync against
+ * an unchanged upstream (decode from the offline file stand-in, map, diff
+ * against the catalog, no writes).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeroSyncBenchmark {
+
+    private List<HeroStatsDto> heroStats;
+    private HeroService heroService;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        heroStats = BenchmarkData.heroStats();
+
+        // Snake-case upstream JSON, written the way OpenDota serves it
+        Path fixture = Files.createTempFile("heroStats", ".json");
+        objectMapper.writeValue(fixture.toFile(), heroStats);
+        OpenDotaProperties properties = new OpenDotaProperties();
+        properties.setBaseUrl(fixture.toUri().toString());
+        properties.setSnapshotPath("");
+        OpenDotaClient client = new OpenDotaClient(WebClient.builder(), properties, objectMapper,
+                new SimpleMeterRegistry());
+
+        HeroCatalogService catalog = new HeroCatalogService(null, objectMapper, HeroMatchStats.empty(), new SimpleMeterRegistry());
+        // No image downloads: the benchmark measures the sync itself, offline
+        HeroImageProperties imageProperties = new HeroImageProperties();
+        imageProperties.setEnabled(false);
+        HeroImageCache images = new HeroImageCache(WebClient.builder(), imageProperties, new SimpleMeterRegistry());
+
+        heroService = new HeroService(null, client, images, catalog, null, new SimpleMeterRegistry());
+        catalog.publish(heroStats.stream().map(heroService::mapToHero).toList());
+    }
+
+    @Benchmark
+    public void mapToHero(Blackhole blackhole) {
+        for (HeroStatsDto dto : heroStats) {
+            Hero hero = heroService.mapToHero(dto);
+            blackhole.consume(hero);
+        }
+    }
+
+    @Benchmark
+    public HeroSyncResult syncUnchanged() {
+        return heroService.syncHeroesFromApi();
+    }
+}
@@ -0,0 +1,89 @@
+package com.dotadrafter.dota2.service;
+
+import com.dotadrafter.dota2.BenchmarkData;
+import com.dotadrafter.dota2.engine.DraftAction;
+import com.dotadrafter.dota2.engine.DraftBoard;
+import com.dotadrafter.dota2.engine.TurnSchedule;
+import com.dotadrafter.dota2.model.DraftState;
+import com.dotadrafter.dota2.model.DraftViews;
+import com.dotadrafter.dota2.model.Hero;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization: a finished draft in the full and ids-only views,
+ * and the hero list rendered per request versus the cached catalog payload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    private ObjectWriter fullDraftWriter;
+    private ObjectWriter idsDraftWriter;
+    private ObjectMapper objectMapper;
+    private DraftState draft;
+    private List<Hero> heroes;
+    private HeroCatalogService catalog;
+
+    @Setup
+    public void setUp() {
+        // Same settings as the application's mapper (spring.jackson.mapper.default-view-inclusion=true)
+        objectMapper = Jackson2ObjectMapperBuilder.json().defaultViewInclusion(true).build();
+        fullDraftWriter = objectMapper.writerWithView(DraftViews.Full.class);
+        idsDraftWriter = objectMapper.writerWithView(DraftViews.Ids.class);
+
+        heroes = BenchmarkData.heroes();
+        catalog = new HeroCatalogService(null, objectMapper, HeroMatchStats.empty(), new SimpleMeterRegistry());
+        catalog.publish(heroes);
+
+        DraftState state = new DraftState();
+        state.setId(1L);
+        state.setFormat(TurnSchedule.CAPTAINS_MODE.getName());
+        LiveDraft live = new LiveDraft(new DraftBoard(TurnSchedule.CAPTAINS_MODE), state);
+        for (int turn = 0; turn < TurnSchedule.CAPTAINS_MODE.length(); turn++) {
+            DraftAction action = TurnSchedule.CAPTAINS_MODE.action(turn);
+            live.apply(action, heroes.get(turn).getId());
+        }
+        draft = live.snapshotState(heroId -> catalog.current().findById(heroId).orElseThrow());
+    }
+
+    @Benchmark
+    public byte[] draftStateFullView() throws IOException {
+        return fullDraftWriter.writeValueAsBytes(draft);
+    }
+
+    @Benchmark
+    public byte[] draftStateIdsView() throws IOException {
+        return idsDraftWriter.writeValueAsBytes(draft);
+    }
+
+    @Benchmark
+    public byte[] heroListPerRequest() throws IOException {
+        return objectMapper.writeValueAsBytes(heroes);
+    }
+
+    @Benchmark
+    public byte[] heroListCachedPayload() {
+        return catalog.currentPayload().getJson();
+    }
+}
@@ -0,0 +1,303 @@
+package com.dotadrafter.dota2.loadtest;
+
+import com.dotadrafter.dota2.Dota2Application;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-model load test: every virtual user plays complete drafts (start,
+ * then one pick or ban call per turn) against the REST API until the run
+ * ends, and latency is reported per endpoint.
+ * <p>
+ * By default the application is started in-process on a random port with
+ * OpenDota replaced by a generated local file, so no network access is
+ * needed. Pass {@code target=http://host:port} to drive an instance that is
+ * already running instead (its heroes must already be synced).
+ * <p>
+ * Arguments are {@code key=value}: users (1000), seconds (60), warmup (10),
+ * ramp (10), thinkMs (100), format (captains-mode), heroes (125), target, and
+ * virtualThreads (false) to compare request handling on virtual threads with
+ * Tomcat's platform thread pool.
+ */
+public final class DraftLoadTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final String format;
+    private final long thinkMillis;
+    private final int[] heroIds;
+
+    private final Map<String, LatencyHistogram> endpoints = new LinkedHashMap<>();
+    private final LongAdder completedDrafts = new LongAdder();
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    private DraftLoadTest(HttpClient client, String baseUrl, String format, long thinkMillis, int[] heroIds) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.format = format;
+        this.thinkMillis = thinkMillis;
+        this.heroIds = heroIds;
+        for (String endpoint : new String[]{"start", "pick", "ban"}) {
+            endpoints.put(endpoint, new LatencyHistogram());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int users = Integer.parseInt(options.getOrDefault("users", "1000"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "60"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int ramp = Integer.parseInt(options.getOrDefault("ramp", "10"));
+        long thinkMillis = Long.parseLong(options.getOrDefault("thinkMs", "100"));
+        String format = options.getOrDefault("format", "captains-mode");
+        int heroCount = Integer.parseInt(options.getOrDefault("heroes", "125"));
+        boolean virtualThreads = Boolean.parseBoolean(options.getOrDefault("virtualThreads", "false"));
+
+        ConfigurableApplicationContext app = null;
+        String target = options.get("target");
+        if (target == null) {
+            app = startApplication(heroCount, virtualThreads);
+            target = "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+        }
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient client = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        String baseUrl = target + "/api";
+        if (app != null) {
+            syncHeroes(client, baseUrl);
+        }
+        int[] heroIds = fetchHeroIds(client, baseUrl);
+        System.out.printf("Load test: %d users, %ds (+%ds warmup), think %dms, %s, %d heroes, %s%s%n",
+                users, seconds, warmup, thinkMillis, format, heroIds.length, target,
+                app == null ? "" : virtualThreads ? " (virtual threads)" : " (platform threads)");
+
+        DraftLoadTest test = new DraftLoadTest(client, baseUrl, format, thinkMillis, heroIds);
+        test.run(executor, users, ramp, warmup, seconds);
+        test.report(seconds);
+
+        executor.shutdownNow();
+        if (app != null) {
+            app.close();
+        }
+        System.exit(0);
+    }
+
+    private void run(ExecutorService executor, int users, int ramp, int warmup, int seconds)
+            throws InterruptedException {
+        long rampNanos = TimeUnit.SECONDS.toNanos(ramp);
+        for (int user = 0; user < users; user++) {
+            long delayNanos = users > 1 ? rampNanos * user / (users - 1) : 0;
+            executor.submit(() -> virtualUser(delayNanos));
+        }
+        TimeUnit.SECONDS.sleep(warmup);
+        recording = true;
+        TimeUnit.SECONDS.sleep(seconds);
+        recording = false;
+        running = false;
+    }
+
+    private void virtualUser(long delayNanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(delayNanos);
+            while (running) {
+                playDraft();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void playDraft() throws InterruptedException {
+        JsonNode state = call("start", "/draft/start?view=ids&format=" + format);
+        if (state == null) {
+            return;
+        }
+        long draftId = state.get("id").asLong();
+
+        // A random order of heroes per draft; each turn takes the next one
+        int[] order = heroIds.clone();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int next = 0;
+        while (running && !state.get("complete").asBoolean() && next < order.length) {
+            int swap = next + random.nextInt(order.length - next);
+            int heroId = order[swap];
+            order[swap] = order[next];
+            order[next++] = heroId;
+
+            String endpoint = state.get("pickPhase").asBoolean() ? "pick" : "ban";
+            state = call(endpoint, "/draft/" + draftId + "/" + endpoint + "/" + heroId + "?view=ids");
+            if (state == null) {
+                return;
+            }
+            if (thinkMillis > 0) {
+                TimeUnit.MILLISECONDS.sleep(random.nextLong(thinkMillis / 2, thinkMillis * 3 / 2 + 1));
+            }
+        }
+        if (state.get("complete").asBoolean() && recording) {
+            completedDrafts.increment();
+        }
+    }
+
+    // Times one POST; returns the parsed body, or null if the call failed
+    private JsonNode call(String endpoint, String path) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        LatencyHistogram histogram = endpoints.get(endpoint);
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            long elapsed = System.nanoTime() - start;
+            if (response.statusCode() != 200) {
+                if (recording) {
+                    histogram.recordError();
+                }
+                return null;
+            }
+            if (recording) {
+                histogram.record(elapsed);
+            }
+            return JSON.readTree(response.body());
+        } catch (IOException e) {
+            if (recording) {
+                histogram.recordError();
+            }
+            return null;
+        }
+    }
+
+    private void report(int seconds) {
+        System.out.println();
+        System.out.printf("%-8s %10s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        long requests = 0;
+        for (Map.Entry<String, LatencyHistogram> entry : endpoints.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            requests += histogram.count();
+            System.out.printf("%-8s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), histogram.count(), histogram.errors(), (double) histogram.count() / seconds,
+                    millis(histogram.percentile(50)), millis(histogram.percentile(90)),
+                    millis(histogram.percentile(99)), millis(histogram.max()));
+        }
+        System.out.printf("%nTotal: %.1f req/s, %.1f completed drafts/s%n",
+                (double) requests / seconds, completedDrafts.doubleValue() / seconds);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+
+    private static ConfigurableApplicationContext startApplication(int heroCount, boolean virtualThreads)
+            throws IOException {
+        Path workDir = Files.createTempDirectory("draft-load-test");
+        Path heroStats = writeHeroStats(workDir.resolve("heroStats.json"), heroCount);
+        // Command-line arguments, since default properties would lose to application.properties
+        return new SpringApplicationBuilder(Dota2Application.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--drafter.opendota.base-url=" + heroStats.toUri(),
+                "--drafter.opendota.snapshot-path=",
+                "--drafter.draft-log.directory=" + workDir.resolve("drafts"),
+                "--drafter.sync.scheduled=false",
+                "--drafter.images.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--spring.h2.console.enabled=false",
+                "--logging.level.com.dotadrafter.dota2=WARN",
+                "--logging.level.org.springframework.web=WARN");
+    }
+
+    // OpenDota /api/heroStats stand-in with the fields the client maps
+    private static Path writeHeroStats(Path file, int heroCount) throws IOException {
+        String[] attributes = {"str", "agi", "int", "all"};
+        String[] roles = {"Carry", "Support", "Nuker", "Disabler", "Initiator", "Escape"};
+        ArrayNode heroes = JSON.createArrayNode();
+        for (int id = 1; id <= heroCount; id++) {
+            heroes.addObject()
+                    .put("id", id)
+                    .put("localized_name", "Load Hero " + id)
+                    .put("primary_attr", attributes[id % attributes.length])
+                    .put("attack_type", id % 2 == 0 ? "Melee" : "Ranged")
+                    .put("base_str", 20 + id % 5)
+                    .put("base_agi", 18 + id % 7)
+                    .put("base_int", 16 + id % 9)
+                    .put("img", "/apps/dota2/images/dota_react/heroes/load_" + id + ".png?")
+                    .putArray("roles").add(roles[id % roles.length]).add(roles[(id * 5) % roles.length]);
+        }
+        JSON.writeValue(file.toFile(), heroes);
+        return file;
+    }
+
+    // Sync runs as a background job; wait until it has finished
+    private static void syncHeroes(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+        JsonNode job = JSON.readTree(send(client, HttpRequest.newBuilder(URI.create(baseUrl + "/heroes/sync"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build()));
+        URI status = URI.create(baseUrl + "/heroes/sync/" + job.get("id").asLong());
+        while (!job.get("state").asText().equals("SUCCEEDED")) {
+            if (job.get("state").asText().equals("FAILED")) {
+                throw new IllegalStateException("Hero sync failed: " + job.get("error").asText());
+            }
+            TimeUnit.MILLISECONDS.sleep(100);
+            job = JSON.readTree(send(client, HttpRequest.newBuilder(status).GET().build()));
+        }
+    }
+
+    private static int[] fetchHeroIds(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+        JsonNode heroes = JSON.readTree(send(client, HttpRequest.newBuilder(URI.create(baseUrl + "/heroes"))
+                .GET().build()));
+        int[] ids = new int[heroes.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = heroes.get(i).get("id").asInt();
+        }
+        if (ids.length == 0) {
+            throw new IllegalStateException("No heroes available; sync heroes before running the load test");
+        }
+        return ids;
+    }
+
+    private static byte[] send(HttpClient client, HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split > 0) {
+                options.put(arg.substring(0, split), arg.substring(split + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,84 @@
+package com.dotadrafter.dota2.loadtest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear microsecond buckets: exact below
+ * 64us, then 32 buckets per power of two (about 3% error).
+ */
+final class LatencyHistogram {
+
+    private static final int LINEAR = 64;
+    private static final int SUB_BUCKETS = 32;
+    private static final int MAX_EXPONENT = 40; // about 12 days in microseconds
+
+    private final AtomicLongArray counts = new AtomicLongArray(LINEAR + (MAX_EXPONENT - 5) * SUB_BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    void record(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        counts.incrementAndGet(index(micros));
+        total.increment();
+    }
+
+    void recordError() {
+        errors.increment();
+    }
+
+    long count() {
+        return total.sum();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    /**
+     * Upper bound, in microseconds, of the bucket holding the given percentile.
+     */
+    long percentile(double percentile) {
+        long n = count();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(n * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= Math.max(1, rank)) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(counts.length() - 1);
+    }
+
+    long max() {
+        for (int i = counts.length() - 1; i >= 0; i--) {
+            if (counts.get(i) > 0) {
+                return upperBound(i);
+            }
+        }
+        return 0;
+    }
+
+    static int index(long micros) {
+        if (micros < LINEAR) {
+            return (int) micros;
+        }
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(micros), MAX_EXPONENT);
+        int shift = exponent - 5;
+        int sub = (int) Math.min((micros >>> shift) - SUB_BUCKETS, SUB_BUCKETS - 1);
+        return LINEAR + (exponent - 6) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int exponent = (index - LINEAR) / SUB_BUCKETS + 6;
+        long sub = (index - LINEAR) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << (exponent - 5)) - 1;
+    }
+}
@@ -0,0 +1,49 @@
+package com.dotadrafter.dota2.api;
+
+import com.dotadrafter.dota2.dto.ClusterStatus;
+import com.dotadrafter.dota2.dto.DraftHandoff;
+import com.dotadrafter.dota2.dto.RebalanceReport;
+import com.dotadrafter.dota2.service.ClusterService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Cluster membership and draft hand-off between nodes. Meant for operators
+ * and the other nodes only; keep it off the public network.
+ */
+@RestController
+@RequestMapping("/api/cluster")
+public class ClusterController {
+
+    private final ClusterService clusterService;
+
+    public ClusterController(ClusterService clusterService) {
+        this.clusterService = clusterService;
+    }
+
+    @GetMapping
+    public ClusterStatus status() {
+        return clusterService.status();
+    }
+
+    // New node list (name -> base URL); apply the same list to every node
+    @PutMapping("/nodes")
+    public RebalanceReport updateNodes(@RequestBody Map<String, String> nodes) {
+        return clusterService.updateMembership(nodes);
+    }
+
+    // Retries hand-offs that failed, e.g. while a new node was still starting
+    @PostMapping("/rebalance")
+    public RebalanceReport rebalance() {
+        return clusterService.rebalance();
+    }
+
+    // Drafts in progress handed over by another node
+    @PostMapping("/handoff")
+    public ResponseEntity<Void> handoff(@RequestBody DraftHandoff handoff) {
+        clusterService.receive(handoff);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.dotadrafter.dota2.api;
+
+import com.dotadrafter.dota2.config.ClusterProperties;
+import com.dotadrafter.dota2.service.ClusterService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sends requests for a draft owned by another node to that node, either by
+ * proxying them (event streams included) or by redirecting the client. A
+ * forwarded request carries {@link #FORWARDED_BY}, so a node that disagrees
+ * about ownership during a membership change serves it instead of bouncing
+ * it back.
+ */
+@Component
+public class ClusterRoutingInterceptor implements HandlerInterceptor {
+
+    public static final String FORWARDED_BY = "X-Drafter-Forwarded-By";
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterRoutingInterceptor.class);
+    private static final Pattern DRAFT_PATH = Pattern.compile("^/api/draft/(\\d{1,18})(/.*)?$");
+    private static final List<String> REQUEST_HEADERS = List.of(
+            HttpHeaders.ACCEPT, HttpHeaders.CONTENT_TYPE, HttpHeaders.IF_NONE_MATCH, "Last-Event-ID");
+    private static final List<String> RESPONSE_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.CACHE_CONTROL, HttpHeaders.ETAG, HttpHeaders.LOCATION);
+
+    private final ClusterService clusterService;
+    private final ClusterProperties.Routing routing;
+
+    public ClusterRoutingInterceptor(ClusterService clusterService, ClusterProperties properties) {
+        this.clusterService = clusterService;
+        this.routing = properties.getRouting();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (request.getHeader(FORWARDED_BY) != null) {
+            return true;
+        }
+        Matcher matcher = DRAFT_PATH.matcher(request.getRequestURI());
+        if (!matcher.matches()) {
+            return true;
+        }
+        Optional<String> owner = clusterService.ownerUrl(Long.parseLong(matcher.group(1)));
+        if (owner.isEmpty()) {
+            return true;
+        }
+
+        String target = owner.get() + request.getRequestURI()
+                + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+        if (routing == ClusterProperties.Routing.REDIRECT) {
+            // 307 keeps the method and body, so a redirected pick is still a POST
+            response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+            response.setHeader(HttpHeaders.LOCATION, target);
+            return false;
+        }
+        forward(request, response, target);
+        return false;
+    }
+
+    private void forward(HttpServletRequest request, HttpServletResponse response, String target)
+            throws IOException {
+        byte[] body = request.getInputStream().readAllBytes();
+        HttpRequest.Builder upstream = HttpRequest.newBuilder(URI.create(target))
+                .method(request.getMethod(), body.length > 0
+                        ? HttpRequest.BodyPublishers.ofByteArray(body)
+                        : HttpRequest.BodyPublishers.noBody())
+                .header(FORWARDED_BY, clusterService.nodeId());
+        for (String name : REQUEST_HEADERS) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                upstream.header(name, value);
+            }
+        }
+
+        HttpResponse<InputStream> answer;
+        try {
+            answer = clusterService.httpClient().send(upstream.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (IOException e) {
+            log.warn("Draft owner at {} is unreachable: {}", target, e.getMessage());
+            response.sendError(HttpStatus.BAD_GATEWAY.value(), "Draft owner unreachable");
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+
+        response.setStatus(answer.statusCode());
+        for (String name : RESPONSE_HEADERS) {
+            answer.headers().firstValue(name).ifPresent(value -> response.setHeader(name, value));
+        }
+        // Flushed per read so server-sent events reach the client as they arrive
+        try (InputStream in = answer.body()) {
+            OutputStream out = response.getOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+        } catch (IOException e) {
+            // The client or the owner went away mid-stream; nothing left to answer
+            log.debug("Forwarding {} ended early: {}", target, e.getMessage());
+        }
+    }
+}
@@ -1,65 +1,349 @@
 package com.dotadrafter.dota2.api;
 
-import com.dotadrafter.dota2.model.DraftState;
-import com.dotadrafter.dota2.model.Hero;
+import com.dotadrafter.dota2.config.HeroImageProperties;
+import com.dotadrafter.dota2.dto.DraftActionRequest;
+import com.dotadrafter.dota2.dto.DraftAnalysis;
+import com.dotadrafter.dota2.dto.DraftBatchResult;
+import com.dotadrafter.dota2.dto.DraftEvent;
+import com.dotadrafter.dota2.dto.DraftImportResult;
+import com.dotadrafter.dota2.dto.DraftStatsReport;
+import com.dotadrafter.dota2.dto.HeroMatchups;
+import com.dotadrafter.dota2.dto.HeroRecommendation;
+import com.dotadrafter.dota2.dto.HeroSyncJob;
+import com.dotadrafter.dota2.dto.SimulationReport;
+import com.dotadrafter.dota2.engine.SimulationPolicy;
+import com.dotadrafter.dota2.model.DraftViews;
+import com.dotadrafter.dota2.model.HeroAttribute;
+import com.dotadrafter.dota2.service.DraftArchiveCodec;
+import com.dotadrafter.dota2.service.DraftArchiveService;
+import com.dotadrafter.dota2.service.DraftSearchService;
 import com.dotadrafter.dota2.service.DraftService;
+import com.dotadrafter.dota2.service.DraftStatistics;
+import com.dotadrafter.dota2.service.HeroListPayload;
 import com.dotadrafter.dota2.service.HeroService;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.dotadrafter.dota2.service.HeroSyncService;
+import com.dotadrafter.dota2.service.RecommendationService;
+import com.dotadrafter.dota2.service.SimulationService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = "*")
 public class MyController {
 
-    private static final Logger log = LoggerFactory.getLogger(MyController.class);
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
     private final HeroService heroService;
     private final DraftService draftService;
+    private final RecommendationService recommendationService;
+    private final DraftSearchService draftSearchService;
+    private final SimulationService simulationService;
+    private final DraftArchiveService draftArchiveService;
+    private final DraftStatistics draftStatistics;
+    private final HeroSyncService heroSyncService;
+    private final CacheControl heroImageCaching;
 
-    public MyController(HeroService heroService, DraftService draftService) {
+    public MyController(HeroService heroService, DraftService draftService,
+                        RecommendationService recommendationService, DraftSearchService draftSearchService,
+                        SimulationService simulationService, DraftArchiveService draftArchiveService,
+                        DraftStatistics draftStatistics,
+                        HeroSyncService heroSyncService, HeroImageProperties heroImageProperties) {
         this.heroService = heroService;
         this.draftService = draftService;
+        this.recommendationService = recommendationService;
+        this.draftSearchService = draftSearchService;
+        this.simulationService = simulationService;
+        this.draftArchiveService = draftArchiveService;
+        this.draftStatistics = draftStatistics;
+        this.heroSyncService = heroSyncService;
+        this.heroImageCaching = CacheControl.maxAge(heroImageProperties.getMaxAge()).cachePublic().immutable();
     }
 
     // Phase 1: Display all heroes
+    // Served from bytes rendered once per catalog version; clients revalidate with the ETag
     @GetMapping("/heroes")
-    public List<Hero> getAllHeroes() {
-        return heroService.getAllHeroes();
+    public ResponseEntity<byte[]> getAllHeroes(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        HeroListPayload payload = heroService.getHeroListPayload();
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String etag = gzip ? payload.getGzipEtag() : payload.getEtag();
+
+        if (payload.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.getGzipJson());
+        }
+        return response.body(payload.getJson());
+    }
+
+    // Returns only the ids of heroes matching every given filter, e.g.
+    // /api/heroes/search?name=ma&attribute=AGILITY&roles=Carry,Escape
+    @GetMapping("/heroes/search")
+    public long[] searchHeroes(@RequestParam(required = false) String name,
+                               @RequestParam(required = false) HeroAttribute attribute,
+                               @RequestParam(required = false) List<String> roles) {
+        return heroService.searchHeroes(name, attribute, roles);
+    }
+
+    // Hero image from the local cache; image URLs are versioned, so browsers keep them.
+    // Redirects to the CDN while the image is not cached yet
+    @GetMapping("/heroes/{id}/image")
+    public void heroImage(@PathVariable long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Optional<Path> image = heroService.findImage(id);
+        if (image.isEmpty()) {
+            Optional<String> source = heroService.imageSource(id);
+            if (source.isPresent()) {
+                response.sendRedirect(source.get());
+            } else {
+                response.sendError(HttpStatus.NOT_FOUND.value());
+            }
+            return;
+        }
+
+        Path file = image.get();
+        long length;
+        long lastModified;
+        try {
+            length = Files.size(file);
+            lastModified = Files.getLastModifiedTime(file).toMillis();
+        } catch (NoSuchFileException e) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        String etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + "\"";
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+        response.setContentType(MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(length);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, heroImageCaching.getHeaderValue());
+        sendFile(file, length, request, response);
     }
 
     // Phase 1: Mechanics
+    // view=ids returns hero ids instead of embedded heroes
     @PostMapping("/draft/start")
-    public DraftState startDraft() {
-        return draftService.startNewDraft();
+    public MappingJacksonValue startDraft(@RequestParam(required = false) String format,
+                                          @RequestParam(defaultValue = "full") String view) {
+        return draftView(draftService.startNewDraft(format), view);
     }
 
     @PostMapping("/draft/{id}/pick/{heroId}")
-    public DraftState pickHero(@PathVariable Long id, @PathVariable Long heroId) {
-        return draftService.pickHero(id, heroId);
+    public MappingJacksonValue pickHero(@PathVariable Long id, @PathVariable Long heroId,
+                                        @RequestParam(defaultValue = "full") String view) {
+        return draftView(draftService.pickHero(id, heroId), view);
     }
 
     @PostMapping("/draft/{id}/ban/{heroId}")
-    public DraftState banHero(@PathVariable Long id, @PathVariable Long heroId) {
-        return draftService.banHero(id, heroId);
+    public MappingJacksonValue banHero(@PathVariable Long id, @PathVariable Long heroId,
+                                       @RequestParam(defaultValue = "full") String view) {
+        return draftView(draftService.banHero(id, heroId), view);
+    }
+
+    // Ordered picks and bans in one request, e.g. [{"action":"BAN","heroId":14}, ...], applied
+    // up to the first rejected one; the result names its index and reason
+    @PostMapping("/draft/{id}/actions")
+    public MappingJacksonValue applyActions(@PathVariable Long id, @RequestBody List<DraftActionRequest> actions,
+                                            @RequestParam(defaultValue = "full") String view) {
+        return draftView(draftService.applyActions(id, actions), view);
+    }
+
+    // Starts a draft and applies the actions to it, logged together with the start
+    @PostMapping("/draft/actions")
+    public MappingJacksonValue startDraftWithActions(@RequestParam(required = false) String format,
+                                                     @RequestBody List<DraftActionRequest> actions,
+                                                     @RequestParam(defaultValue = "full") String view) {
+        return draftView(draftService.startDraftWithActions(format, actions), view);
+    }
+
+    // Finished drafts streamed in the compact binary archive format
+    @GetMapping("/drafts/export")
+    public ResponseEntity<StreamingResponseBody> exportDrafts(@RequestParam(defaultValue = "1") long fromId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(DraftArchiveCodec.MEDIA_TYPE))
+                .body(out -> draftArchiveService.exportDrafts(fromId, out));
+    }
+
+    @PostMapping(value = "/drafts/import",
+            consumes = {DraftArchiveCodec.MEDIA_TYPE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public DraftImportResult importDrafts(InputStream body) {
+        return draftArchiveService.importDrafts(body);
+    }
+
+    // Every action of a draft in order, replayed from the draft event log
+    @GetMapping("/draft/{id}/history")
+    public List<DraftEvent> draftHistory(@PathVariable Long id) {
+        return draftService.history(id);
+    }
+
+    // Historical allies and opponents of a hero from the ingested match dumps
+    @GetMapping("/heroes/{id}/matchups")
+    public ResponseEntity<HeroMatchups> heroMatchups(@PathVariable long id,
+                                                     @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.of(recommendationService.matchups(id, limit));
+    }
+
+    // Best remaining heroes for the side to act (or to deny, during bans)
+    @GetMapping("/draft/{id}/recommendations")
+    public List<HeroRecommendation> recommendations(@PathVariable Long id,
+                                                    @RequestParam(defaultValue = "10") int limit) {
+        return recommendationService.recommend(id, limit);
+    }
+
+    // Best remaining pick/ban sequence by look-ahead search within a time budget
+    @GetMapping("/draft/{id}/analysis")
+    public DraftAnalysis analyzeDraft(@PathVariable Long id,
+                                      @RequestParam(defaultValue = "4") int depth,
+                                      @RequestParam(defaultValue = "500") long budgetMs) {
+        return draftSearchService.analyze(id, depth, budgetMs);
+    }
+
+    // Server-sent events with one {turn, side, action, heroId} delta per accepted action
+    @GetMapping(value = "/draft/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<DraftEvent>> draftEvents(@PathVariable Long id) {
+        return draftService.streamEvents(id)
+                .map(event -> ServerSentEvent.builder(event)
+                        .id(Integer.toString(event.turn()))
+                        .event(event.action().name().toLowerCase())
+                        .build());
+    }
+
+    // Monte Carlo pick/ban priority estimate over many headless drafts
+    @PostMapping("/simulations")
+    public SimulationReport simulate(@RequestParam(defaultValue = "10000") long drafts,
+                                     @RequestParam(required = false) String format,
+                                     @RequestParam(defaultValue = "RANDOM") SimulationPolicy policy,
+                                     @RequestParam(required = false) Long seed) {
+        return simulationService.simulate(drafts, format, policy, seed);
+    }
+
+    // Live top-N pick/ban/contest rates of drafts on this instance (window=0 means since startup), optionally for one phase
+    @GetMapping("/stats/heroes")
+    public DraftStatsReport heroStats(@RequestParam(defaultValue = "CONTEST") DraftStatistics.Metric metric,
+                                      @RequestParam(defaultValue = "10") int limit,
+                                      @RequestParam(defaultValue = "60") int window,
+                                      @RequestParam(required = false) Integer phase) {
+        return draftStatistics.report(metric, limit, window, phase);
     }
 
     // Phase 2: Sync heroes from OpenDota API
+    // Starts a background sync (or joins the one running) and answers right away with its job
     @PostMapping("/heroes/sync")
-    public ResponseEntity<String> syncHeroes() {
-        try {
-            log.info("Starting hero sync from OpenDota API...");
-            int count = heroService.syncHeroesFromApi();
-            log.info("Successfully synced {} heroes", count);
-            return ResponseEntity.ok("Successfully synced " + count + " heroes from OpenDota API");
-        } catch (Exception e) {
-            log.error("Failed to sync heroes from API", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Error syncing heroes: " + e.getMessage());
+    public ResponseEntity<HeroSyncJob> syncHeroes() {
+        HeroSyncJob job = heroSyncService.trigger("api");
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/heroes/sync/" + job.id()))
+                .body(job);
+    }
+
+    @GetMapping("/heroes/sync/{jobId}")
+    public ResponseEntity<HeroSyncJob> syncStatus(@PathVariable long jobId) {
+        return ResponseEntity.of(heroSyncService.find(jobId));
+    }
+
+    // Most recent sync, scheduled or requested
+    @GetMapping("/heroes/sync/latest")
+    public ResponseEntity<HeroSyncJob> latestSync() {
+        return ResponseEntity.of(heroSyncService.latest());
+    }
+
+    // gzip (or *) listed with a non-zero q-value, e.g. "gzip, deflate" but not "gzip;q=0"
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double wildcard = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                return quality > 0;
+            }
+            if (coding.equals("*")) {
+                wildcard = quality;
+            }
         }
+        return wildcard != null && wildcard > 0;
+    }
+
+    // Tomcat's NIO connector sends the file with sendfile once the handler returns, without
+    // copying it through the JVM; other containers get a channel-to-channel transfer
+    private static void sendFile(Path file, long length, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute("org.apache.tomcat.sendfile.filename", file.toRealPath().toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", 0L);
+            request.setAttribute("org.apache.tomcat.sendfile.end", length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long sent = 0;
+            while (sent < length) {
+                long transferred = channel.transferTo(sent, length - sent, out);
+                if (transferred <= 0) {
+                    break;
+                }
+                sent += transferred;
+            }
+        }
+    }
+
+    // A draft, or a result embedding one, in the requested view
+    private static MappingJacksonValue draftView(Object body, String view) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setSerializationView("ids".equalsIgnoreCase(view) ? DraftViews.Ids.class : DraftViews.Full.class);
+        return value;
     }
 }
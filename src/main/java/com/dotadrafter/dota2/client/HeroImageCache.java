@@ -0,0 +1,225 @@
+package com.dotadrafter.dota2.client;
+
+import com.dotadrafter.dota2.config.HeroImageProperties;
+import com.dotadrafter.dota2.dto.HeroStatsDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Local copy of every hero image, so clients load portraits from this server
+ * instead of the Steam CDN and a node that has synced once keeps working
+ * offline. Images are downloaded during hero sync; an image already cached
+ * is only downloaded again when the CDN reports it modified, or when the
+ * hero's upstream image path changes.
+ */
+@Component
+public class HeroImageCache {
+
+    private static final Logger log = LoggerFactory.getLogger(HeroImageCache.class);
+    // {heroId}-{path version}.{extension}, the version derived from the upstream path
+    private static final Pattern CACHED_FILE = Pattern.compile("(\\d+)-(\\w+)\\.(\\w{1,5})");
+    private static final Pattern EXTENSION = Pattern.compile("\\.(\\w{1,5})(?:\\?.*)?$");
+    private static final int MAX_IMAGE_BYTES = 4 * 1024 * 1024;
+
+    private final HeroImageProperties properties;
+    private final WebClient webClient;
+    private final Path directory;
+    private final Counter fetched;
+    private final Counter notModified;
+    private final Counter failed;
+
+    // Cached file and upstream URL per hero id
+    private final Map<Long, Path> files = new ConcurrentHashMap<>();
+    private final Map<Long, String> sources = new ConcurrentHashMap<>();
+
+    public HeroImageCache(WebClient.Builder webClientBuilder, HeroImageProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.webClient = webClientBuilder.clone()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(MAX_IMAGE_BYTES))
+                .build();
+        this.directory = Path.of(properties.getDirectory());
+        this.fetched = images(meterRegistry, "fetched");
+        this.notModified = images(meterRegistry, "not_modified");
+        this.failed = images(meterRegistry, "failed");
+        if (properties.isEnabled()) {
+            loadIndex();
+        }
+    }
+
+    /**
+     * The URL clients load a hero's image from: this server's copy, or the CDN
+     * itself when the cache is disabled. The URL is versioned by the upstream
+     * path and by when the cached copy was last downloaded, so browsers may
+     * cache it for good and still see an image replaced at the same path.
+     */
+    public String imageUrl(HeroStatsDto dto) {
+        if (!properties.isEnabled() || dto.getImg() == null) {
+            return properties.getCdnBaseUrl() + dto.getImg();
+        }
+        return "/api/heroes/" + dto.getId() + "/image?v=" + version(dto.getId(), dto.getImg());
+    }
+
+    /**
+     * Downloads the image of every hero that has none cached, or whose cached
+     * copy is out of date. Failures are logged and keep the previous copy;
+     * returns how many images were written.
+     */
+    public int refresh(List<HeroStatsDto> heroes) {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            log.warn("Hero image cache directory {} is not writable", directory, e);
+            return 0;
+        }
+        heroes.stream()
+                .filter(dto -> dto.getImg() != null)
+                .forEach(dto -> sources.put(dto.getId(), properties.getCdnBaseUrl() + dto.getImg()));
+
+        Integer written = Flux.fromIterable(heroes)
+                .filter(dto -> dto.getImg() != null)
+                .flatMap(dto -> fetch(dto.getId(), dto.getImg()), properties.getConcurrency())
+                .take(properties.getFetchTimeout())
+                .reduce(0, Integer::sum)
+                .block();
+        return written != null ? written : 0;
+    }
+
+    public Optional<Path> find(long heroId) {
+        return Optional.ofNullable(files.get(heroId));
+    }
+
+    // Where the image came from, for clients to fall back on while it is not cached
+    public Optional<String> sourceUrl(long heroId) {
+        return Optional.ofNullable(sources.get(heroId));
+    }
+
+    private Mono<Integer> fetch(long heroId, String img) {
+        Path target = directory.resolve(heroId + "-" + pathVersion(img) + "." + extension(img));
+        long cachedAt = lastModified(target);
+        return webClient.get()
+                .uri(URI.create(properties.getCdnBaseUrl() + img))
+                .headers(headers -> {
+                    if (cachedAt > 0) {
+                        headers.setIfModifiedSince(cachedAt);
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value() && cachedAt > 0) {
+                        notModified.increment();
+                        files.put(heroId, target);
+                        return response.releaseBody().thenReturn(0);
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.createException().flatMap(Mono::error);
+                    }
+                    long lastModified = response.headers().asHttpHeaders().getLastModified();
+                    return response.bodyToMono(byte[].class)
+                            .publishOn(Schedulers.boundedElastic())
+                            .map(image -> store(heroId, target, image, lastModified));
+                })
+                .onErrorResume(error -> {
+                    failed.increment();
+                    log.warn("Could not fetch the image of hero {}: {}", heroId, error.getMessage());
+                    return Mono.just(0);
+                });
+    }
+
+    // Written to a temporary file and moved into place, so a reader never sees half an image
+    private int store(long heroId, Path target, byte[] image, long lastModified) {
+        try {
+            Path temp = Files.createTempFile(directory, "hero-image", ".tmp");
+            Files.write(temp, image);
+            if (lastModified > 0) {
+                // Upstream's own timestamp, so the next If-Modified-Since is exact
+                Files.setLastModifiedTime(temp, FileTime.fromMillis(lastModified));
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Path previous = files.put(heroId, target);
+            if (previous != null && !previous.equals(target)) {
+                Files.deleteIfExists(previous);
+            }
+            fetched.increment();
+            return 1;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to cache the image of hero " + heroId, e);
+        }
+    }
+
+    // Picks up the images cached before a restart; the newest file wins per hero
+    private void loadIndex() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> cached = Files.list(directory)) {
+            cached.forEach(file -> {
+                Matcher matcher = CACHED_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    files.merge(Long.parseLong(matcher.group(1)), file,
+                            (current, candidate) -> lastModified(candidate) > lastModified(current) ? candidate : current);
+                }
+            });
+            log.info("Hero image cache holds {} images", files.size());
+        } catch (IOException e) {
+            log.warn("Could not read hero image cache {}", directory, e);
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    // The stored file's modification time is upstream's Last-Modified, so it changes with every download
+    private String version(long heroId, String img) {
+        String version = pathVersion(img);
+        Path cached = files.get(heroId);
+        long modified = cached != null && cached.getFileName().toString().startsWith(heroId + "-" + version + ".")
+                ? lastModified(cached) : 0;
+        return modified > 0 ? version + "-" + Long.toHexString(modified) : version;
+    }
+
+    private static String pathVersion(String img) {
+        return Integer.toHexString(img.hashCode());
+    }
+
+    private static String extension(String img) {
+        Matcher matcher = EXTENSION.matcher(img);
+        return matcher.find() ? matcher.group(1).toLowerCase() : "png";
+    }
+
+    private static Counter images(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("drafter.heroes.images")
+                .description("Hero image downloads during sync, by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
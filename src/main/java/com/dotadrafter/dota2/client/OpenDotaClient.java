@@ -1,31 +1,220 @@
 package com.dotadrafter.dota2.client;
 
+import com.dotadrafter.dota2.config.OpenDotaProperties;
 import com.dotadrafter.dota2.dto.HeroStatsDto;
+import com.dotadrafter.dota2.dto.HeroStatsSnapshot;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutException;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.util.retry.Retry;
 
-import java.util.Arrays;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Component
 public class OpenDotaClient {
 
+    private static final Logger log = LoggerFactory.getLogger(OpenDotaClient.class);
+    private static final String FILE_SCHEME = "file:";
+
+    private final OpenDotaProperties properties;
+    private final ObjectMapper objectMapper;
     private final WebClient webClient;
+    private final Path fixture;
+    private final Path snapshotPath;
+    private final MeterRegistry meterRegistry;
+    private final Counter snapshotFallbacks;
+
+    private volatile HeroStatsSnapshot snapshot;
+
+    public OpenDotaClient(WebClient.Builder webClientBuilder, OpenDotaProperties properties,
+                          ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.snapshotFallbacks = Counter.builder("drafter.opendota.snapshot.fallbacks")
+                .description("Fetches answered from the last good snapshot because OpenDota was unavailable")
+                .register(meterRegistry);
 
-    public OpenDotaClient(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder
-                .baseUrl("https://api.opendota.com")
+        String baseUrl = properties.getBaseUrl();
+        this.fixture = baseUrl.startsWith(FILE_SCHEME) ? Path.of(URI.create(baseUrl)) : null;
+
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout())
+                .doOnConnected(connection -> connection.addHandlerLast(
+                        new ReadTimeoutHandler(properties.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS)));
+        this.webClient = webClientBuilder.clone()
+                .baseUrl(fixture == null ? baseUrl : "http://localhost")
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .build();
+
+        String path = properties.getSnapshotPath();
+        this.snapshotPath = path == null || path.isBlank() ? null : Path.of(path);
+        this.snapshot = loadSnapshot();
     }
 
+    /**
+     * Fetches all hero stats, retrying transient failures with backoff. If the
+     * upstream stays unavailable the last good snapshot is returned instead.
+     */
     public List<HeroStatsDto> fetchHeroStats() {
-        HeroStatsDto[] heroArray = webClient.get()
-                .uri("/api/heroStats")
-                .retrieve()
-                .bodyToMono(HeroStatsDto[].class)
+        List<HeroStatsDto> heroes = streamHeroStats()
+                .collectList()
+                .retryWhen(Retry.backoff(properties.getMaxRetries(), properties.getRetryBackoff())
+                        .filter(OpenDotaClient::isRetryable))
+                // Bounds all attempts together; ahead of the fallback so running out of time uses the snapshot too
+                .timeout(properties.getFetchTimeout())
+                .onErrorResume(error -> {
+                    HeroStatsSnapshot lastGood = snapshot;
+                    if (lastGood == null) {
+                        return Mono.error(error);
+                    }
+                    log.warn("OpenDota unavailable ({}), using last good snapshot", error.getMessage());
+                    snapshotFallbacks.increment();
+                    return Mono.just(lastGood.getHeroes());
+                })
                 .block();
 
-        return heroArray != null ? Arrays.asList(heroArray) : List.of();
+        return heroes != null ? heroes : List.of();
+    }
+
+    /**
+     * Hero stats of the last good response persisted at snapshot-path, without
+     * contacting OpenDota; empty if there is none.
+     */
+    public List<HeroStatsDto> lastGoodHeroStats() {
+        HeroStatsSnapshot lastGood = snapshot;
+        return lastGood != null && lastGood.getHeroes() != null ? lastGood.getHeroes() : List.of();
+    }
+
+    /**
+     * Streams hero stats as they are decoded from the upstream JSON array, in a
+     * single attempt. Sends the stored validators so an unchanged upstream
+     * answers 304 and the snapshot is replayed without transferring the body.
+     */
+    public Flux<HeroStatsDto> streamHeroStats() {
+        if (fixture != null) {
+            return Flux.using(
+                    () -> objectMapper.readerFor(HeroStatsDto.class).<HeroStatsDto>readValues(fixture.toFile()),
+                    iterator -> Flux.fromIterable(() -> iterator),
+                    OpenDotaClient::closeQuietly);
+        }
+
+        return Flux.defer(() -> {
+            HeroStatsSnapshot lastGood = snapshot;
+            long start = System.nanoTime();
+            AtomicReference<String> status = new AtomicReference<>("ok");
+            return webClient.get()
+                    .uri("/api/heroStats")
+                    .headers(headers -> {
+                        if (lastGood != null && lastGood.getEtag() != null) {
+                            headers.setIfNoneMatch(lastGood.getEtag());
+                        }
+                        if (lastGood != null && lastGood.getLastModified() != null) {
+                            headers.set(HttpHeaders.IF_MODIFIED_SINCE, lastGood.getLastModified());
+                        }
+                    })
+                    .exchangeToFlux(response -> {
+                        if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value() && lastGood != null) {
+                            log.debug("OpenDota hero stats not modified");
+                            status.set("not_modified");
+                            return response.releaseBody().thenMany(Flux.fromIterable(lastGood.getHeroes()));
+                        }
+                        if (response.statusCode().isError()) {
+                            return response.createException().flatMapMany(Flux::error);
+                        }
+
+                        String etag = response.headers().asHttpHeaders().getETag();
+                        String lastModified = response.headers().asHttpHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+                        List<HeroStatsDto> received = new ArrayList<>();
+                        return response.bodyToFlux(HeroStatsDto.class)
+                                .doOnNext(received::add)
+                                .doOnComplete(() -> saveSnapshot(new HeroStatsSnapshot(etag, lastModified, received)));
+                    })
+                    .doFinally(signal -> recordUpstream(switch (signal) {
+                        case ON_ERROR -> "error";
+                        case CANCEL -> "cancelled";
+                        default -> status.get();
+                    }, System.nanoTime() - start));
+        });
+    }
+
+    // One timer sample per attempt, body transfer included; retries are timed separately
+    private void recordUpstream(String status, long nanos) {
+        Timer.builder("drafter.opendota.requests")
+                .description("OpenDota heroStats requests")
+                .tag("status", status)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static boolean isRetryable(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == 429;
+        }
+        return error instanceof WebClientRequestException || error instanceof TimeoutException
+                || error instanceof ReadTimeoutException;
+    }
+
+    private HeroStatsSnapshot loadSnapshot() {
+        if (snapshotPath == null || !Files.isReadable(snapshotPath)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(snapshotPath.toFile(), HeroStatsSnapshot.class);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable OpenDota snapshot {}", snapshotPath, e);
+            return null;
+        }
+    }
+
+    private void saveSnapshot(HeroStatsSnapshot next) {
+        snapshot = next;
+        if (snapshotPath == null) {
+            return;
+        }
+        try {
+            Path parent = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "hero-stats", ".tmp");
+            objectMapper.writeValue(temp.toFile(), next);
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to persist OpenDota snapshot to {}", snapshotPath, e);
+        }
+    }
+
+    private static void closeQuietly(MappingIterator<?> iterator) {
+        try {
+            iterator.close();
+        } catch (IOException e) {
+            log.debug("Failed to close hero stats fixture", e);
+        }
     }
 }
@@ -0,0 +1,40 @@
+package com.dotadrafter.dota2.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "drafter.cluster")
+@Data
+public class ClusterProperties {
+
+    // This node's name in the node list
+    private String nodeId = "local";
+
+    // Every node's base URL by name, this one included; empty runs a single node
+    private Map<String, String> nodes = new LinkedHashMap<>();
+
+    // Ring points per node; more points spread drafts more evenly
+    private int virtualNodes = 128;
+
+    // How requests for a draft owned by another node are answered
+    private Routing routing = Routing.FORWARD;
+
+    // Connecting to another node, for forwarded requests and hand-offs
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    // One batch of drafts handed off to a new owner
+    private Duration handoffTimeout = Duration.ofSeconds(30);
+
+    public enum Routing {
+        // Proxy the request to the owner and relay its answer, event streams included
+        FORWARD,
+        // Answer 307 with the owner's URL
+        REDIRECT
+    }
+}
@@ -0,0 +1,22 @@
+package com.dotadrafter.dota2.config;
+
+import com.dotadrafter.dota2.api.ClusterRoutingInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class ClusterWebConfig implements WebMvcConfigurer {
+
+    private final ClusterRoutingInterceptor clusterRoutingInterceptor;
+
+    public ClusterWebConfig(ClusterRoutingInterceptor clusterRoutingInterceptor) {
+        this.clusterRoutingInterceptor = clusterRoutingInterceptor;
+    }
+
+    // Per-draft endpoints are answered by the node owning the draft
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(clusterRoutingInterceptor).addPathPatterns("/api/draft/**");
+    }
+}
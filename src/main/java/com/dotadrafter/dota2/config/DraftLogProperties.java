@@ -0,0 +1,25 @@
+package com.dotadrafter.dota2.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "drafter.draft-log")
+@Data
+public class DraftLogProperties {
+
+    // Directory holding the log segments and their snapshots
+    private String directory = "data/drafts";
+
+    // A full segment is closed and a snapshot of the open drafts is written
+    private long segmentBytes = 8L * 1024 * 1024;
+
+    // Buffered appends are written out at least this often
+    private Duration flushInterval = Duration.ofMillis(20);
+
+    // Force every write to the storage device instead of leaving it to the OS
+    private boolean fsync = false;
+}
@@ -0,0 +1,30 @@
+package com.dotadrafter.dota2.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "drafter.draft")
+@Data
+public class DraftProperties {
+
+    // Format used when a draft is started without one
+    private String defaultFormat = "captains-mode";
+
+    // Custom tournament formats: name -> step spec such as "RB DB RP DP"
+    private Map<String, String> formats = new LinkedHashMap<>();
+
+    // Most drafts held in memory; the least recently used are evicted beyond it
+    private int maxLive = 100_000;
+
+    // A draft in progress with no action or read for this long is abandoned
+    private Duration idleTtl = Duration.ofMinutes(30);
+
+    // Finished drafts stay in memory this long for follow-up reads, then are served from the log
+    private Duration completedTtl = Duration.ofMinutes(2);
+}
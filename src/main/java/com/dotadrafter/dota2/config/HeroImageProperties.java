@@ -0,0 +1,31 @@
+package com.dotadrafter.dota2.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "drafter.images")
+@Data
+public class HeroImageProperties {
+
+    // Serve hero images from the local cache; false links clients straight to the CDN
+    private boolean enabled = true;
+
+    // Where OpenDota's image paths are resolved
+    private String cdnBaseUrl = "https://cdn.cloudflare.steamstatic.com";
+
+    // One file per hero; kept across restarts so a synced node works offline
+    private String directory = "data/hero-images";
+
+    // Images downloaded at once during a sync
+    private int concurrency = 8;
+
+    // Upper bound for refreshing every image during one sync
+    private Duration fetchTimeout = Duration.ofSeconds(60);
+
+    // Browser cache lifetime; image URLs change whenever the upstream image path does
+    private Duration maxAge = Duration.ofDays(365);
+}
@@ -0,0 +1,35 @@
+package com.dotadrafter.dota2.config;
+
+import com.dotadrafter.dota2.service.HeroMatchStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Configuration
+public class HeroStatsConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(HeroStatsConfig.class);
+
+    // Historical match stats; an unreadable file is logged and leaves the role-based priors in use
+    @Bean
+    public HeroMatchStats heroMatchStats(HeroStatsProperties properties) {
+        Path file = Path.of(properties.getFile());
+        if (!Files.isRegularFile(file)) {
+            log.info("No hero stats file at {}, recommendations use role-based priors", file);
+            return HeroMatchStats.empty();
+        }
+        try {
+            HeroMatchStats stats = HeroMatchStats.read(file);
+            log.info("Loaded hero stats of {} matches from {}", stats.matches(), file);
+            return stats;
+        } catch (IOException e) {
+            log.warn("Could not read hero stats file {}", file, e);
+            return HeroMatchStats.empty();
+        }
+    }
+}
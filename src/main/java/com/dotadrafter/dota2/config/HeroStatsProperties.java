@@ -0,0 +1,20 @@
+package com.dotadrafter.dota2.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "drafter.hero-stats")
+@Data
+public class HeroStatsProperties {
+
+    // Written offline by MatchDumpIngester; read once at startup, missing means no match data
+    private String file = "data/hero-stats.bin";
+
+    // Games a pair needs before its win rate replaces the role-based prior
+    private int minGames = 200;
+
+    // Scales a pair's win rate over expectation (0.05 = 5 points) into a matchup score
+    private double matchupWeight = 5.0;
+}
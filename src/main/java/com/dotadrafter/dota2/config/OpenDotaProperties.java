@@ -0,0 +1,28 @@
+package com.dotadrafter.dota2.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "drafter.opendota")
+@Data
+public class OpenDotaProperties {
+
+    // OpenDota API root, or file:/path/to/heroStats.json for an offline stand-in
+    private String baseUrl = "https://api.opendota.com";
+
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    private Duration readTimeout = Duration.ofSeconds(15);
+
+    // Upper bound for one whole fetch including retries
+    private Duration fetchTimeout = Duration.ofSeconds(60);
+
+    private int maxRetries = 3;
+    private Duration retryBackoff = Duration.ofMillis(500);
+
+    // Last successful response, reused for conditional requests and outages; empty disables it
+    private String snapshotPath = "data/opendota-hero-stats.json";
+}
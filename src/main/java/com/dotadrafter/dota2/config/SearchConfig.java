@@ -0,0 +1,25 @@
+package com.dotadrafter.dota2.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class SearchConfig {
+
+    // Dedicated pool so look-ahead searches never starve the common pool
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool draftSearchPool(@Value("${drafter.search.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads);
+    }
+
+    // Simulations get their own, smaller pool so a long run never holds up analysis requests
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool draftSimulationPool(@Value("${drafter.simulation.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new ForkJoinPool(threads);
+    }
+}
@@ -0,0 +1,20 @@
+package com.dotadrafter.dota2.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+@EnableScheduling
+public class SyncConfig {
+
+    // Hero sync blocks on OpenDota and JDBC; each run gets its own virtual thread
+    // so it never holds a request thread or a pooled platform thread
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService heroSyncExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("hero-sync-", 0).factory());
+    }
+}
@@ -0,0 +1,11 @@
+package com.dotadrafter.dota2.dto;
+
+import java.util.List;
+
+/**
+ * A draft as moved between nodes: its format, start time and every action in
+ * turn order. Exports carry finished drafts; cluster hand-offs carry drafts
+ * in progress.
+ */
+public record ArchivedDraft(long draftId, String format, long startedAt, List<DraftEvent> events) {
+}
@@ -0,0 +1,11 @@
+package com.dotadrafter.dota2.dto;
+
+import java.util.Map;
+
+/**
+ * One node's view of the cluster: the membership it routes by, and the drafts
+ * and ids it holds.
+ */
+public record ClusterStatus(String nodeId, Map<String, String> nodes, int virtualNodes, String routing,
+                            long nextDraftId, int openDrafts) {
+}
@@ -0,0 +1,9 @@
+package com.dotadrafter.dota2.dto;
+
+import com.dotadrafter.dota2.engine.DraftAction;
+
+/**
+ * One pick or ban of a batch, e.g. {@code {"action": "BAN", "heroId": 14}}.
+ */
+public record DraftActionRequest(DraftAction action, long heroId) {
+}
@@ -0,0 +1,11 @@
+package com.dotadrafter.dota2.dto;
+
+import java.util.List;
+
+/**
+ * Best remaining sequence found by look-ahead search. {@code value} is Radiant's
+ * composition score minus Dire's at the end of the line.
+ */
+public record DraftAnalysis(double value, int depth, long nodes, boolean timedOut, long elapsedMillis,
+                            List<DraftEvent> line) {
+}
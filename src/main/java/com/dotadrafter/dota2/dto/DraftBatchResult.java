@@ -0,0 +1,11 @@
+package com.dotadrafter.dota2.dto;
+
+import com.dotadrafter.dota2.model.DraftState;
+
+/**
+ * Outcome of a batch of actions: the draft after the accepted ones, how many
+ * were applied, and the index and reason of the first rejected action, both
+ * null when every action was applied.
+ */
+public record DraftBatchResult(DraftState draft, int applied, Integer rejectedIndex, String rejectedReason) {
+}
@@ -0,0 +1,11 @@
+package com.dotadrafter.dota2.dto;
+
+import com.dotadrafter.dota2.engine.DraftAction;
+import com.dotadrafter.dota2.engine.Side;
+
+/**
+ * Compact delta pushed to draft watchers: one accepted pick or ban. The side
+ * is null in the history of a draft whose format is no longer configured.
+ */
+public record DraftEvent(int turn, Side side, DraftAction action, long heroId) {
+}
@@ -0,0 +1,10 @@
+package com.dotadrafter.dota2.dto;
+
+import java.util.List;
+
+/**
+ * Drafts in progress moved to the node that now owns them, together with the
+ * sender's next draft id so the receiver never hands out an id already used.
+ */
+public record DraftHandoff(String fromNode, long nextDraftId, List<ArchivedDraft> drafts) {
+}
@@ -0,0 +1,4 @@
+package com.dotadrafter.dota2.dto;
+
+public record DraftImportResult(long imported, long rejected) {
+}
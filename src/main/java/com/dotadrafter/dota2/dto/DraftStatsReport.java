@@ -0,0 +1,17 @@
+package com.dotadrafter.dota2.dto;
+
+import java.util.List;
+
+/**
+ * Live pick/ban usage over the drafts started on this instance, either in the
+ * last {@code windowMinutes} minutes or, when it is 0, since startup. When
+ * {@code phase} is set, the per-side counts and rates cover only that ban or
+ * pick phase; the per-phase totals always cover all of them.
+ */
+public record DraftStatsReport(int windowMinutes, Integer phase, long drafts, List<HeroDraftStats> heroes) {
+
+    public record HeroDraftStats(long heroId, String name, long radiantPicks, long direPicks,
+                                 long radiantBans, long direBans, double pickRate, double banRate,
+                                 double contestRate, List<Long> picksByPhase, List<Long> bansByPhase) {
+    }
+}
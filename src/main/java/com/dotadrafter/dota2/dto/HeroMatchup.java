@@ -0,0 +1,5 @@
+package com.dotadrafter.dota2.dto;
+
+// Another hero's games with or against the queried hero, and the queried hero's win rate in them
+public record HeroMatchup(long heroId, String name, int games, double winRate) {
+}
@@ -0,0 +1,13 @@
+package com.dotadrafter.dota2.dto;
+
+import java.util.List;
+
+/**
+ * Historical results of one hero over {@code matches} ingested matches: the
+ * allies it wins most with, the enemies it beats most and those it loses to
+ * most. Only pairs with the configured minimum of games are listed.
+ */
+public record HeroMatchups(long heroId, String name, long matches, int games, double winRate, double pickRate,
+                           List<HeroMatchup> bestAllies, List<HeroMatchup> strongAgainst,
+                           List<HeroMatchup> weakAgainst) {
+}
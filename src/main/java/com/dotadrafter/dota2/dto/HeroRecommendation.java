@@ -0,0 +1,4 @@
+package com.dotadrafter.dota2.dto;
+
+public record HeroRecommendation(long heroId, String name, double score) {
+}
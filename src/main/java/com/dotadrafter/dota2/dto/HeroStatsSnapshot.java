@@ -0,0 +1,23 @@
+package com.dotadrafter.dota2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Last good upstream hero stats response with the validators needed to make
+ * conditional requests for it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeroStatsSnapshot {
+
+    private String etag;
+
+    private String lastModified;
+
+    private List<HeroStatsDto> heroes;
+}
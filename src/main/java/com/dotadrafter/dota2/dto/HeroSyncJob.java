@@ -0,0 +1,39 @@
+package com.dotadrafter.dota2.dto;
+
+import java.time.Instant;
+
+/**
+ * Status of one background hero sync. {@code result} is set once the job
+ * succeeded, {@code error} once it failed.
+ */
+public record HeroSyncJob(long id, String trigger, State state, Instant requestedAt, Instant startedAt,
+                          Instant finishedAt, HeroSyncResult result, String error) {
+
+    public enum State {
+        QUEUED, FETCHING, WRITING, SUCCEEDED, FAILED
+    }
+
+    public static HeroSyncJob queued(long id, String trigger) {
+        return new HeroSyncJob(id, trigger, State.QUEUED, Instant.now(), null, null, null, null);
+    }
+
+    public HeroSyncJob fetching() {
+        return new HeroSyncJob(id, trigger, State.FETCHING, requestedAt, Instant.now(), null, null, null);
+    }
+
+    public HeroSyncJob writing() {
+        return new HeroSyncJob(id, trigger, State.WRITING, requestedAt, startedAt, null, null, null);
+    }
+
+    public HeroSyncJob succeeded(HeroSyncResult syncResult) {
+        return new HeroSyncJob(id, trigger, State.SUCCEEDED, requestedAt, startedAt, Instant.now(), syncResult, null);
+    }
+
+    public HeroSyncJob failed(String message) {
+        return new HeroSyncJob(id, trigger, State.FAILED, requestedAt, startedAt, Instant.now(), null, message);
+    }
+
+    public boolean isDone() {
+        return state == State.SUCCEEDED || state == State.FAILED;
+    }
+}
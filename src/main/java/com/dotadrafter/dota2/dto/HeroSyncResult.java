@@ -0,0 +1,12 @@
+package com.dotadrafter.dota2.dto;
+
+public record HeroSyncResult(int inserted, int updated, int unchanged) {
+
+    public int total() {
+        return inserted + updated + unchanged;
+    }
+
+    public boolean hasChanges() {
+        return inserted + updated > 0;
+    }
+}
@@ -0,0 +1,10 @@
+package com.dotadrafter.dota2.dto;
+
+import java.util.Map;
+
+/**
+ * Drafts in progress handed off per node, and the nodes that could not be
+ * reached; their drafts stay here until the next rebalance.
+ */
+public record RebalanceReport(Map<String, Integer> handedOff, Map<String, String> failed) {
+}
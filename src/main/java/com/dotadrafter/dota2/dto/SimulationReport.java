@@ -0,0 +1,15 @@
+package com.dotadrafter.dota2.dto;
+
+import java.util.List;
+
+public record SimulationReport(String format, String policy, long drafts, long elapsedMillis,
+                               double draftsPerSecond, List<HeroSimulationStats> heroes) {
+
+    /**
+     * Per-hero rates over all simulated drafts, with how often the hero was
+     * picked at each turn of the format.
+     */
+    public record HeroSimulationStats(long heroId, String name, double pickRate, double banRate,
+                                      double contestRate, long[] pickTurns) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.dotadrafter.dota2.engine;
+
+/**
+ * Result of validating a single pick or ban against a {@link DraftBoard}.
+ * Rule violations are reported as values rather than exceptions so that hot
+ * loops (simulation, search) never pay for stack traces.
+ */
+public enum ActionOutcome {
+    OK("OK"),
+    WRONG_PHASE_PICK("Not in pick phase"),
+    WRONG_PHASE_BAN("Not in ban phase"),
+    HERO_TAKEN("Hero already picked or banned"),
+    DRAFT_COMPLETE("Draft is already complete"),
+    INVALID_HERO("Hero not found");
+
+    private final String message;
+
+    ActionOutcome(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isOk() {
+        return this == OK;
+    }
+}
@@ -0,0 +1,6 @@
+package com.dotadrafter.dota2.engine;
+
+public enum DraftAction {
+    PICK,
+    BAN
+}
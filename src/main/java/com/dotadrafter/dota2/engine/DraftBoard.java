@@ -0,0 +1,239 @@
+package com.dotadrafter.dota2.engine;
+
+import java.util.Arrays;
+
+/**
+ * Compact, allocation-free state of a single draft.
+ * <p>
+ * Taken heroes live in a fixed bitset indexed by hero id and picks/bans are
+ * kept in small per-side arrays, so validating and applying an action is O(1)
+ * and never touches the database. Not thread-safe; callers own synchronization.
+ */
+public final class DraftBoard {
+
+    // OpenDota hero ids are currently below 150; leave headroom for new heroes
+    public static final int HERO_ID_LIMIT = 256;
+    public static final int MAX_PICKS_PER_SIDE = 5;
+    public static final int MAX_BANS_PER_SIDE = 7;
+
+    private final long[] taken = new long[HERO_ID_LIMIT / Long.SIZE];
+
+    private final short[] radiantPicks = new short[MAX_PICKS_PER_SIDE];
+    private final short[] direPicks = new short[MAX_PICKS_PER_SIDE];
+    private final short[] radiantBans = new short[MAX_BANS_PER_SIDE];
+    private final short[] direBans = new short[MAX_BANS_PER_SIDE];
+
+    private int radiantPickCount;
+    private int direPickCount;
+    private int radiantBanCount;
+    private int direBanCount;
+
+    private final TurnSchedule schedule;
+    private int turnIndex;
+    private boolean complete;
+
+    public DraftBoard() {
+        this(TurnSchedule.CAPTAINS_MODE);
+    }
+
+    public DraftBoard(TurnSchedule schedule) {
+        this.schedule = schedule;
+        this.complete = schedule.length() == 0;
+    }
+
+    public static boolean isValidHeroId(long heroId) {
+        return heroId > 0 && heroId < HERO_ID_LIMIT;
+    }
+
+    public boolean isTaken(int heroId) {
+        return (taken[heroId >>> 6] & (1L << heroId)) != 0;
+    }
+
+    public ActionOutcome validate(DraftAction action, long heroId) {
+        if (complete) {
+            return ActionOutcome.DRAFT_COMPLETE;
+        }
+        if (!isValidHeroId(heroId)) {
+            return ActionOutcome.INVALID_HERO;
+        }
+        DraftAction expected = schedule.action(turnIndex);
+        if (action != expected) {
+            return action == DraftAction.PICK ? ActionOutcome.WRONG_PHASE_PICK : ActionOutcome.WRONG_PHASE_BAN;
+        }
+        if (isTaken((int) heroId)) {
+            return ActionOutcome.HERO_TAKEN;
+        }
+        return ActionOutcome.OK;
+    }
+
+    /**
+     * Validates and, if legal, applies the action for the side whose turn it is.
+     */
+    public ActionOutcome apply(DraftAction action, long heroId) {
+        ActionOutcome outcome = validate(action, heroId);
+        if (outcome.isOk()) {
+            record(action, schedule.side(turnIndex) == Side.RADIANT, (int) heroId);
+            turnIndex++;
+            complete = turnIndex >= schedule.length();
+        }
+        return outcome;
+    }
+
+    /**
+     * Reverts the most recent action. Lets search walk the draft tree on a
+     * single board instead of copying it at every node.
+     */
+    public void undo() {
+        if (turnIndex == 0) {
+            throw new IllegalStateException("Nothing to undo");
+        }
+        turnIndex--;
+        complete = false;
+        boolean radiant = schedule.side(turnIndex) == Side.RADIANT;
+        int heroId;
+        if (schedule.action(turnIndex) == DraftAction.PICK) {
+            heroId = radiant ? radiantPicks[--radiantPickCount] : direPicks[--direPickCount];
+        } else {
+            heroId = radiant ? radiantBans[--radiantBanCount] : direBans[--direBanCount];
+        }
+        taken[heroId >>> 6] &= ~(1L << heroId);
+    }
+
+    private void record(DraftAction action, boolean radiant, int heroId) {
+        taken[heroId >>> 6] |= 1L << heroId;
+        short id = (short) heroId;
+        if (action == DraftAction.PICK) {
+            if (radiant) {
+                radiantPicks[radiantPickCount++] = id;
+            } else {
+                direPicks[direPickCount++] = id;
+            }
+        } else {
+            if (radiant) {
+                radiantBans[radiantBanCount++] = id;
+            } else {
+                direBans[direBanCount++] = id;
+            }
+        }
+    }
+
+    /**
+     * Restores a board from already-recorded picks and bans, e.g. when a
+     * persisted draft is loaded back into memory. The turn index is the number
+     * of recorded actions.
+     */
+    public static DraftBoard restore(long[] radiantPicks, long[] direPicks, long[] radiantBans, long[] direBans,
+                                     TurnSchedule schedule) {
+        DraftBoard board = new DraftBoard(schedule);
+        for (long id : radiantPicks) board.record(DraftAction.PICK, true, (int) id);
+        for (long id : direPicks) board.record(DraftAction.PICK, false, (int) id);
+        for (long id : radiantBans) board.record(DraftAction.BAN, true, (int) id);
+        for (long id : direBans) board.record(DraftAction.BAN, false, (int) id);
+        board.turnIndex = radiantPicks.length + direPicks.length + radiantBans.length + direBans.length;
+        board.complete = board.turnIndex >= schedule.length();
+        return board;
+    }
+
+    /**
+     * Clears all actions so the board can be reused for another draft with the
+     * same schedule.
+     */
+    public void reset() {
+        Arrays.fill(taken, 0L);
+        radiantPickCount = 0;
+        direPickCount = 0;
+        radiantBanCount = 0;
+        direBanCount = 0;
+        turnIndex = 0;
+        complete = schedule.length() == 0;
+    }
+
+    public DraftBoard copy() {
+        DraftBoard copy = new DraftBoard(schedule);
+        System.arraycopy(taken, 0, copy.taken, 0, taken.length);
+        System.arraycopy(radiantPicks, 0, copy.radiantPicks, 0, radiantPicks.length);
+        System.arraycopy(direPicks, 0, copy.direPicks, 0, direPicks.length);
+        System.arraycopy(radiantBans, 0, copy.radiantBans, 0, radiantBans.length);
+        System.arraycopy(direBans, 0, copy.direBans, 0, direBans.length);
+        copy.radiantPickCount = radiantPickCount;
+        copy.direPickCount = direPickCount;
+        copy.radiantBanCount = radiantBanCount;
+        copy.direBanCount = direBanCount;
+        copy.turnIndex = turnIndex;
+        copy.complete = complete;
+        return copy;
+    }
+
+    public int getPickCount(Side side) {
+        return side == Side.RADIANT ? radiantPickCount : direPickCount;
+    }
+
+    public int getPick(Side side, int index) {
+        return side == Side.RADIANT ? radiantPicks[index] : direPicks[index];
+    }
+
+    public int getBanCount(Side side) {
+        return side == Side.RADIANT ? radiantBanCount : direBanCount;
+    }
+
+    public int getBan(Side side, int index) {
+        return side == Side.RADIANT ? radiantBans[index] : direBans[index];
+    }
+
+    public TurnSchedule getSchedule() {
+        return schedule;
+    }
+
+    public int getTurnIndex() {
+        return turnIndex;
+    }
+
+    // Once complete, the flags keep describing the final turn
+    private int currentOrLastTurn() {
+        return complete ? Math.max(0, schedule.length() - 1) : turnIndex;
+    }
+
+    public boolean isRadiantTurn() {
+        return schedule.length() == 0 || schedule.side(currentOrLastTurn()) == Side.RADIANT;
+    }
+
+    public boolean isPickPhase() {
+        return schedule.length() > 0 && schedule.action(currentOrLastTurn()) == DraftAction.PICK;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public int getRadiantPickCount() {
+        return radiantPickCount;
+    }
+
+    public int getDirePickCount() {
+        return direPickCount;
+    }
+
+    public int getRadiantBanCount() {
+        return radiantBanCount;
+    }
+
+    public int getDireBanCount() {
+        return direBanCount;
+    }
+
+    public int getRadiantPick(int index) {
+        return radiantPicks[index];
+    }
+
+    public int getDirePick(int index) {
+        return direPicks[index];
+    }
+
+    public int getRadiantBan(int index) {
+        return radiantBans[index];
+    }
+
+    public int getDireBan(int index) {
+        return direBans[index];
+    }
+}
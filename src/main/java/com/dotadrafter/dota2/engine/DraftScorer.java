@@ -0,0 +1,140 @@
+package com.dotadrafter.dota2.engine;
+
+/**
+ * Scores heroes and team compositions from {@link MatchupMatrices} and
+ * {@link HeroProfiles}. All methods work on primitive arrays and allocate
+ * nothing, so ranking every candidate is a few thousand array reads.
+ */
+public final class DraftScorer {
+
+    static final double ROLE_COVERAGE_WEIGHT = 0.4;
+    static final double ATTRIBUTE_BALANCE_WEIGHT = 0.3;
+
+    private final HeroProfiles profiles;
+    private final MatchupMatrices matrices;
+
+    public DraftScorer(HeroProfiles profiles, MatchupMatrices matrices) {
+        if (profiles.idLimit() != matrices.idLimit()) {
+            throw new IllegalArgumentException("Profiles and matrices must cover the same hero ids");
+        }
+        this.profiles = profiles;
+        this.matrices = matrices;
+    }
+
+    public HeroProfiles getProfiles() {
+        return profiles;
+    }
+
+    /**
+     * Marginal value of {@code side} picking {@code heroId} given the picks so far:
+     * synergy with allies, counters against enemies, newly covered roles and
+     * primary attribute balance.
+     */
+    public double score(DraftBoard board, Side side, int heroId) {
+        if (heroId >= profiles.idLimit()) {
+            return 0;
+        }
+        double[] synergy = matrices.synergyRow(heroId);
+        double[] counter = matrices.counterRow(heroId);
+        byte attribute = profiles.attribute(heroId);
+
+        double total = 0;
+        int teamRoles = 0;
+        int sameAttribute = 0;
+        for (int i = 0, n = board.getPickCount(side); i < n; i++) {
+            int ally = board.getPick(side, i);
+            if (ally >= profiles.idLimit()) {
+                continue;
+            }
+            total += synergy[ally];
+            teamRoles |= profiles.roleMask(ally);
+            if (attribute != HeroProfiles.NO_ATTRIBUTE && profiles.attribute(ally) == attribute) {
+                sameAttribute++;
+            }
+        }
+        Side enemy = side.opponent();
+        for (int i = 0, n = board.getPickCount(enemy); i < n; i++) {
+            int opponent = board.getPick(enemy, i);
+            if (opponent < profiles.idLimit()) {
+                total += counter[opponent];
+            }
+        }
+
+        total += ROLE_COVERAGE_WEIGHT * Integer.bitCount(profiles.roleMask(heroId) & ~teamRoles);
+        if (attribute != HeroProfiles.NO_ATTRIBUTE) {
+            total += ATTRIBUTE_BALANCE_WEIGHT / (1 + sameAttribute);
+        }
+        return total;
+    }
+
+    /**
+     * Writes the best untaken heroes for {@code side}, highest score first, into
+     * the caller's arrays and returns how many were written.
+     */
+    public int rank(DraftBoard board, Side side, int[] topIds, double[] topScores) {
+        int capacity = Math.min(topIds.length, topScores.length);
+        int count = 0;
+        for (int heroId : profiles.getHeroIds()) {
+            if (board.isTaken(heroId)) {
+                continue;
+            }
+            double value = score(board, side, heroId);
+            if (count == capacity && (capacity == 0 || value <= topScores[capacity - 1])) {
+                continue;
+            }
+            // Insertion into the small sorted top-N window
+            int i = count < capacity ? count++ : capacity - 1;
+            while (i > 0 && topScores[i - 1] < value) {
+                topScores[i] = topScores[i - 1];
+                topIds[i] = topIds[i - 1];
+                i--;
+            }
+            topScores[i] = value;
+            topIds[i] = heroId;
+        }
+        return count;
+    }
+
+    /**
+     * Composition value of {@code side}'s picks against the opponent's: pairwise
+     * synergy, counters, covered roles and attribute spread.
+     */
+    public double evaluate(DraftBoard board, Side side) {
+        Side enemy = side.opponent();
+        int allies = board.getPickCount(side);
+        int enemies = board.getPickCount(enemy);
+        int limit = profiles.idLimit();
+
+        double total = 0;
+        int roles = 0;
+        int attributes = 0;
+        for (int i = 0; i < allies; i++) {
+            int hero = board.getPick(side, i);
+            if (hero >= limit) {
+                continue;
+            }
+            double[] synergy = matrices.synergyRow(hero);
+            double[] counter = matrices.counterRow(hero);
+            for (int j = i + 1; j < allies; j++) {
+                int ally = board.getPick(side, j);
+                if (ally < limit) {
+                    total += synergy[ally];
+                }
+            }
+            for (int j = 0; j < enemies; j++) {
+                int opponent = board.getPick(enemy, j);
+                if (opponent < limit) {
+                    total += counter[opponent];
+                }
+            }
+            roles |= profiles.roleMask(hero);
+            byte attribute = profiles.attribute(hero);
+            if (attribute != HeroProfiles.NO_ATTRIBUTE) {
+                attributes |= 1 << attribute;
+            }
+        }
+        return total
+                + ROLE_COVERAGE_WEIGHT * Integer.bitCount(roles)
+                + ATTRIBUTE_BALANCE_WEIGHT * Integer.bitCount(attributes);
+    }
+}
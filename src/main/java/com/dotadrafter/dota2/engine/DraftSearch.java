@@ -0,0 +1,260 @@
+package com.dotadrafter.dota2.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Minimax look-ahead over the remaining turns of a draft.
+ * <p>
+ * Leaves are scored as Radiant's composition value minus Dire's, so Radiant
+ * maximizes and Dire minimizes. Each node only expands the {@code beamWidth}
+ * best candidates from {@link DraftScorer#rank}; bans expand the heroes the
+ * opponent would value most. The tree is searched in parallel on the supplied
+ * fork-join pool, young brothers wait: a node searches its first candidate,
+ * then forks the rest on their own boards, all sharing a transposition cache
+ * keyed by a Zobrist hash of the taken heroes. Iterative deepening keeps
+ * the deepest fully completed result when the time budget runs out.
+ */
+public final class DraftSearch {
+
+    // Zobrist keys per hero for radiant pick, dire pick and ban
+    private static final long[][] ZOBRIST = new long[3][DraftBoard.HERO_ID_LIMIT];
+    private static final long[] ZOBRIST_DEPTH = new long[64];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EEDL);
+        for (long[] table : ZOBRIST) {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = random.nextLong();
+            }
+        }
+        for (int i = 0; i < ZOBRIST_DEPTH.length; i++) {
+            ZOBRIST_DEPTH[i] = random.nextLong();
+        }
+    }
+
+    // Nodes with fewer turns left are searched in line; forking them costs more than it saves
+    private static final int SPLIT_DEPTH = 3;
+
+    private final DraftScorer scorer;
+    private final ForkJoinPool pool;
+    private final int beamWidth;
+
+    public DraftSearch(DraftScorer scorer, ForkJoinPool pool, int beamWidth) {
+        if (beamWidth < 1) {
+            throw new IllegalArgumentException("Beam width must be positive");
+        }
+        this.scorer = scorer;
+        this.pool = pool;
+        this.beamWidth = beamWidth;
+    }
+
+    /**
+     * Searches at most {@code maxDepth} turns ahead of {@code root}, which is not
+     * modified, stopping deepening once {@code budgetNanos} has elapsed.
+     */
+    public SearchResult search(DraftBoard root, int maxDepth, long budgetNanos) {
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        int remaining = root.getSchedule().length() - root.getTurnIndex();
+        int depthLimit = Math.min(Math.min(maxDepth, remaining), ZOBRIST_DEPTH.length - 1);
+
+        if (depthLimit <= 0) {
+            return new SearchResult(evaluate(root), 0, 1, false, new int[0], System.nanoTime() - start);
+        }
+
+        Map<Long, Double> transpositions = new ConcurrentHashMap<>();
+        SearchResult best = null;
+        long nodes = 0;
+        for (int depth = 1; depth <= depthLimit; depth++) {
+            Branch outcome = searchRoot(root, depth, deadline, transpositions);
+            nodes += outcome.nodes();
+            if (outcome.expired() && best != null) {
+                // An interrupted iteration is incomplete; keep the last full one
+                return best.withStats(nodes, true, System.nanoTime() - start);
+            }
+            best = new SearchResult(outcome.value(), depth, nodes, outcome.expired(), outcome.line(),
+                    System.nanoTime() - start);
+            if (outcome.expired()) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    private Branch searchRoot(DraftBoard root, int depth, long deadline, Map<Long, Double> transpositions) {
+        return pool.invoke(new NodeTask(root.copy(), null, 0, depth, Double.NEGATIVE_INFINITY,
+                Double.POSITIVE_INFINITY, deadline, transpositions));
+    }
+
+    private double evaluate(DraftBoard board) {
+        return scorer.evaluate(board, Side.RADIANT) - scorer.evaluate(board, Side.DIRE);
+    }
+
+    private static long hash(DraftBoard board, int depth) {
+        long key = ZOBRIST_DEPTH[depth];
+        for (int i = 0, n = board.getRadiantPickCount(); i < n; i++) {
+            key ^= ZOBRIST[0][board.getRadiantPick(i)];
+        }
+        for (int i = 0, n = board.getDirePickCount(); i < n; i++) {
+            key ^= ZOBRIST[1][board.getDirePick(i)];
+        }
+        for (int i = 0, n = board.getRadiantBanCount(); i < n; i++) {
+            key ^= ZOBRIST[2][board.getRadiantBan(i)];
+        }
+        for (int i = 0, n = board.getDireBanCount(); i < n; i++) {
+            key ^= ZOBRIST[2][board.getDireBan(i)];
+        }
+        return key;
+    }
+
+    private record Branch(double value, int[] line, long nodes, boolean expired) {
+    }
+
+    /**
+     * Alpha-beta below one move (or below the root when there is none), with
+     * its own board, scratch arrays and triangular principal-variation table.
+     * Nodes with at least {@link #SPLIT_DEPTH} turns left search their first
+     * candidate in line and then fork the younger siblings with the window it
+     * narrowed, so every level of the tree is split across the pool, not only
+     * the root moves.
+     */
+    private final class NodeTask extends RecursiveTask<Branch> {
+
+        private final DraftBoard board;
+        private final DraftAction action;
+        private final int heroId;
+        private final int depth;
+        private final double alpha;
+        private final double beta;
+        private final long deadline;
+        private final Map<Long, Double> transpositions;
+
+        private final int[][] candidates;
+        private final double[][] scores;
+        private final int[][] pv;
+        private final int[] pvLength;
+        private long nodes;
+        private boolean expired;
+
+        NodeTask(DraftBoard board, DraftAction action, int heroId, int depth, double alpha, double beta,
+                 long deadline, Map<Long, Double> transpositions) {
+            this.board = board;
+            this.action = action;
+            this.heroId = heroId;
+            this.depth = depth;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.deadline = deadline;
+            this.transpositions = transpositions;
+            this.candidates = new int[depth + 1][beamWidth];
+            this.scores = new double[depth + 1][beamWidth];
+            this.pv = new int[depth + 2][depth + 2];
+            this.pvLength = new int[depth + 2];
+        }
+
+        @Override
+        protected Branch compute() {
+            expired = System.nanoTime() > deadline;
+            if (action == null) {
+                double value = alphaBeta(depth, 1, alpha, beta);
+                return new Branch(value, Arrays.copyOfRange(pv[1], 1, pvLength[1]), nodes, expired);
+            }
+            board.apply(action, heroId);
+            double value = alphaBeta(depth - 1, 1, alpha, beta);
+
+            int[] line = new int[pvLength[1]];
+            line[0] = heroId;
+            System.arraycopy(pv[1], 1, line, 1, pvLength[1] - 1);
+            return new Branch(value, line, nodes, expired);
+        }
+
+        private double alphaBeta(int remaining, int ply, double alpha, double beta) {
+            nodes++;
+            pvLength[ply] = ply;
+            if (remaining == 0 || board.isComplete()) {
+                return evaluate(board);
+            }
+            if ((nodes & 0xFF) == 0 && System.nanoTime() > deadline) {
+                expired = true;
+            }
+            if (expired) {
+                return evaluate(board);
+            }
+
+            long key = hash(board, remaining);
+            Double cached = transpositions.get(key);
+            if (cached != null) {
+                return cached;
+            }
+
+            int turn = board.getTurnIndex();
+            DraftAction action = board.getSchedule().action(turn);
+            Side side = board.getSchedule().side(turn);
+            boolean maximizing = side == Side.RADIANT;
+            int count = scorer.rank(board, action == DraftAction.PICK ? side : side.opponent(),
+                    candidates[ply - 1], scores[ply - 1]);
+            if (count == 0) {
+                return evaluate(board);
+            }
+
+            double lowerBound = alpha;
+            double upperBound = beta;
+            double best = maximizing ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+            // Siblings after the first are forked once it has set the window
+            int inline = remaining >= SPLIT_DEPTH ? 1 : count;
+            for (int i = 0; i < inline; i++) {
+                int heroId = candidates[ply - 1][i];
+                board.apply(action, heroId);
+                double value = alphaBeta(remaining - 1, ply + 1, alpha, beta);
+                board.undo();
+
+                if (maximizing ? value > best : value < best) {
+                    best = value;
+                    pv[ply][ply] = heroId;
+                    System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, pvLength[ply + 1] - ply - 1);
+                    pvLength[ply] = pvLength[ply + 1];
+                }
+                if (maximizing) {
+                    alpha = Math.max(alpha, best);
+                } else {
+                    beta = Math.min(beta, best);
+                }
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+
+            if (inline < count && alpha < beta && !expired) {
+                List<NodeTask> siblings = new ArrayList<>(count - inline);
+                for (int i = inline; i < count; i++) {
+                    siblings.add(new NodeTask(board.copy(), action, candidates[ply - 1][i], remaining,
+                            alpha, beta, deadline, transpositions));
+                }
+                for (NodeTask sibling : ForkJoinTask.invokeAll(siblings)) {
+                    Branch branch = sibling.join();
+                    nodes += branch.nodes();
+                    expired |= branch.expired();
+                    if (maximizing ? branch.value() > best : branch.value() < best) {
+                        best = branch.value();
+                        System.arraycopy(branch.line(), 0, pv[ply], ply, branch.line().length);
+                        pvLength[ply] = ply + branch.line().length;
+                    }
+                }
+            }
+
+            // Only exact values (inside the original window) are reusable
+            if (!expired && best > lowerBound && best < upperBound) {
+                transpositions.put(key, best);
+            }
+            return best;
+        }
+    }
+}
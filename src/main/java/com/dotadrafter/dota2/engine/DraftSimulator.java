@@ -0,0 +1,124 @@
+package com.dotadrafter.dota2.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Headless Monte Carlo runner that plays complete drafts under the same
+ * {@link DraftBoard} rules as live drafts. Work is split into one chunk per
+ * pool thread; each chunk reuses a single board and counts into its own
+ * primitive arrays, which are summed once at the end.
+ */
+public final class DraftSimulator {
+
+    // Greedy policy chooses uniformly among this many top-ranked heroes
+    private static final int GREEDY_CHOICES = 3;
+
+    private final DraftScorer scorer;
+    private final ForkJoinPool pool;
+
+    public DraftSimulator(DraftScorer scorer, ForkJoinPool pool) {
+        this.scorer = scorer;
+        this.pool = pool;
+    }
+
+    public SimulationResult run(TurnSchedule schedule, SimulationPolicy policy, long drafts, long seed) {
+        HeroProfiles profiles = scorer.getProfiles();
+        if (profiles.size() < schedule.length()) {
+            throw new IllegalStateException("Not enough heroes to simulate format " + schedule.getName());
+        }
+
+        long start = System.nanoTime();
+        int chunks = (int) Math.max(1, Math.min(drafts, pool.getParallelism()));
+        SplittableRandom root = new SplittableRandom(seed);
+        List<ForkJoinTask<Counters>> tasks = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            long share = drafts / chunks + (i < drafts % chunks ? 1 : 0);
+            tasks.add(pool.submit(new Chunk(schedule, policy, share, root.split())));
+        }
+
+        Counters total = new Counters(profiles.idLimit(), schedule.length());
+        for (ForkJoinTask<Counters> task : tasks) {
+            total.add(task.join());
+        }
+        return new SimulationResult(drafts, System.nanoTime() - start, total.picks, total.bans, total.pickTurns);
+    }
+
+    private static final class Counters {
+        final long[] picks;
+        final long[] bans;
+        final long[][] pickTurns;
+
+        Counters(int idLimit, int turns) {
+            picks = new long[idLimit];
+            bans = new long[idLimit];
+            pickTurns = new long[idLimit][turns];
+        }
+
+        void add(Counters other) {
+            for (int id = 0; id < picks.length; id++) {
+                picks[id] += other.picks[id];
+                bans[id] += other.bans[id];
+                for (int turn = 0; turn < pickTurns[id].length; turn++) {
+                    pickTurns[id][turn] += other.pickTurns[id][turn];
+                }
+            }
+        }
+    }
+
+    private final class Chunk extends RecursiveTask<Counters> {
+
+        private final TurnSchedule schedule;
+        private final SimulationPolicy policy;
+        private final long drafts;
+        private final SplittableRandom random;
+
+        Chunk(TurnSchedule schedule, SimulationPolicy policy, long drafts, SplittableRandom random) {
+            this.schedule = schedule;
+            this.policy = policy;
+            this.drafts = drafts;
+            this.random = random;
+        }
+
+        @Override
+        protected Counters compute() {
+            int[] heroIds = scorer.getProfiles().getHeroIds();
+            Counters counters = new Counters(scorer.getProfiles().idLimit(), schedule.length());
+            DraftBoard board = new DraftBoard(schedule);
+            int[] top = new int[GREEDY_CHOICES];
+            double[] topScores = new double[GREEDY_CHOICES];
+
+            for (long draft = 0; draft < drafts; draft++) {
+                board.reset();
+                while (!board.isComplete()) {
+                    int turn = board.getTurnIndex();
+                    DraftAction action = schedule.action(turn);
+                    int heroId;
+                    if (policy == SimulationPolicy.GREEDY) {
+                        Side side = schedule.side(turn);
+                        int count = scorer.rank(board, action == DraftAction.PICK ? side : side.opponent(),
+                                top, topScores);
+                        heroId = top[random.nextInt(count)];
+                    } else {
+                        do {
+                            heroId = heroIds[random.nextInt(heroIds.length)];
+                        } while (board.isTaken(heroId));
+                    }
+
+                    board.apply(action, heroId);
+                    if (action == DraftAction.PICK) {
+                        counters.picks[heroId]++;
+                        counters.pickTurns[heroId][turn]++;
+                    } else {
+                        counters.bans[heroId]++;
+                    }
+                }
+            }
+            return counters;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.dotadrafter.dota2.engine;
+
+/**
+ * Primitive per-hero attributes used by scoring: a role bitmask and primary
+ * attribute ordinal per hero id, plus the list of known hero ids.
+ */
+public final class HeroProfiles {
+
+    public static final byte NO_ATTRIBUTE = -1;
+
+    private final int[] heroIds;
+    private final int[] roleMasks;
+    private final byte[] attributes;
+
+    /**
+     * @param heroIds    known hero ids, each below {@link DraftBoard#HERO_ID_LIMIT}
+     * @param roleMasks  role bitmask indexed by hero id
+     * @param attributes primary attribute ordinal indexed by hero id
+     */
+    public HeroProfiles(int[] heroIds, int[] roleMasks, byte[] attributes) {
+        if (roleMasks.length != attributes.length) {
+            throw new IllegalArgumentException("Profile arrays must have the same length");
+        }
+        this.heroIds = heroIds;
+        this.roleMasks = roleMasks;
+        this.attributes = attributes;
+    }
+
+    public int[] getHeroIds() {
+        return heroIds;
+    }
+
+    public int size() {
+        return heroIds.length;
+    }
+
+    /** Exclusive upper bound of hero ids covered by these profiles. */
+    public int idLimit() {
+        return roleMasks.length;
+    }
+
+    public int roleMask(int heroId) {
+        return roleMasks[heroId];
+    }
+
+    public byte attribute(int heroId) {
+        return attributes[heroId];
+    }
+}
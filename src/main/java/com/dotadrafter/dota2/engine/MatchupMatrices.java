@@ -0,0 +1,49 @@
+package com.dotadrafter.dota2.engine;
+
+/**
+ * Dense hero-by-hero matrices indexed by hero id.
+ * {@code synergy[a][b]} is the value of having {@code a} and {@code b} on the
+ * same team; {@code counter[a][b]} is how well {@code a} plays against {@code b}.
+ */
+public final class MatchupMatrices {
+
+    private final double[][] synergy;
+    private final double[][] counter;
+
+    public MatchupMatrices(double[][] synergy, double[][] counter) {
+        if (synergy.length != counter.length) {
+            throw new IllegalArgumentException("Matrices must have the same dimensions");
+        }
+        this.synergy = synergy;
+        this.counter = counter;
+    }
+
+    public static MatchupMatrices empty(int idLimit) {
+        return new MatchupMatrices(new double[idLimit][idLimit], new double[idLimit][idLimit]);
+    }
+
+    public void set(int a, int b, double synergyValue, double counterValue) {
+        synergy[a][b] = synergyValue;
+        counter[a][b] = counterValue;
+    }
+
+    public int idLimit() {
+        return synergy.length;
+    }
+
+    public double synergy(int a, int b) {
+        return synergy[a][b];
+    }
+
+    public double counter(int a, int b) {
+        return counter[a][b];
+    }
+
+    double[] synergyRow(int heroId) {
+        return synergy[heroId];
+    }
+
+    double[] counterRow(int heroId) {
+        return counter[heroId];
+    }
+}
@@ -0,0 +1,53 @@
+package com.dotadrafter.dota2.engine;
+
+/**
+ * Outcome of a {@link DraftSearch}: the principal line of hero ids starting at
+ * the searched board's current turn and its value (Radiant minus Dire).
+ */
+public final class SearchResult {
+
+    private final double value;
+    private final int depth;
+    private final long nodes;
+    private final boolean timedOut;
+    private final int[] line;
+    private final long elapsedNanos;
+
+    SearchResult(double value, int depth, long nodes, boolean timedOut, int[] line, long elapsedNanos) {
+        this.value = value;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.timedOut = timedOut;
+        this.line = line;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    SearchResult withStats(long totalNodes, boolean timedOut, long elapsedNanos) {
+        return new SearchResult(value, depth, totalNodes, timedOut, line, elapsedNanos);
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    /** Number of turns searched by the deepest completed iteration. */
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    public int[] getLine() {
+        return line.clone();
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
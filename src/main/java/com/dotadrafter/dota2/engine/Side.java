@@ -0,0 +1,14 @@
+package com.dotadrafter.dota2.engine;
+
+public enum Side {
+    RADIANT,
+    DIRE;
+
+    public static Side of(boolean radiant) {
+        return radiant ? RADIANT : DIRE;
+    }
+
+    public Side opponent() {
+        return this == RADIANT ? DIRE : RADIANT;
+    }
+}
@@ -0,0 +1,8 @@
+package com.dotadrafter.dota2.engine;
+
+public enum SimulationPolicy {
+    // Any untaken hero, uniformly
+    RANDOM,
+    // One of the scorer's top few heroes for the acting side (or its opponent, for bans)
+    GREEDY
+}
@@ -0,0 +1,46 @@
+package com.dotadrafter.dota2.engine;
+
+/**
+ * Aggregate counters from a batch of simulated drafts, indexed by hero id.
+ */
+public final class SimulationResult {
+
+    private final long drafts;
+    private final long elapsedNanos;
+    private final long[] picks;
+    private final long[] bans;
+    private final long[][] pickTurns;
+
+    SimulationResult(long drafts, long elapsedNanos, long[] picks, long[] bans, long[][] pickTurns) {
+        this.drafts = drafts;
+        this.elapsedNanos = elapsedNanos;
+        this.picks = picks;
+        this.bans = bans;
+        this.pickTurns = pickTurns;
+    }
+
+    public long getDrafts() {
+        return drafts;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double draftsPerSecond() {
+        return elapsedNanos > 0 ? drafts * 1_000_000_000.0 / elapsedNanos : 0;
+    }
+
+    public long picks(int heroId) {
+        return picks[heroId];
+    }
+
+    public long bans(int heroId) {
+        return bans[heroId];
+    }
+
+    /** How often the hero was picked at each turn of the schedule. */
+    public long[] pickTurnHistogram(int heroId) {
+        return pickTurns[heroId].clone();
+    }
+}
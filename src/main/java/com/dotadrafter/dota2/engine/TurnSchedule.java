@@ -0,0 +1,132 @@
+package com.dotadrafter.dota2.engine;
+
+/**
+ * Immutable draft order: which side acts and whether it picks or bans at each
+ * turn. Lookups are array reads, so rule checks, simulation and search can
+ * index it by turn without any side effects.
+ * <p>
+ * Schedules can be written as a spec of space-separated steps, each a side
+ * letter ({@code R}adiant / {@code D}ire) followed by an action letter
+ * ({@code B}an / {@code P}ick), e.g. {@code "RB DB RP DP"}. Radiant takes the
+ * first-pick slot in the built-in formats.
+ */
+public final class TurnSchedule {
+
+    /**
+     * Captain's Mode as of patch 7.33: 7 bans, 2 picks, 3 bans, 6 picks,
+     * 4 bans, 2 picks for 24 steps.
+     */
+    public static final TurnSchedule CAPTAINS_MODE = parse("captains-mode",
+            "RB DB DB RB RB DB DB RP DP RB RB DB DP RP RP DP DP RP RB DB DB RB RP DP");
+
+    /**
+     * Ten picks in the 1-2-2-2-2-1 snake order, no bans.
+     */
+    public static final TurnSchedule ALL_PICK = parse("all-pick",
+            "RP DP DP RP RP DP DP RP RP DP");
+
+    /**
+     * The order the drafter originally used: alternating sides starting with
+     * Radiant, four bans followed by ten picks.
+     */
+    public static final TurnSchedule LEGACY = alternating("legacy", 4, 10);
+
+    private final String name;
+    private final Side[] sides;
+    private final DraftAction[] actions;
+    private final int[] phases;
+
+    TurnSchedule(String name, Side[] sides, DraftAction[] actions) {
+        if (sides.length != actions.length) {
+            throw new IllegalArgumentException("Sides and actions must have the same length");
+        }
+        int[] picks = new int[Side.values().length];
+        int[] bans = new int[Side.values().length];
+        for (int turn = 0; turn < sides.length; turn++) {
+            int[] counts = actions[turn] == DraftAction.PICK ? picks : bans;
+            counts[sides[turn].ordinal()]++;
+        }
+        for (Side side : Side.values()) {
+            if (picks[side.ordinal()] > DraftBoard.MAX_PICKS_PER_SIDE
+                    || bans[side.ordinal()] > DraftBoard.MAX_BANS_PER_SIDE) {
+                throw new IllegalArgumentException("Schedule " + name + " exceeds the per-side pick or ban limit");
+            }
+        }
+        this.name = name;
+        this.sides = sides.clone();
+        this.actions = actions.clone();
+        // Each run of consecutive bans (or picks) starts the next ban (or pick) phase
+        this.phases = new int[actions.length];
+        int[] runs = new int[DraftAction.values().length];
+        for (int turn = 0; turn < actions.length; turn++) {
+            if (turn == 0 || actions[turn] != actions[turn - 1]) {
+                runs[actions[turn].ordinal()]++;
+            }
+            phases[turn] = runs[actions[turn].ordinal()];
+        }
+    }
+
+    /**
+     * Builds a schedule from a spec such as {@code "RB DB RP DP"}.
+     *
+     * @throws IllegalArgumentException if a step is malformed or a side would
+     *                                  exceed the per-side pick or ban limit
+     */
+    public static TurnSchedule parse(String name, String spec) {
+        String trimmed = spec.trim();
+        String[] steps = trimmed.isEmpty() ? new String[0] : trimmed.split("\\s+");
+        Side[] sides = new Side[steps.length];
+        DraftAction[] actions = new DraftAction[steps.length];
+        for (int turn = 0; turn < steps.length; turn++) {
+            String step = steps[turn].toUpperCase();
+            if (step.length() != 2) {
+                throw new IllegalArgumentException("Invalid step '" + steps[turn] + "' in schedule " + name);
+            }
+            sides[turn] = switch (step.charAt(0)) {
+                case 'R' -> Side.RADIANT;
+                case 'D' -> Side.DIRE;
+                default -> throw new IllegalArgumentException("Invalid side in step '" + steps[turn] + "'");
+            };
+            actions[turn] = switch (step.charAt(1)) {
+                case 'P' -> DraftAction.PICK;
+                case 'B' -> DraftAction.BAN;
+                default -> throw new IllegalArgumentException("Invalid action in step '" + steps[turn] + "'");
+            };
+        }
+        return new TurnSchedule(name, sides, actions);
+    }
+
+    private static TurnSchedule alternating(String name, int bans, int picks) {
+        Side[] sides = new Side[bans + picks];
+        DraftAction[] actions = new DraftAction[bans + picks];
+        for (int turn = 0; turn < sides.length; turn++) {
+            sides[turn] = turn % 2 == 0 ? Side.RADIANT : Side.DIRE;
+            actions[turn] = turn < bans ? DraftAction.BAN : DraftAction.PICK;
+        }
+        return new TurnSchedule(name, sides, actions);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int length() {
+        return sides.length;
+    }
+
+    public Side side(int turn) {
+        return sides[turn];
+    }
+
+    public DraftAction action(int turn) {
+        return actions[turn];
+    }
+
+    /**
+     * Ban or pick phase of the turn, counted from 1 per action: Captain's Mode
+     * has three of each, turn 9 being in the second ban phase.
+     */
+    public int phase(int turn) {
+        return phases[turn];
+    }
+}
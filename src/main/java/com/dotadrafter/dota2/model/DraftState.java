@@ -1,6 +1,6 @@
 package com.dotadrafter.dota2.model;
 
-import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonView;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -8,33 +8,62 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
-@Entity
+/**
+ * Client view of a draft. Drafts are persisted as their sequence of actions in
+ * the draft event log; this view is rebuilt from it on demand. Serialized
+ * with {@link DraftViews.Ids}, the hero lists are replaced by hero ids.
+ */
 @Data
 @NoArgsConstructor
 public class DraftState {
 
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     private LocalDateTime startTime = LocalDateTime.now();
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @JsonView(DraftViews.Full.class)
     private List<Hero> radiantPicks = new ArrayList<>();
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @JsonView(DraftViews.Full.class)
     private List<Hero> direPicks = new ArrayList<>();
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @JsonView(DraftViews.Full.class)
     private List<Hero> radiantBans = new ArrayList<>();
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @JsonView(DraftViews.Full.class)
     private List<Hero> direBans = new ArrayList<>();
 
     private boolean isRadiantTurn; // true = radiant, false = dire
     private boolean isPickPhase; // true = pick, false = ban
 
+    // Name of the TurnSchedule this draft follows, e.g. "captains-mode"
+    private String format;
+
     // Status tracking
     private boolean isComplete = false;
     private int currentTurnIndex = 0; // To track sequence in Captain's Mode
+
+    @JsonView(DraftViews.Ids.class)
+    public List<Long> getRadiantPickIds() {
+        return heroIds(radiantPicks);
+    }
+
+    @JsonView(DraftViews.Ids.class)
+    public List<Long> getDirePickIds() {
+        return heroIds(direPicks);
+    }
+
+    @JsonView(DraftViews.Ids.class)
+    public List<Long> getRadiantBanIds() {
+        return heroIds(radiantBans);
+    }
+
+    @JsonView(DraftViews.Ids.class)
+    public List<Long> getDireBanIds() {
+        return heroIds(direBans);
+    }
+
+    private static List<Long> heroIds(List<Hero> heroes) {
+        return heroes.stream().map(Hero::getId).toList();
+    }
 }
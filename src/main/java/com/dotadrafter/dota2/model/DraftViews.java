@@ -0,0 +1,17 @@
+package com.dotadrafter.dota2.model;
+
+/**
+ * Jackson views of {@link DraftState}. {@code Full} embeds the picked and
+ * banned heroes; {@code Ids} replaces them with their hero ids.
+ */
+public final class DraftViews {
+
+    public interface Full {
+    }
+
+    public interface Ids {
+    }
+
+    private DraftViews() {
+    }
+}
@@ -1,7 +1,9 @@
 package com.dotadrafter.dota2.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
@@ -31,4 +33,16 @@ public class Hero {
     private double baseIntelligence;
 
     private String imageUrl; // For UI display
+
+    // From historical matches (see HeroMatchStats); not stored, and left out of the
+    // comparison hero sync uses to find changed heroes
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double winRate;
+
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double pickRate;
 }
@@ -0,0 +1,94 @@
+package com.dotadrafter.dota2.repository;
+
+/**
+ * Segment in which each finished or abandoned draft wrote its last record,
+ * so {@link DraftEventLog} reads only the segments a draft spans. An
+ * open-addressing table of primitive keys and values, a few dozen bytes per
+ * draft however long the log grows. Not thread-safe; the log guards it.
+ */
+final class ClosedDraftIndex {
+
+    private static final int ABANDONED = 1;
+
+    // Draft ids are positive, so 0 marks a free slot
+    private long[] keys = new long[1024];
+    // Last segment << 1, with the low bit set for abandoned drafts
+    private int[] values = new int[1024];
+    private int size;
+
+    void put(long draftId, int segment, boolean abandoned) {
+        if (size * 2 >= keys.length) {
+            grow();
+        }
+        int slot = slot(draftId, keys);
+        if (keys[slot] == 0) {
+            keys[slot] = draftId;
+            size++;
+        }
+        values[slot] = segment << 1 | (abandoned ? ABANDONED : 0);
+    }
+
+    void remove(long draftId) {
+        int slot = slot(draftId, keys);
+        if (keys[slot] == 0) {
+            return;
+        }
+        keys[slot] = 0;
+        size--;
+        // Shift back later entries of the same probe run so lookups still reach them
+        int mask = keys.length - 1;
+        for (int next = (slot + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = home(keys[next], mask);
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                keys[next] = 0;
+                slot = next;
+            }
+        }
+    }
+
+    /** Segment of the draft's last record, or -1 if it is not indexed. */
+    int lastSegment(long draftId) {
+        int slot = slot(draftId, keys);
+        return keys[slot] != 0 ? values[slot] >>> 1 : -1;
+    }
+
+    boolean isAbandoned(long draftId) {
+        int slot = slot(draftId, keys);
+        return keys[slot] != 0 && (values[slot] & ABANDONED) != 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(oldKeys[i], keys);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    // Slot holding draftId, or the free slot where it would go
+    private static int slot(long draftId, long[] keys) {
+        int mask = keys.length - 1;
+        int slot = home(draftId, mask);
+        while (keys[slot] != 0 && keys[slot] != draftId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int home(long draftId, int mask) {
+        long hash = draftId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
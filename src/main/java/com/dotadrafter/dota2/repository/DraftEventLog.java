@@ -0,0 +1,894 @@
+package com.dotadrafter.dota2.repository;
+
+import com.dotadrafter.dota2.config.DraftLogProperties;
+import com.dotadrafter.dota2.engine.DraftAction;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, file-backed log of draft actions.
+ * <p>
+ * A draft is one START record (id, start time, format, number of turns)
+ * followed by a 12-byte record per accepted pick or ban, in turn order, and
+ * an ABANDON record of the same size if it expired before its last turn.
+ * Appends go to an in-memory buffer that is written out sequentially when it
+ * fills up or every flush interval, so a burst of actions costs a single
+ * write. The log is split into segments; each time one fills up, the drafts
+ * still in progress are snapshotted next to the new segment, so recovery only
+ * loads the latest snapshot and replays the segments after it. Older segments
+ * are kept, which allows exact replay of any historical draft. Each filled
+ * segment also gets an index of the drafts that ended in it, so reading an old
+ * draft only scans the segments it spans.
+ */
+@Repository
+public class DraftEventLog {
+
+    private static final Logger log = LoggerFactory.getLogger(DraftEventLog.class);
+
+    private static final int SEGMENT_MAGIC = 0x44524C47; // "DRLG"
+    private static final int SNAPSHOT_MAGIC = 0x44525350; // "DRSP"
+    private static final int INDEX_MAGIC = 0x44524958; // "DRIX"
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES;
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private static final byte START = 1;
+    private static final byte PICK = 2;
+    private static final byte BAN = 3;
+    private static final byte ABANDON = 4;
+    private static final int ACTION_BYTES = 1 + Long.BYTES + 1 + Short.BYTES;
+    private static final int MAX_NAME_BYTES = 255;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean fsync;
+    private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private final ScheduledExecutorService flusher;
+    // Guards the buffer, the open drafts and the current segment. Not a monitor,
+    // because holding a monitor across file I/O pins a virtual thread's carrier.
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Drafts whose last turn has not been logged yet
+    private final Map<Long, OpenDraft> openDrafts = new HashMap<>();
+    // Lowest draft id each segment can start, to find where an old draft begins
+    private final NavigableMap<Long, Integer> segmentsByFirstDraft = new TreeMap<>();
+    // Segment each finished or abandoned draft ended in
+    private final ClosedDraftIndex closedDrafts = new ClosedDraftIndex();
+    // Drafts that ended in the current segment, negated if abandoned, for its index file
+    private long[] closedInSegment = new long[256];
+    private int closedInSegmentCount;
+    // False while an older segment has no index file, so ids missing from the index may still be logged
+    private boolean indexComplete = true;
+
+    private FileChannel channel;
+    private int segment;
+    private long nextDraftId = 1;
+    // New drafts only get ids this node owns, so ids never collide across a cluster
+    private volatile LongPredicate ownedIds = draftId -> true;
+
+    public DraftEventLog(DraftLogProperties properties) {
+        this.directory = Path.of(properties.getDirectory());
+        this.segmentBytes = properties.getSegmentBytes();
+        this.fsync = properties.isFsync();
+        try {
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open draft log in " + directory, e);
+        }
+
+        long interval = Math.max(1, properties.getFlushInterval().toMillis());
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "draft-log-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records the start of a new draft and returns its id. Ids are unique
+     * across restarts.
+     */
+    public long startDraft(String format, int turns) {
+        return startDraft(format, turns, List.of());
+    }
+
+    /**
+     * Records the start of a new draft together with its first actions, in
+     * one append, and returns its id. No other write lands between them.
+     */
+    public long startDraft(String format, int turns, List<RecordedAction> actions) {
+        if (actions.size() > turns) {
+            throw new IllegalArgumentException("A draft of " + turns + " turns cannot start with "
+                    + actions.size() + " actions");
+        }
+        lock.lock();
+        try {
+            long startedAt = System.currentTimeMillis();
+            long draftId = writeStart(format, startedAt, turns);
+            OpenDraft draft = new OpenDraft(format, startedAt, turns);
+            for (RecordedAction action : actions) {
+                byte type = typeOf(action.action());
+                ensureCapacity(ACTION_BYTES);
+                buffer.put(type).putLong(draftId).put((byte) draft.count).putShort((short) action.heroId());
+                draft.add(type, action.heroId());
+            }
+            if (actions.size() < turns) {
+                openDrafts.put(draftId, draft);
+            } else {
+                closed(draftId, false);
+            }
+            return draftId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Restricts the ids given to new drafts to those matching {@code owned}.
+     */
+    public void assignIdsMatching(LongPredicate owned) {
+        this.ownedIds = owned;
+    }
+
+    /**
+     * Keeps every future draft id at or above {@code draftId}, e.g. past the
+     * ids another node has already handed out.
+     */
+    public void reserveIdsBelow(long draftId) {
+        lock.lock();
+        try {
+            nextDraftId = Math.max(nextDraftId, draftId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long nextDraftId() {
+        lock.lock();
+        try {
+            return nextDraftId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes over a draft, finished or not, from another node under its
+     * existing id. Returns false if a draft with that id is already in
+     * progress here.
+     */
+    public boolean adoptDraft(long draftId, String format, long startedAt, int turns, List<RecordedAction> actions) {
+        lock.lock();
+        try {
+            if (openDrafts.containsKey(draftId)) {
+                return false;
+            }
+            writeStart(draftId, format, startedAt, turns);
+            OpenDraft draft = new OpenDraft(format, startedAt, turns);
+            for (int turn = 0; turn < actions.size(); turn++) {
+                RecordedAction action = actions.get(turn);
+                byte type = typeOf(action.action());
+                ensureCapacity(ACTION_BYTES);
+                buffer.put(type).putLong(draftId).put((byte) turn).putShort((short) action.heroId());
+                draft.add(type, action.heroId());
+            }
+            if (actions.size() < turns) {
+                openDrafts.put(draftId, draft);
+                closedDrafts.remove(draftId);
+            } else {
+                closed(draftId, false);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Logs a complete draft recorded elsewhere, e.g. on another node, under a
+     * new local id.
+     */
+    public long importDraft(String format, long startedAt, List<RecordedAction> actions) {
+        lock.lock();
+        try {
+            long draftId = writeStart(format, startedAt, actions.size());
+            for (int turn = 0; turn < actions.size(); turn++) {
+                RecordedAction action = actions.get(turn);
+                ensureCapacity(ACTION_BYTES);
+                buffer.put(typeOf(action.action())).putLong(draftId).put((byte) turn).putShort((short) action.heroId());
+            }
+            closed(draftId, false);
+            return draftId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long writeStart(String format, long startedAt, int turns) {
+        return writeStart(0, format, startedAt, turns);
+    }
+
+    // Writes a START record under draftId, or under the next owned id when draftId is 0
+    private long writeStart(long draftId, String format, long startedAt, int turns) {
+        byte[] name = format.getBytes(StandardCharsets.UTF_8);
+        if (name.length > MAX_NAME_BYTES || turns < 0 || turns > 0xFF) {
+            throw new IllegalArgumentException("Draft format cannot be logged: " + format);
+        }
+        ensureCapacity(1 + Long.BYTES + Long.BYTES + 2 + name.length);
+        if (draftId == 0) {
+            while (!ownedIds.test(nextDraftId)) {
+                nextDraftId++;
+            }
+            draftId = nextDraftId++;
+        } else {
+            nextDraftId = Math.max(nextDraftId, draftId + 1);
+        }
+        buffer.put(START).putLong(draftId).putLong(startedAt)
+                .put((byte) turns).put((byte) name.length).put(name);
+        return draftId;
+    }
+
+    /**
+     * Appends an accepted action. {@code turn} must be the draft's next turn,
+     * so an action computed from a stale copy of the draft is refused.
+     */
+    public void append(long draftId, int turn, DraftAction action, int heroId) {
+        lock.lock();
+        try {
+            OpenDraft draft = openDrafts.get(draftId);
+            if (draft == null || draft.count != turn) {
+                throw new IllegalStateException("Draft " + draftId + " is not at turn " + turn);
+            }
+            byte type = typeOf(action);
+            ensureCapacity(ACTION_BYTES);
+            buffer.put(type).putLong(draftId).put((byte) turn).putShort((short) heroId);
+            if (draft.add(type, heroId)) {
+                openDrafts.remove(draftId);
+                closed(draftId, false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends several accepted actions of one draft under a single lock
+     * acquisition, the first at {@code turn}, which must be the draft's next
+     * turn. No other write lands between them; if the draft is not at that
+     * turn, nothing is logged.
+     */
+    public void appendAll(long draftId, int turn, List<RecordedAction> actions) {
+        lock.lock();
+        try {
+            OpenDraft draft = openDrafts.get(draftId);
+            if (draft == null || draft.count != turn || turn + actions.size() > draft.turns) {
+                throw new IllegalStateException("Draft " + draftId + " is not at turn " + turn);
+            }
+            for (RecordedAction action : actions) {
+                byte type = typeOf(action.action());
+                ensureCapacity(ACTION_BYTES);
+                buffer.put(type).putLong(draftId).put((byte) draft.count).putShort((short) action.heroId());
+                if (draft.add(type, action.heroId())) {
+                    openDrafts.remove(draftId);
+                    closed(draftId, false);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes a draft in progress without finishing it, so it is no longer kept
+     * open (or snapshotted) and refuses further actions. Returns false if the
+     * draft was not in progress.
+     */
+    public boolean abandon(long draftId) {
+        lock.lock();
+        try {
+            OpenDraft draft = openDrafts.remove(draftId);
+            if (draft == null) {
+                return false;
+            }
+            ensureCapacity(ACTION_BYTES);
+            buffer.put(ABANDON).putLong(draftId).put((byte) draft.count).putShort((short) 0);
+            closed(draftId, true);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether the draft is in progress here or finished here, rather than
+     * abandoned or handed off, answered from memory. Drafts in segments
+     * written before indexes existed are not counted.
+     */
+    public boolean hasDraft(long draftId) {
+        lock.lock();
+        try {
+            return openDrafts.containsKey(draftId)
+                    || (closedDrafts.lastSegment(draftId) >= 0 && !closedDrafts.isAbandoned(draftId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether the draft was abandoned here and not adopted back since, answered
+     * from memory.
+     */
+    public boolean isAbandoned(long draftId) {
+        lock.lock();
+        try {
+            return !openDrafts.containsKey(draftId) && closedDrafts.isAbandoned(draftId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ids of the drafts in progress that were started before the given time.
+     */
+    public List<Long> openDraftsStartedBefore(long epochMillis) {
+        lock.lock();
+        try {
+            List<Long> ids = new ArrayList<>();
+            openDrafts.forEach((draftId, draft) -> {
+                if (draft.startedAt < epochMillis) {
+                    ids.add(draftId);
+                }
+            });
+            return ids;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int openDraftCount() {
+        lock.lock();
+        try {
+            return openDrafts.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns every logged action of a draft, in turn order. Finished drafts
+     * are read back from the segments between their start and their end.
+     */
+    public Optional<RecordedDraft> read(long draftId) {
+        int from;
+        int to;
+        lock.lock();
+        try {
+            OpenDraft open = openDrafts.get(draftId);
+            if (open != null) {
+                return Optional.of(open.toRecorded(draftId));
+            }
+            if (draftId <= 0 || draftId >= nextDraftId) {
+                return Optional.empty();
+            }
+            int last = closedDrafts.lastSegment(draftId);
+            if (last < 0 && indexComplete) {
+                // Never logged here, e.g. an id owned by another node
+                return Optional.empty();
+            }
+            to = last >= 0 ? last : segment;
+            if (to == segment) {
+                writeBuffer();
+            }
+            Map.Entry<Long, Integer> start = segmentsByFirstDraft.floorEntry(draftId);
+            from = start != null ? start.getValue() : segmentsByFirstDraft.firstEntry().getValue();
+        } finally {
+            lock.unlock();
+        }
+
+        OpenDraft found = null;
+        for (int seq = from; seq <= to; seq++) {
+            ByteBuffer data = readSegment(seq);
+            if (data == null) {
+                continue;
+            }
+            Entry entry;
+            while ((entry = nextEntry(data)) != null) {
+                if (entry.draftId != draftId) {
+                    continue;
+                }
+                if (entry.type == START) {
+                    found = new OpenDraft(entry.format, entry.startedAt, entry.turns);
+                } else if (entry.type == ABANDON && found != null) {
+                    // Keep scanning: a draft that moved away may have been adopted back later
+                    found.abandoned = true;
+                } else if (found != null && found.count == entry.turn && found.add(entry.type, entry.heroId)) {
+                    return Optional.of(found.toRecorded(draftId));
+                }
+            }
+        }
+        return Optional.ofNullable(found).map(draft -> draft.toRecorded(draftId));
+    }
+
+    /**
+     * Passes every finished draft with an id of at least {@code fromDraftId} to
+     * {@code consumer}, in the order the drafts were finished. Segments are
+     * read one at a time, so memory stays bounded by the drafts that were in
+     * progress together.
+     */
+    public void forEachFinished(long fromDraftId, Consumer<RecordedDraft> consumer) {
+        int from;
+        int to;
+        lock.lock();
+        try {
+            writeBuffer();
+            Map.Entry<Long, Integer> start = segmentsByFirstDraft.floorEntry(fromDraftId);
+            from = start != null ? start.getValue() : segmentsByFirstDraft.firstEntry().getValue();
+            to = segment;
+        } finally {
+            lock.unlock();
+        }
+
+        Map<Long, OpenDraft> pending = new HashMap<>();
+        for (int seq = from; seq <= to; seq++) {
+            ByteBuffer data = readSegment(seq);
+            if (data == null) {
+                continue;
+            }
+            Entry entry;
+            while ((entry = nextEntry(data)) != null) {
+                if (entry.draftId < fromDraftId) {
+                    continue;
+                }
+                if (entry.type == START) {
+                    OpenDraft draft = new OpenDraft(entry.format, entry.startedAt, entry.turns);
+                    if (entry.turns == 0) {
+                        consumer.accept(draft.toRecorded(entry.draftId));
+                    } else {
+                        pending.put(entry.draftId, draft);
+                    }
+                    continue;
+                }
+                if (entry.type == ABANDON) {
+                    pending.remove(entry.draftId);
+                    continue;
+                }
+                OpenDraft draft = pending.get(entry.draftId);
+                if (draft != null && draft.count == entry.turn && draft.add(entry.type, entry.heroId)) {
+                    pending.remove(entry.draftId);
+                    consumer.accept(draft.toRecorded(entry.draftId));
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes buffered appends to the current segment.
+     */
+    public void flush() {
+        lock.lock();
+        try {
+            writeBuffer();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            flusher.shutdown();
+            writeBuffer();
+            try {
+                channel.force(true);
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close draft log segment {}", segment, e);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to flush draft log", e);
+        }
+    }
+
+    // Records that a draft ended in the current segment
+    private void closed(long draftId, boolean abandoned) {
+        closedDrafts.put(draftId, segment, abandoned);
+        if (closedInSegmentCount == closedInSegment.length) {
+            closedInSegment = Arrays.copyOf(closedInSegment, closedInSegmentCount * 2);
+        }
+        closedInSegment[closedInSegmentCount++] = abandoned ? -draftId : draftId;
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() < bytes) {
+            writeBuffer();
+        }
+    }
+
+    private void writeBuffer() {
+        if (buffer.position() == 0) {
+            return;
+        }
+        try {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+            if (fsync) {
+                channel.force(false);
+            }
+            if (channel.size() >= segmentBytes) {
+                roll();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write draft log segment " + segment, e);
+        }
+    }
+
+    // Starts the next segment; the snapshot makes the previous ones unnecessary for recovery
+    private void roll() throws IOException {
+        channel.force(true);
+        channel.close();
+        writeIndex(segment);
+        segment++;
+        writeSnapshot(segment);
+        openSegment(segment);
+    }
+
+    private void openSegment(int seq) throws IOException {
+        channel = FileChannel.open(segmentPath(seq), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(SEGMENT_MAGIC).putLong(nextDraftId).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        segmentsByFirstDraft.put(nextDraftId, seq);
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        List<Integer> segments = listSequences(SEGMENT_SUFFIX);
+        List<Integer> snapshots = listSequences(SNAPSHOT_SUFFIX);
+        int snapshot = snapshots.isEmpty() ? 0 : snapshots.get(snapshots.size() - 1);
+        if (snapshot > 0) {
+            loadSnapshot(snapshot);
+        }
+
+        for (int seq : segments) {
+            if (seq < snapshot) {
+                // Covered by the snapshot; only its header and index are needed to locate old drafts
+                segmentsByFirstDraft.put(readFirstDraftId(seq), seq);
+                indexComplete &= loadIndex(seq);
+            }
+        }
+        // Drafts indexed as ended but in progress in the snapshot were adopted back since
+        openDrafts.keySet().forEach(closedDrafts::remove);
+
+        long validLength = HEADER_BYTES;
+        for (int seq : segments) {
+            if (seq < snapshot) {
+                continue;
+            }
+            ByteBuffer data = readSegment(seq);
+            if (data == null) {
+                throw new IOException("Corrupt draft log segment " + segmentPath(seq));
+            }
+            long firstDraftId = data.getLong(Integer.BYTES);
+            segmentsByFirstDraft.put(firstDraftId, seq);
+            nextDraftId = Math.max(nextDraftId, firstDraftId);
+            segment = seq;
+            closedInSegmentCount = 0;
+            Entry entry;
+            while ((entry = nextEntry(data)) != null) {
+                replay(entry);
+            }
+            validLength = data.position();
+            if (seq != segments.get(segments.size() - 1) && !Files.exists(indexPath(seq))) {
+                writeIndex(seq);
+            }
+        }
+
+        int last = segments.isEmpty() ? 0 : segments.get(segments.size() - 1);
+        if (last == 0 || snapshot > last) {
+            segment = Math.max(1, snapshot);
+            closedInSegmentCount = 0;
+            openSegment(segment);
+        } else {
+            segment = last;
+            channel = FileChannel.open(segmentPath(segment), StandardOpenOption.WRITE);
+            if (channel.size() > validLength) {
+                // A record cut off by a crash is dropped; everything before it is intact
+                log.warn("Truncating {} bytes of incomplete draft log records", channel.size() - validLength);
+                channel.truncate(validLength);
+            }
+            channel.position(validLength);
+        }
+        if (!indexComplete) {
+            log.warn("Some draft log segments have no index; reads of unindexed drafts scan the whole log");
+        }
+        log.info("Draft log recovered: {} drafts in progress, {} ended, next draft id {}",
+                openDrafts.size(), closedDrafts.size(), nextDraftId);
+    }
+
+    private void replay(Entry entry) {
+        nextDraftId = Math.max(nextDraftId, entry.draftId + 1);
+        if (entry.type == START) {
+            if (entry.turns > 0) {
+                openDrafts.put(entry.draftId, new OpenDraft(entry.format, entry.startedAt, entry.turns));
+                closedDrafts.remove(entry.draftId);
+            } else {
+                closed(entry.draftId, false);
+            }
+            return;
+        }
+        if (entry.type == ABANDON) {
+            if (openDrafts.remove(entry.draftId) != null) {
+                closed(entry.draftId, true);
+            }
+            return;
+        }
+        OpenDraft draft = openDrafts.get(entry.draftId);
+        if (draft != null && draft.count == entry.turn && draft.add(entry.type, entry.heroId)) {
+            openDrafts.remove(entry.draftId);
+            closed(entry.draftId, false);
+        }
+    }
+
+    // Ids of the drafts that ended in a filled segment, written next to it
+    private void writeIndex(int seq) throws IOException {
+        Path temp = Files.createTempFile(directory, "drafts", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeInt(closedInSegmentCount);
+            for (int i = 0; i < closedInSegmentCount; i++) {
+                out.writeLong(closedInSegment[i]);
+            }
+        }
+        Files.move(temp, indexPath(seq), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        closedInSegmentCount = 0;
+    }
+
+    // Returns false if the segment has no index, e.g. one written before indexes existed
+    private boolean loadIndex(int seq) throws IOException {
+        Path path = indexPath(seq);
+        if (!Files.exists(path)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != INDEX_MAGIC) {
+                throw new IOException("Corrupt draft log index " + path);
+            }
+            for (int i = in.readInt(); i > 0; i--) {
+                long draftId = in.readLong();
+                closedDrafts.put(Math.abs(draftId), seq, draftId < 0);
+            }
+        }
+        return true;
+    }
+
+    private void writeSnapshot(int seq) throws IOException {
+        Path temp = Files.createTempFile(directory, "drafts", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(nextDraftId);
+            out.writeInt(openDrafts.size());
+            for (Map.Entry<Long, OpenDraft> open : openDrafts.entrySet()) {
+                OpenDraft draft = open.getValue();
+                out.writeLong(open.getKey());
+                out.writeLong(draft.startedAt);
+                out.writeUTF(draft.format);
+                out.writeByte(draft.turns);
+                out.writeByte(draft.count);
+                for (int i = 0; i < draft.count; i++) {
+                    out.writeByte(draft.types[i]);
+                    out.writeShort(draft.heroes[i]);
+                }
+            }
+        }
+        Files.move(temp, snapshotPath(seq), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void loadSnapshot(int seq) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(snapshotPath(seq)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Corrupt draft log snapshot " + snapshotPath(seq));
+            }
+            nextDraftId = in.readLong();
+            for (int i = in.readInt(); i > 0; i--) {
+                long draftId = in.readLong();
+                long startedAt = in.readLong();
+                OpenDraft draft = new OpenDraft(in.readUTF(), startedAt, in.readUnsignedByte());
+                for (int turn = in.readUnsignedByte(); turn > 0; turn--) {
+                    draft.add(in.readByte(), in.readShort());
+                }
+                openDrafts.put(draftId, draft);
+            }
+        }
+    }
+
+    private long readFirstDraftId(int seq) throws IOException {
+        try (FileChannel in = FileChannel.open(segmentPath(seq), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && in.read(header) >= 0) {
+                // keep reading until the header is complete or the file ends
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != SEGMENT_MAGIC) {
+                throw new IOException("Corrupt draft log segment " + segmentPath(seq));
+            }
+            return header.getLong();
+        }
+    }
+
+    // Whole segment, mapped rather than copied onto the heap, positioned after
+    // its header, or null if the header is invalid
+    private ByteBuffer readSegment(int seq) {
+        Path path = segmentPath(seq);
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer data = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            if (data.remaining() < HEADER_BYTES || data.getInt() != SEGMENT_MAGIC) {
+                return null;
+            }
+            data.position(HEADER_BYTES);
+            return data;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read draft log segment " + path, e);
+        }
+    }
+
+    // Next complete record, or null at the end of the data or at a partially written record
+    private static Entry nextEntry(ByteBuffer data) {
+        int start = data.position();
+        if (data.remaining() < 1 + Long.BYTES) {
+            return null;
+        }
+        Entry entry = new Entry();
+        entry.type = data.get();
+        entry.draftId = data.getLong();
+        if (entry.type == START && data.remaining() >= Long.BYTES + 2) {
+            entry.startedAt = data.getLong();
+            entry.turns = Byte.toUnsignedInt(data.get());
+            int length = Byte.toUnsignedInt(data.get());
+            if (data.remaining() >= length) {
+                byte[] name = new byte[length];
+                data.get(name);
+                entry.format = new String(name, StandardCharsets.UTF_8);
+                return entry;
+            }
+        } else if ((entry.type == PICK || entry.type == BAN || entry.type == ABANDON)
+                && data.remaining() >= 1 + Short.BYTES) {
+            entry.turn = Byte.toUnsignedInt(data.get());
+            entry.heroId = data.getShort();
+            return entry;
+        }
+        data.position(start);
+        return null;
+    }
+
+    private static byte typeOf(DraftAction action) {
+        return action == DraftAction.PICK ? PICK : BAN;
+    }
+
+    private List<Integer> listSequences(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(suffix) && name.length() > suffix.length())
+                    .map(name -> name.substring(0, name.length() - suffix.length()))
+                    .filter(name -> name.chars().allMatch(Character::isDigit))
+                    .map(Integer::valueOf)
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(int seq) {
+        return directory.resolve(String.format("%08d%s", seq, SEGMENT_SUFFIX));
+    }
+
+    private Path snapshotPath(int seq) {
+        return directory.resolve(String.format("%08d%s", seq, SNAPSHOT_SUFFIX));
+    }
+
+    private Path indexPath(int seq) {
+        return directory.resolve(String.format("%08d%s", seq, INDEX_SUFFIX));
+    }
+
+    public record RecordedAction(DraftAction action, int heroId) {
+    }
+
+    public record RecordedDraft(long draftId, String format, long startedAt, int turns,
+                                List<RecordedAction> actions, boolean abandoned) {
+
+        public boolean isComplete() {
+            return actions.size() >= turns;
+        }
+    }
+
+    private static final class Entry {
+        byte type;
+        long draftId;
+        long startedAt;
+        int turns;
+        String format;
+        int turn;
+        int heroId;
+    }
+
+    private static final class OpenDraft {
+        final String format;
+        final long startedAt;
+        final int turns;
+        final byte[] types;
+        final short[] heroes;
+        int count;
+        boolean abandoned;
+
+        OpenDraft(String format, long startedAt, int turns) {
+            this.format = format;
+            this.startedAt = startedAt;
+            this.turns = turns;
+            this.types = new byte[turns];
+            this.heroes = new short[turns];
+        }
+
+        // Returns true once the last turn has been recorded
+        boolean add(byte type, int heroId) {
+            types[count] = type;
+            heroes[count] = (short) heroId;
+            count++;
+            return count >= turns;
+        }
+
+        RecordedDraft toRecorded(long draftId) {
+            List<RecordedAction> actions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                actions.add(new RecordedAction(types[i] == PICK ? DraftAction.PICK : DraftAction.BAN, heroes[i]));
+            }
+            return new RecordedDraft(draftId, format, startedAt, turns, actions, abandoned);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.dotadrafter.dota2.repository;
+
+import com.dotadrafter.dota2.model.Hero;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes hero rows with JDBC batch statements, bypassing Hibernate's
+ * select-before-merge and full element-collection rewrite. Only the heroes
+ * passed in are touched.
+ */
+@Repository
+public class HeroBatchWriter {
+
+    private static final String INSERT_HERO = "insert into hero "
+            + "(id, name, primary_attribute, base_strength, base_agility, base_intelligence, image_url) "
+            + "values (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_HERO = "update hero set name = ?, primary_attribute = ?, "
+            + "base_strength = ?, base_agility = ?, base_intelligence = ?, image_url = ? where id = ?";
+    private static final String DELETE_ROLES = "delete from hero_roles where hero_id = ?";
+    private static final String INSERT_ROLE = "insert into hero_roles (hero_id, roles) values (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public HeroBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    public void write(List<Hero> inserts, List<Hero> updates) {
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_HERO, inserts, inserts.size(), (ps, hero) -> {
+                ps.setLong(1, hero.getId());
+                ps.setString(2, hero.getName());
+                ps.setString(3, hero.getPrimaryAttribute() != null ? hero.getPrimaryAttribute().name() : null);
+                ps.setDouble(4, hero.getBaseStrength());
+                ps.setDouble(5, hero.getBaseAgility());
+                ps.setDouble(6, hero.getBaseIntelligence());
+                ps.setString(7, hero.getImageUrl());
+            });
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_HERO, updates, updates.size(), (ps, hero) -> {
+                ps.setString(1, hero.getName());
+                ps.setString(2, hero.getPrimaryAttribute() != null ? hero.getPrimaryAttribute().name() : null);
+                ps.setDouble(3, hero.getBaseStrength());
+                ps.setDouble(4, hero.getBaseAgility());
+                ps.setDouble(5, hero.getBaseIntelligence());
+                ps.setString(6, hero.getImageUrl());
+                ps.setLong(7, hero.getId());
+            });
+            jdbcTemplate.batchUpdate(DELETE_ROLES, updates, updates.size(),
+                    (ps, hero) -> ps.setLong(1, hero.getId()));
+        }
+
+        List<Object[]> roles = new ArrayList<>();
+        for (List<Hero> heroes : List.of(inserts, updates)) {
+            for (Hero hero : heroes) {
+                if (hero.getRoles() != null) {
+                    for (String role : hero.getRoles()) {
+                        roles.add(new Object[]{hero.getId(), role});
+                    }
+                }
+            }
+        }
+        if (!roles.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ROLE, roles);
+        }
+    }
+}
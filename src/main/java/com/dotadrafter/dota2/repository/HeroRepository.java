@@ -3,6 +3,7 @@ package com.dotadrafter.dota2.repository;
 import com.dotadrafter.dota2.model.Hero;
 import com.dotadrafter.dota2.model.HeroAttribute;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +13,8 @@ import java.util.Optional;
 public interface HeroRepository extends JpaRepository<Hero, Long> {
     Optional<Hero> findByName(String name);
     List<Hero> findByPrimaryAttribute(HeroAttribute attribute);
+
+    // Fetches roles in the same query to avoid one lazy select per hero
+    @Query("select distinct h from Hero h left join fetch h.roles")
+    List<Hero> findAllWithRoles();
 }
@@ -0,0 +1,281 @@
+package com.dotadrafter.dota2.service;
+
+import com.dotadrafter.dota2.config.ClusterProperties;
+import com.dotadrafter.dota2.dto.ArchivedDraft;
+import com.dotadrafter.dota2.dto.ClusterStatus;
+import com.dotadrafter.dota2.dto.DraftHandoff;
+import com.dotadrafter.dota2.dto.RebalanceReport;
+import com.dotadrafter.dota2.repository.DraftEventLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Partitions drafts across the nodes of a cluster by draft id.
+ * <p>
+ * Every node holds the same node list and builds the same consistent hash
+ * ring from it, so each node can tell which one owns a draft without asking
+ * the others. A node only gives new drafts ids it owns itself, and requests
+ * for drafts it does not own are forwarded or redirected to the owner. When
+ * the membership changes, each node hands the drafts in progress it no longer
+ * owns to their new owners; finished drafts stay in the log of the node that
+ * ran them, which keeps serving them. With no node list configured the node
+ * owns every draft.
+ */
+@Service
+public class ClusterService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterService.class);
+    private static final int HANDOFF_BATCH = 100;
+    static final String HANDOFF_PATH = "/api/cluster/handoff";
+    static final String STATUS_PATH = "/api/cluster";
+
+    private final ClusterProperties properties;
+    private final String nodeId;
+    private final DraftService draftService;
+    private final DraftEventLog draftEventLog;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+
+    // Node list and ring, replaced as one under this
+    private volatile Membership membership;
+    // Serializes membership changes and hand-offs. Not a monitor, because they
+    // block on other nodes and a monitor would pin a virtual thread's carrier.
+    private final ReentrantLock rebalanceLock = new ReentrantLock();
+
+    public ClusterService(ClusterProperties properties, DraftService draftService, DraftEventLog draftEventLog,
+                          ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.nodeId = properties.getNodeId();
+        this.draftService = draftService;
+        this.draftEventLog = draftEventLog;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+        this.membership = membership(properties.getNodes());
+        draftEventLog.assignIdsMatching(this::isLocal);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public HttpClient httpClient() {
+        return httpClient;
+    }
+
+    public boolean isLocal(long draftId) {
+        Membership current = membership;
+        return current.single() || current.ring().ownerOf(draftId).equals(nodeId);
+    }
+
+    /**
+     * Base URL of the node owning a draft, or empty when this node serves it:
+     * it owns the draft, or its log still holds it, e.g. a draft that finished
+     * here before the membership changed.
+     */
+    public Optional<String> ownerUrl(long draftId) {
+        Membership current = membership;
+        if (current.single()) {
+            return Optional.empty();
+        }
+        String owner = current.ring().ownerOf(draftId);
+        if (owner.equals(nodeId) || draftEventLog.hasDraft(draftId)) {
+            return Optional.empty();
+        }
+        return Optional.of(current.nodes().get(owner));
+    }
+
+    public ClusterStatus status() {
+        Membership current = membership;
+        return new ClusterStatus(nodeId, current.nodes(), properties.getVirtualNodes(),
+                properties.getRouting().name(), draftEventLog.nextDraftId(), draftEventLog.openDraftCount());
+    }
+
+    /**
+     * Replaces the node list and hands off the drafts this node no longer owns.
+     * Apply the same list to every node, old and new.
+     */
+    public RebalanceReport updateMembership(Map<String, String> nodes) {
+        Membership next = membership(nodes);
+        rebalanceLock.lock();
+        try {
+            // Ids the others handed out under the old ring may now be ours to give
+            Map<String, String> known = new LinkedHashMap<>(membership.nodes());
+            known.putAll(next.nodes());
+            reserveIdsUsedBy(known);
+            membership = next;
+            log.info("Cluster membership is now {}", next.nodes().keySet());
+            return rebalance();
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebalanceOnStartup() {
+        Membership current = membership;
+        if (!current.single()) {
+            // Reserved ids are not logged, so learn them again after a restart
+            reserveIdsUsedBy(current.nodes());
+            rebalance();
+        }
+    }
+
+    /**
+     * Hands every draft in progress this node does not own to its owner, in
+     * batches. Every other node also learns this node's next draft id, even
+     * when there is nothing to hand it.
+     */
+    public RebalanceReport rebalance() {
+        rebalanceLock.lock();
+        try {
+            return rebalance(membership);
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+
+    private RebalanceReport rebalance(Membership current) {
+        Map<String, List<Long>> moving = new TreeMap<>();
+        if (!current.single()) {
+            for (long draftId : draftService.openDraftIds()) {
+                String owner = current.ring().ownerOf(draftId);
+                if (!owner.equals(nodeId)) {
+                    moving.computeIfAbsent(owner, node -> new ArrayList<>()).add(draftId);
+                }
+            }
+        }
+
+        long nextDraftId = draftEventLog.nextDraftId();
+        Map<String, Integer> handedOff = new TreeMap<>();
+        Map<String, String> failed = new TreeMap<>();
+        for (String node : current.ring().nodes()) {
+            if (node.equals(nodeId)) {
+                continue;
+            }
+            String url = current.nodes().get(node);
+            List<Long> draftIds = moving.getOrDefault(node, List.of());
+            int moved = 0;
+            try {
+                int from = 0;
+                do {
+                    List<Long> batch = draftIds.subList(from, Math.min(draftIds.size(), from + HANDOFF_BATCH));
+                    moved += draftService.handOff(batch,
+                            drafts -> send(node, url, new DraftHandoff(nodeId, nextDraftId, drafts)));
+                    from += HANDOFF_BATCH;
+                } while (from < draftIds.size());
+                handedOff.put(node, moved);
+            } catch (RuntimeException e) {
+                log.warn("Hand-off to node {} failed after {} drafts: {}", node, moved, e.getMessage());
+                handedOff.put(node, moved);
+                failed.put(node, e.getMessage());
+            }
+        }
+        if (!handedOff.isEmpty()) {
+            log.info("Rebalanced drafts in progress: {} handed off, {} failed", handedOff, failed.keySet());
+        }
+        return new RebalanceReport(handedOff, failed);
+    }
+
+    /**
+     * Adopts drafts handed off by another node.
+     */
+    public void receive(DraftHandoff handoff) {
+        draftEventLog.reserveIdsBelow(handoff.nextDraftId());
+        for (ArchivedDraft draft : handoff.drafts()) {
+            draftService.adopt(draft);
+        }
+        if (!handoff.drafts().isEmpty()) {
+            log.info("Adopted {} drafts from node {}", handoff.drafts().size(), handoff.fromNode());
+        }
+    }
+
+    private void send(String node, String url, DraftHandoff handoff) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url + HANDOFF_PATH))
+                    .timeout(properties.getHandoffTimeout())
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(handoff)))
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                throw new RuntimeException("Node " + node + " refused the hand-off: HTTP " + response.statusCode());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Node " + node + " is unreachable: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while handing off drafts", e);
+        }
+    }
+
+    // Skips every draft id the reachable nodes have already handed out
+    private void reserveIdsUsedBy(Map<String, String> nodes) {
+        nodes.forEach((node, url) -> {
+            if (node.equals(nodeId)) {
+                return;
+            }
+            try {
+                draftEventLog.reserveIdsBelow(fetchStatus(url).nextDraftId());
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not read the draft ids of node {}: {}", node, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while reading draft ids from node " + node, e);
+            }
+        });
+    }
+
+    private ClusterStatus fetchStatus(String url) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url + STATUS_PATH))
+                .timeout(properties.getHandoffTimeout())
+                .GET()
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode());
+        }
+        return objectMapper.readValue(response.body(), ClusterStatus.class);
+    }
+
+    private Membership membership(Map<String, String> nodes) {
+        if (nodes.isEmpty()) {
+            return new Membership(Map.of(), new ConsistentHashRing(List.of(nodeId), 1), true);
+        }
+        if (!nodes.containsKey(nodeId)) {
+            throw new IllegalArgumentException("Node list must include this node: " + nodeId);
+        }
+        // Sorted, trailing slashes dropped, so every node renders the same list
+        Map<String, String> normalized = new LinkedHashMap<>();
+        for (String node : new TreeSet<>(nodes.keySet())) {
+            normalized.put(node, nodes.get(node).replaceAll("/+$", ""));
+        }
+        return new Membership(Collections.unmodifiableMap(normalized), new ConsistentHashRing(normalized.keySet(),
+                properties.getVirtualNodes()), nodes.size() == 1);
+    }
+
+    private record Membership(Map<String, String> nodes, ConsistentHashRing ring, boolean single) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.dotadrafter.dota2.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Maps draft ids to the node that owns them. Every node is placed on a 64-bit
+ * ring at {@code virtualNodes} pseudo-random points, and a draft belongs to
+ * the node at the first point at or after the hash of its id. Adding or
+ * removing a node only moves the drafts on the arcs it gains or loses; every
+ * other draft keeps its owner. Immutable: membership changes build a new ring.
+ */
+public final class ConsistentHashRing {
+
+    private final long[] points;
+    private final String[] owners;
+    private final Set<String> nodes;
+
+    public ConsistentHashRing(Collection<String> nodeIds, int virtualNodes) {
+        if (nodeIds.isEmpty()) {
+            throw new IllegalArgumentException("A ring needs at least one node");
+        }
+        this.nodes = Set.copyOf(new TreeSet<>(nodeIds));
+        int perNode = Math.max(1, virtualNodes);
+        record Point(long hash, String owner) {
+        }
+        Point[] ring = new Point[nodes.size() * perNode];
+        int i = 0;
+        for (String node : nodes) {
+            for (int replica = 0; replica < perNode; replica++) {
+                ring[i++] = new Point(hash(node + "#" + replica), node);
+            }
+        }
+        // Ties are broken by name so every node builds the same ring
+        Arrays.sort(ring, Comparator.comparingLong(Point::hash).thenComparing(Point::owner));
+        this.points = new long[ring.length];
+        this.owners = new String[ring.length];
+        for (i = 0; i < ring.length; i++) {
+            points[i] = ring[i].hash();
+            owners[i] = ring[i].owner();
+        }
+    }
+
+    public String ownerOf(long draftId) {
+        int index = Arrays.binarySearch(points, mix(draftId));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    public Set<String> nodes() {
+        return nodes;
+    }
+
+    // FNV-1a, then mixed so that similar names land far apart
+    private static long hash(String key) {
+        long h = 0xCBF29CE484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h = (h ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    // SplitMix64 finalizer: consecutive draft ids spread evenly over the ring
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
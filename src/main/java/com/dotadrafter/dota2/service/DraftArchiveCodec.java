@@ -0,0 +1,196 @@
+package com.dotadrafter.dota2.service;
+
+import com.dotadrafter.dota2.dto.ArchivedDraft;
+import com.dotadrafter.dota2.dto.DraftEvent;
+import com.dotadrafter.dota2.engine.DraftAction;
+import com.dotadrafter.dota2.engine.DraftBoard;
+import com.dotadrafter.dota2.engine.Side;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding for streams of finished drafts.
+ * <p>
+ * A stream starts with a magic number and version. Format names are written
+ * once and then referenced by index. Each draft is its id and start time as
+ * variable-length integers, the format index, the number of turns, the side
+ * and action of every turn packed two bits each, and one byte per hero id.
+ * A Captain's Mode draft takes about 40 bytes.
+ */
+public final class DraftArchiveCodec {
+
+    public static final String MEDIA_TYPE = "application/vnd.dotadrafter.drafts";
+
+    private static final int MAGIC = 0x44524641; // "DRFA"
+    private static final int VERSION = 1;
+
+    private static final int END = 0;
+    private static final int FORMAT = 1;
+    private static final int DRAFT = 2;
+
+    private static final int DIRE_BIT = 1;
+    private static final int BAN_BIT = 2;
+
+    private DraftArchiveCodec() {
+    }
+
+    public static Writer writer(OutputStream out) throws IOException {
+        return new Writer(out);
+    }
+
+    public static Reader reader(InputStream in) throws IOException {
+        return new Reader(in);
+    }
+
+    public static final class Writer implements AutoCloseable {
+
+        private final DataOutputStream out;
+        private final Map<String, Integer> formats = new HashMap<>();
+
+        private Writer(OutputStream out) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(out));
+            this.out.writeInt(MAGIC);
+            this.out.writeByte(VERSION);
+        }
+
+        public void write(ArchivedDraft draft) throws IOException {
+            List<DraftEvent> events = draft.events();
+            if (events.size() > 0xFF) {
+                throw new IOException("Draft " + draft.draftId() + " has too many turns to encode");
+            }
+            Integer format = formats.get(draft.format());
+            if (format == null) {
+                if (formats.size() > 0xFF) {
+                    throw new IOException("Too many distinct draft formats to encode");
+                }
+                format = formats.size();
+                formats.put(draft.format(), format);
+                byte[] name = draft.format().getBytes(StandardCharsets.UTF_8);
+                out.writeByte(FORMAT);
+                out.writeByte(name.length);
+                out.write(name);
+            }
+
+            out.writeByte(DRAFT);
+            writeVarLong(draft.draftId());
+            writeVarLong(draft.startedAt());
+            out.writeByte(format);
+            out.writeByte(events.size());
+            int packed = 0;
+            for (int turn = 0; turn < events.size(); turn++) {
+                DraftEvent event = events.get(turn);
+                int bits = (event.side() == Side.DIRE ? DIRE_BIT : 0) | (event.action() == DraftAction.BAN ? BAN_BIT : 0);
+                packed |= bits << ((turn & 3) * 2);
+                if ((turn & 3) == 3 || turn == events.size() - 1) {
+                    out.writeByte(packed);
+                    packed = 0;
+                }
+            }
+            for (DraftEvent event : events) {
+                if (!DraftBoard.isValidHeroId(event.heroId())) {
+                    throw new IOException("Hero id " + event.heroId() + " cannot be encoded");
+                }
+                out.writeByte((int) event.heroId());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.writeByte(END);
+            out.flush();
+        }
+
+        private void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.writeByte((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte((int) value);
+        }
+    }
+
+    public static final class Reader {
+
+        private final DataInputStream in;
+        private final List<String> formats = new ArrayList<>();
+
+        private Reader(InputStream in) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(in));
+            if (this.in.readInt() != MAGIC) {
+                throw new IOException("Not a draft archive");
+            }
+            int version = this.in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported draft archive version " + version);
+            }
+        }
+
+        /**
+         * Returns the next draft, or null at the end of the stream.
+         */
+        public ArchivedDraft next() throws IOException {
+            while (true) {
+                int tag = in.read();
+                if (tag == END || tag < 0) {
+                    return null;
+                }
+                if (tag == FORMAT) {
+                    byte[] name = new byte[in.readUnsignedByte()];
+                    in.readFully(name);
+                    formats.add(new String(name, StandardCharsets.UTF_8));
+                } else if (tag == DRAFT) {
+                    return readDraft();
+                } else {
+                    throw new IOException("Corrupt draft archive: unknown record " + tag);
+                }
+            }
+        }
+
+        private ArchivedDraft readDraft() throws IOException {
+            long draftId = readVarLong();
+            long startedAt = readVarLong();
+            int format = in.readUnsignedByte();
+            if (format >= formats.size()) {
+                throw new IOException("Corrupt draft archive: undefined format " + format);
+            }
+            int turns = in.readUnsignedByte();
+            byte[] packed = new byte[(turns + 3) / 4];
+            in.readFully(packed);
+            byte[] heroes = new byte[turns];
+            in.readFully(heroes);
+
+            List<DraftEvent> events = new ArrayList<>(turns);
+            for (int turn = 0; turn < turns; turn++) {
+                int bits = packed[turn >>> 2] >>> ((turn & 3) * 2);
+                events.add(new DraftEvent(turn,
+                        (bits & DIRE_BIT) != 0 ? Side.DIRE : Side.RADIANT,
+                        (bits & BAN_BIT) != 0 ? DraftAction.BAN : DraftAction.PICK,
+                        Byte.toUnsignedInt(heroes[turn])));
+            }
+            return new ArchivedDraft(draftId, formats.get(format), startedAt, events);
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                int b = in.readUnsignedByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Corrupt draft archive: variable-length integer too long");
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.dotadrafter.dota2.service;
+
+import com.dotadrafter.dota2.dto.ArchivedDraft;
+import com.dotadrafter.dota2.dto.DraftEvent;
+import com.dotadrafter.dota2.dto.DraftImportResult;
+import com.dotadrafter.dota2.engine.DraftBoard;
+import com.dotadrafter.dota2.engine.TurnSchedule;
+import com.dotadrafter.dota2.repository.DraftEventLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk export and import of finished drafts in the {@link DraftArchiveCodec}
+ * format, streamed straight from and into the draft event log.
+ */
+@Service
+public class DraftArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(DraftArchiveService.class);
+
+    private final DraftEventLog draftEventLog;
+    private final DraftFormatRegistry draftFormatRegistry;
+
+    public DraftArchiveService(DraftEventLog draftEventLog, DraftFormatRegistry draftFormatRegistry) {
+        this.draftEventLog = draftEventLog;
+        this.draftFormatRegistry = draftFormatRegistry;
+    }
+
+    /**
+     * Writes every finished draft with an id of at least {@code fromDraftId}
+     * and returns how many were written. Drafts in a format that is no longer
+     * configured are skipped, since their sides are unknown, and counted in
+     * the log.
+     */
+    public long exportDrafts(long fromDraftId, OutputStream out) throws IOException {
+        long[] exported = new long[1];
+        long[] skipped = new long[1];
+        try (DraftArchiveCodec.Writer writer = DraftArchiveCodec.writer(out)) {
+            draftEventLog.forEachFinished(fromDraftId, recorded -> {
+                TurnSchedule schedule = draftFormatRegistry.find(recorded.format()).orElse(null);
+                if (schedule == null) {
+                    skipped[0]++;
+                    return;
+                }
+                try {
+                    writer.write(toArchived(recorded, schedule));
+                    exported[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (skipped[0] > 0) {
+            log.warn("Skipped {} drafts in formats that are no longer configured", skipped[0]);
+        }
+        log.info("Exported {} drafts from id {}", exported[0], fromDraftId);
+        return exported[0];
+    }
+
+    /**
+     * Logs every legal draft of the stream under new local ids. Drafts in an
+     * unknown format, or whose actions do not follow it, are skipped.
+     */
+    public DraftImportResult importDrafts(InputStream in) {
+        long imported = 0;
+        long rejected = 0;
+        try {
+            DraftArchiveCodec.Reader reader = DraftArchiveCodec.reader(in);
+            ArchivedDraft draft;
+            while ((draft = reader.next()) != null) {
+                List<DraftEventLog.RecordedAction> actions = replay(draft);
+                if (actions == null) {
+                    rejected++;
+                    continue;
+                }
+                draftEventLog.importDraft(draft.format(), draft.startedAt(), actions);
+                imported++;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Invalid draft archive: " + e.getMessage(), e);
+        }
+        log.info("Imported {} drafts, rejected {}", imported, rejected);
+        return new DraftImportResult(imported, rejected);
+    }
+
+    private static ArchivedDraft toArchived(DraftEventLog.RecordedDraft recorded, TurnSchedule schedule) {
+        List<DraftEvent> events = new ArrayList<>(recorded.actions().size());
+        for (DraftEventLog.RecordedAction action : recorded.actions()) {
+            int turn = events.size();
+            events.add(new DraftEvent(turn, schedule.side(turn), action.action(), action.heroId()));
+        }
+        return new ArchivedDraft(recorded.draftId(), recorded.format(), recorded.startedAt(), events);
+    }
+
+    // The draft's actions if it is a finished, legal draft under the local format definition
+    private List<DraftEventLog.RecordedAction> replay(ArchivedDraft draft) {
+        TurnSchedule schedule = draftFormatRegistry.find(draft.format()).orElse(null);
+        if (schedule == null || draft.events().size() != schedule.length()) {
+            return null;
+        }
+        DraftBoard board = new DraftBoard(schedule);
+        List<DraftEventLog.RecordedAction> actions = new ArrayList<>(draft.events().size());
+        for (DraftEvent event : draft.events()) {
+            if (event.side() != schedule.side(event.turn()) || !board.apply(event.action(), event.heroId()).isOk()) {
+                return null;
+            }
+            actions.add(new DraftEventLog.RecordedAction(event.action(), (int) event.heroId()));
+        }
+        return actions;
+    }
+}
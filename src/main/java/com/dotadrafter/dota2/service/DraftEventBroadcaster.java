@@ -0,0 +1,75 @@
+package com.dotadrafter.dota2.service;
+
+import com.dotadrafter.dota2.dto.DraftEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fans accepted draft actions out to any number of watchers of a draft.
+ * <p>
+ * Each live draft has one replaying sink; every watcher is just a subscriber
+ * with its own cursor, so publishing costs the same for one or thousands of
+ * watchers and late joiners receive the full action history (at most one
+ * event per turn) before live updates.
+ */
+@Component
+public class DraftEventBroadcaster {
+
+    // A draft never has more actions than this, so the replay buffer holds all of them
+    private static final int REPLAY_LIMIT = 32;
+
+    private final Map<Long, Sinks.Many<DraftEvent>> sinks = new ConcurrentHashMap<>();
+
+    public Flux<DraftEvent> stream(Long draftId) {
+        return sinkFor(draftId).asFlux();
+    }
+
+    public void publish(Long draftId, DraftEvent event) {
+        Sinks.Many<DraftEvent> sink = sinkFor(draftId);
+        synchronized (sink) {
+            sink.tryEmitNext(event);
+        }
+    }
+
+    /**
+     * Gives a draft recovered from the log or handed over by another node a
+     * stream holding the actions it already had, so watchers joining later
+     * still receive them first. A draft that already has a stream keeps it.
+     */
+    public void replay(Long draftId, List<DraftEvent> events) {
+        sinks.computeIfAbsent(draftId, id -> {
+            Sinks.Many<DraftEvent> sink = newSink();
+            events.forEach(sink::tryEmitNext);
+            return sink;
+        });
+    }
+
+    /**
+     * Ends the stream for a finished draft; current watchers receive completion.
+     */
+    public void complete(Long draftId) {
+        Sinks.Many<DraftEvent> sink = sinks.remove(draftId);
+        if (sink != null) {
+            synchronized (sink) {
+                sink.tryEmitComplete();
+            }
+        }
+    }
+
+    public int activeStreams() {
+        return sinks.size();
+    }
+
+    private Sinks.Many<DraftEvent> sinkFor(Long draftId) {
+        return sinks.computeIfAbsent(draftId, id -> newSink());
+    }
+
+    private static Sinks.Many<DraftEvent> newSink() {
+        return Sinks.many().replay().limit(REPLAY_LIMIT);
+    }
+}
@@ -0,0 +1,16 @@
+package com.dotadrafter.dota2.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The draft existed but was abandoned after sitting idle, so it can no longer
+ * be played. Its actions up to that point remain in the draft history.
+ */
+@ResponseStatus(value = HttpStatus.GONE, reason = "Draft expired")
+public class DraftExpiredException extends RuntimeException {
+
+    public DraftExpiredException() {
+        super("Draft expired");
+    }
+}
@@ -0,0 +1,56 @@
+package com.dotadrafter.dota2.service;
+
+import com.dotadrafter.dota2.config.DraftProperties;
+import com.dotadrafter.dota2.engine.TurnSchedule;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Built-in and configured draft formats by name. Custom formats come from
+ * {@code drafter.draft.formats.<name>=<spec>} and may override built-ins.
+ */
+@Component
+public class DraftFormatRegistry {
+
+    private final Map<String, TurnSchedule> schedules;
+    private final TurnSchedule defaultSchedule;
+
+    public DraftFormatRegistry(DraftProperties properties) {
+        Map<String, TurnSchedule> all = new LinkedHashMap<>();
+        for (TurnSchedule builtIn : new TurnSchedule[]{
+                TurnSchedule.CAPTAINS_MODE, TurnSchedule.ALL_PICK, TurnSchedule.LEGACY}) {
+            all.put(builtIn.getName(), builtIn);
+        }
+        properties.getFormats().forEach((name, spec) -> all.put(name, TurnSchedule.parse(name, spec)));
+        this.schedules = Collections.unmodifiableMap(all);
+        this.defaultSchedule = get(properties.getDefaultFormat());
+    }
+
+    public TurnSchedule get(String name) {
+        if (name == null) {
+            return defaultSchedule;
+        }
+        return find(name).orElseThrow(() -> new RuntimeException("Unknown draft format: " + name));
+    }
+
+    /**
+     * The format by that name, if it is built in or still configured. Logged
+     * drafts may name a custom format that has since been removed.
+     */
+    public Optional<TurnSchedule> find(String name) {
+        return Optional.ofNullable(schedules.get(name));
+    }
+
+    public TurnSchedule getDefault() {
+        return defaultSchedule;
+    }
+
+    public Set<String> names() {
+        return schedules.keySet();
+    }
+}
@@ -0,0 +1,32 @@
+package com.dotadrafter.dota2.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks that serialize actions per draft id. Actions on one draft are
+ * applied strictly one after another, while drafts on different stripes
+ * proceed in parallel without any global lock.
+ */
+@Component
+public class DraftLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public DraftLocks(@Value("${drafter.draft.lock-stripes:256}") int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public ReentrantLock forDraft(Long draftId) {
+        long h = draftId * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h ^ (h >>> 32)) & mask];
+    }
+}
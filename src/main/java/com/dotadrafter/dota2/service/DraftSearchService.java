@@ -0,0 +1,55 @@
+package com.dotadrafter.dota2.service;
+
+import com.dotadrafter.dota2.dto.DraftAnalysis;
+import com.dotadrafter.dota2.dto.DraftEvent;
+import com.dotadrafter.dota2.engine.DraftBoard;
+import com.dotadrafter.dota2.engine.DraftSearch;
+import com.dotadrafter.dota2.engine.SearchResult;
+import com.dotadrafter.dota2.engine.TurnSchedule;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class DraftSearchService {
+
+    private final DraftService draftService;
+    private final RecommendationService recommendationService;
+    private final ForkJoinPool draftSearchPool;
+    private final int beamWidth;
+    private final long maxBudgetMillis;
+
+    public DraftSearchService(DraftService draftService, RecommendationService recommendationService,
+                              @Qualifier("draftSearchPool") ForkJoinPool draftSearchPool,
+                              @Value("${drafter.search.beam-width:6}") int beamWidth,
+                              @Value("${drafter.search.max-budget-ms:2000}") long maxBudgetMillis) {
+        this.draftService = draftService;
+        this.recommendationService = recommendationService;
+        this.draftSearchPool = draftSearchPool;
+        this.beamWidth = beamWidth;
+        this.maxBudgetMillis = maxBudgetMillis;
+    }
+
+    public DraftAnalysis analyze(Long draftId, int maxDepth, long budgetMillis) {
+        DraftBoard board = draftService.snapshotBoard(draftId);
+        long budget = Math.max(1, Math.min(budgetMillis, maxBudgetMillis));
+
+        DraftSearch search = new DraftSearch(recommendationService.currentScorer(), draftSearchPool, beamWidth);
+        SearchResult result = search.search(board, maxDepth, TimeUnit.MILLISECONDS.toNanos(budget));
+
+        TurnSchedule schedule = board.getSchedule();
+        int[] heroes = result.getLine();
+        List<DraftEvent> line = new ArrayList<>(heroes.length);
+        for (int i = 0; i < heroes.length; i++) {
+            int turn = board.getTurnIndex() + i;
+            line.add(new DraftEvent(turn, schedule.side(turn), schedule.action(turn), heroes[i]));
+        }
+        return new DraftAnalysis(result.getValue(), result.getDepth(), result.getNodes(), result.isTimedOut(),
+                TimeUnit.NANOSECONDS.toMillis(result.getElapsedNanos()), line);
+    }
+}
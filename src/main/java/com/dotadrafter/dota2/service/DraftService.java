@@ -1,118 +1,648 @@
 package com.dotadrafter.dota2.service;
 
+import com.dotadrafter.dota2.config.DraftProperties;
+import com.dotadrafter.dota2.dto.ArchivedDraft;
+import com.dotadrafter.dota2.dto.DraftActionRequest;
+import com.dotadrafter.dota2.dto.DraftBatchResult;
+import com.dotadrafter.dota2.dto.DraftEvent;
+import com.dotadrafter.dota2.engine.ActionOutcome;
+import com.dotadrafter.dota2.engine.DraftAction;
+import com.dotadrafter.dota2.engine.DraftBoard;
+import com.dotadrafter.dota2.engine.Side;
+import com.dotadrafter.dota2.engine.TurnSchedule;
 import com.dotadrafter.dota2.model.DraftState;
 import com.dotadrafter.dota2.model.Hero;
-import com.dotadrafter.dota2.repository.DraftRepository;
-import com.dotadrafter.dota2.repository.HeroRepository;
+import com.dotadrafter.dota2.repository.DraftEventLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Service
 public class DraftService {
 
-    private final DraftRepository draftRepository;
-    private final HeroRepository heroRepository;
+    // Rounds of re-sending drafts that changed while a hand-off was in flight
+    private static final int HANDOFF_ATTEMPTS = 3;
+
+    private final DraftEventLog draftEventLog;
+    private final HeroCatalogService heroCatalogService;
+    private final DraftEventBroadcaster draftEventBroadcaster;
+    private final DraftFormatRegistry draftFormatRegistry;
+    private final DraftLocks draftLocks;
+    private final DraftStatistics draftStatistics;
+
+    // Drafts in progress are validated and mutated in memory; every accepted
+    // action is appended to the draft event log before it is applied. The store
+    // is bounded: idle drafts are abandoned, finished ones dropped after a
+    // grace period, and the least recently used make room beyond max-live.
+    private final Map<Long, LiveDraft> liveDrafts = new ConcurrentHashMap<>();
+    private final int maxLive;
+    private final long idleTtlNanos;
+    private final long completedTtlNanos;
+    private final ReentrantLock capacityEviction = new ReentrantLock();
+
+    // Meters are registered up front so the action path only records into them
+    private final Timer[][] actionTimers = new Timer[DraftAction.values().length][ActionResult.values().length];
+    private final Counter draftsStarted;
+    private final Counter liveDraftHits;
+    private final Counter liveDraftMisses;
+    private final Counter[] evictions = new Counter[EvictionReason.values().length];
+    private final Timer batchesApplied;
+    private final Timer batchesRejected;
+    private final Timer batchesFailed;
+
+    public DraftService(DraftEventLog draftEventLog, HeroCatalogService heroCatalogService,
+                        DraftEventBroadcaster draftEventBroadcaster, DraftFormatRegistry draftFormatRegistry,
+                        DraftLocks draftLocks, DraftStatistics draftStatistics, DraftProperties draftProperties,
+                        MeterRegistry meterRegistry) {
+        this.draftEventLog = draftEventLog;
+        this.heroCatalogService = heroCatalogService;
+        this.draftEventBroadcaster = draftEventBroadcaster;
+        this.draftFormatRegistry = draftFormatRegistry;
+        this.draftLocks = draftLocks;
+        this.draftStatistics = draftStatistics;
+        this.maxLive = Math.max(1, draftProperties.getMaxLive());
+        this.idleTtlNanos = draftProperties.getIdleTtl().toNanos();
+        this.completedTtlNanos = draftProperties.getCompletedTtl().toNanos();
 
-    public DraftService(DraftRepository draftRepository, HeroRepository heroRepository) {
-        this.draftRepository = draftRepository;
-        this.heroRepository = heroRepository;
+        for (DraftAction action : DraftAction.values()) {
+            for (ActionResult result : ActionResult.values()) {
+                actionTimers[action.ordinal()][result.ordinal()] = Timer.builder("drafter.draft.actions")
+                        .description("Pick and ban requests by outcome")
+                        .tag("action", action.name().toLowerCase())
+                        .tag("outcome", result.tag)
+                        .register(meterRegistry);
+            }
+        }
+        this.draftsStarted = Counter.builder("drafter.drafts.started").register(meterRegistry);
+        this.liveDraftHits = Counter.builder("drafter.drafts.cache").tag("result", "hit").register(meterRegistry);
+        this.liveDraftMisses = Counter.builder("drafter.drafts.cache").tag("result", "miss").register(meterRegistry);
+        for (EvictionReason reason : EvictionReason.values()) {
+            evictions[reason.ordinal()] = Counter.builder("drafter.drafts.evicted")
+                    .tag("reason", reason.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        this.batchesApplied = batchTimer(meterRegistry, "ok");
+        this.batchesRejected = batchTimer(meterRegistry, "rejected");
+        this.batchesFailed = batchTimer(meterRegistry, "error");
+        Gauge.builder("drafter.drafts.active", liveDrafts, Map::size)
+                .description("Drafts held in memory, in progress or recently finished")
+                .register(meterRegistry);
+        Gauge.builder("drafter.drafts.capacity", () -> maxLive)
+                .description("Most drafts held in memory")
+                .register(meterRegistry);
+        Gauge.builder("drafter.draft-log.open", draftEventLog, DraftEventLog::openDraftCount)
+                .description("Drafts in progress tracked (and snapshotted) by the draft event log")
+                .register(meterRegistry);
     }
 
     public DraftState startNewDraft() {
+        return startNewDraft(null);
+    }
+
+    /**
+     * Starts a draft following the named format, or the configured default
+     * format when {@code format} is null.
+     */
+    public DraftState startNewDraft(String format) {
+        TurnSchedule schedule = draftFormatRegistry.get(format);
+        DraftBoard board = new DraftBoard(schedule);
+        if (liveDrafts.size() >= maxLive) {
+            evictLeastRecentlyUsed();
+        }
+
         DraftState draft = new DraftState();
-        draft.setRadiantTurn(true);
-        draft.setPickPhase(false);
-        return draftRepository.save(draft);
+        draft.setId(draftEventLog.startDraft(schedule.getName(), schedule.length()));
+        draft.setFormat(schedule.getName());
+        LiveDraft live = new LiveDraft(board, draft);
+        liveDrafts.put(draft.getId(), live);
+        draftStatistics.recordDraftStarted();
+        draftsStarted.increment();
+        return live.snapshotState(this::heroOf);
+    }
+
+    /**
+     * Starts a draft with its first actions applied, stopping at the first one
+     * the rules reject. The batch is validated before anything is written, and
+     * the start and the accepted actions reach the event log in one append, so
+     * no other request can act on the draft in between.
+     */
+    public DraftBatchResult startDraftWithActions(String format, List<DraftActionRequest> actions) {
+        long start = System.nanoTime();
+        Timer timer = batchesFailed;
+        try {
+            TurnSchedule schedule = draftFormatRegistry.get(format);
+            DraftBoard board = new DraftBoard(schedule);
+            Batch batch = validate(board, actions);
+            if (liveDrafts.size() >= maxLive) {
+                evictLeastRecentlyUsed();
+            }
+
+            long draftId = draftEventLog.startDraft(schedule.getName(), schedule.length(), batch.accepted());
+            draftStatistics.recordDraftStarted();
+            draftsStarted.increment();
+            Lock lock = draftLocks.forDraft(draftId);
+            lock.lock();
+            try {
+                // A request for the new id may have loaded it from the log already, events included
+                LiveDraft live = liveDrafts.get(draftId);
+                if (live == null) {
+                    DraftState draft = new DraftState();
+                    draft.setId(draftId);
+                    draft.setFormat(schedule.getName());
+                    live = new LiveDraft(new DraftBoard(schedule), draft);
+                    liveDrafts.put(draftId, live);
+                    applyAccepted(draftId, live, batch.accepted());
+                }
+                timer = batch.rejectedIndex() == null ? batchesApplied : batchesRejected;
+                return new DraftBatchResult(live.snapshotState(this::heroOf), batch.accepted().size(),
+                        batch.rejectedIndex(), batch.rejectedReason());
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     public DraftState pickHero(Long draftId, Long heroId) {
-        DraftState draft = draftRepository.findById(draftId)
-                .orElseThrow(() -> new RuntimeException("Draft not found"));
+        return applyAction(draftId, heroId, DraftAction.PICK);
+    }
+
+    public DraftState banHero(Long draftId, Long heroId) {
+        return applyAction(draftId, heroId, DraftAction.BAN);
+    }
 
-        Hero hero = heroRepository.findById(heroId)
-                .orElseThrow(() -> new RuntimeException("Hero not found"));
+    /**
+     * Applies actions to a draft in order, stopping at the first one the rules
+     * reject; the actions before it stay applied. The whole batch runs under
+     * the draft's lock, so no other action interleaves, is validated before
+     * anything is written, and reaches the event log in one append.
+     */
+    public DraftBatchResult applyActions(Long draftId, List<DraftActionRequest> actions) {
+        long start = System.nanoTime();
+        Timer timer = batchesFailed;
+        Lock lock = draftLocks.forDraft(draftId);
+        lock.lock();
+        try {
+            LiveDraft live = getLiveDraft(draftId);
 
-        // Validate it's pick phase
-        if (!draft.isPickPhase()) {
-            throw new RuntimeException("Not in pick phase");
+            // Validated on a copy first: the live draft only changes once the log has accepted the batch
+            int firstTurn = live.getBoard().getTurnIndex();
+            Batch batch = validate(live.getBoard().copy(), actions);
+            if (!batch.accepted().isEmpty()) {
+                try {
+                    draftEventLog.appendAll(draftId, firstTurn, batch.accepted());
+                } catch (IllegalStateException e) {
+                    throw new RuntimeException("Draft was modified concurrently", e);
+                }
+                applyAccepted(draftId, live, batch.accepted());
+            }
+            timer = batch.rejectedIndex() == null ? batchesApplied : batchesRejected;
+            return new DraftBatchResult(live.snapshotState(this::heroOf), batch.accepted().size(),
+                    batch.rejectedIndex(), batch.rejectedReason());
+        } finally {
+            lock.unlock();
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
+    }
 
-        // Check if hero already picked or banned
-        if (isHeroInDraft(draft, heroId)) {
-            throw new RuntimeException("Hero already picked or banned");
+    // Applies actions to board up to the first one that is rejected
+    private Batch validate(DraftBoard board, List<DraftActionRequest> actions) {
+        List<DraftEventLog.RecordedAction> accepted = new ArrayList<>(actions.size());
+        for (int i = 0; i < actions.size(); i++) {
+            DraftActionRequest request = actions.get(i);
+            boolean known = heroCatalogService.findById(request.heroId()).isPresent();
+            String reason = request.action() == null ? "Action must be PICK or BAN"
+                    : !known ? ActionOutcome.INVALID_HERO.getMessage()
+                    : rejection(board.apply(request.action(), request.heroId()));
+            if (reason != null) {
+                return new Batch(accepted, i, reason);
+            }
+            accepted.add(new DraftEventLog.RecordedAction(request.action(), (int) request.heroId()));
         }
+        return new Batch(accepted, null, null);
+    }
 
-        // Add to appropriate team
-        if (draft.isRadiantTurn()) {
-            draft.getRadiantPicks().add(hero);
-        } else {
-            draft.getDirePicks().add(hero);
+    // Applies logged actions to the live draft and announces them
+    private void applyAccepted(Long draftId, LiveDraft live, List<DraftEventLog.RecordedAction> accepted) {
+        for (DraftEventLog.RecordedAction action : accepted) {
+            DraftEvent event = new DraftEvent(live.getBoard().getTurnIndex(),
+                    Side.of(live.getBoard().isRadiantTurn()), action.action(), action.heroId());
+            live.apply(action.action(), action.heroId());
+            draftEventBroadcaster.publish(draftId, event);
+            draftStatistics.record(live.getBoard().getSchedule(), event);
         }
+        if (live.getState().isComplete()) {
+            draftEventBroadcaster.complete(draftId);
+        }
+    }
 
-        advanceTurn(draft);
-        return draftRepository.save(draft);
+    private record Batch(List<DraftEventLog.RecordedAction> accepted, Integer rejectedIndex, String rejectedReason) {
     }
 
-    public DraftState banHero(Long draftId, Long heroId) {
-        DraftState draft = draftRepository.findById(draftId)
+    /**
+     * Returns a private copy of the draft's board for read-only analysis.
+     */
+    public DraftBoard snapshotBoard(Long draftId) {
+        Lock lock = draftLocks.forDraft(draftId);
+        lock.lock();
+        try {
+            return getLiveDraft(draftId).getBoard().copy();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Streams every accepted action of a draft, starting with those already made.
+     * Finished drafts yield an empty stream.
+     */
+    public Flux<DraftEvent> streamEvents(Long draftId) {
+        // Under the draft's lock, so the final action cannot complete and remove the
+        // stream between the check and taking it, which would leave a stream never completed
+        Lock lock = draftLocks.forDraft(draftId);
+        lock.lock();
+        try {
+            if (getLiveDraft(draftId).getState().isComplete()) {
+                return Flux.empty();
+            }
+            return draftEventBroadcaster.stream(draftId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private DraftState applyAction(Long draftId, Long heroId, DraftAction action) {
+        long start = System.nanoTime();
+        ActionResult result = ActionResult.NOT_FOUND;
+        // Serialize actions per draft so simultaneous clicks cannot both land on one turn
+        Lock lock = draftLocks.forDraft(draftId);
+        lock.lock();
+        try {
+            LiveDraft live;
+            try {
+                live = getLiveDraft(draftId);
+            } catch (DraftExpiredException e) {
+                result = ActionResult.EXPIRED;
+                throw e;
+            }
+
+            Hero hero = heroCatalogService.findById(heroId)
+                    .orElseThrow(() -> new RuntimeException("Hero not found"));
+
+            result = ActionResult.ERROR;
+            int turn = live.getBoard().getTurnIndex();
+            Side side = Side.of(live.getBoard().isRadiantTurn());
+            ActionOutcome outcome = live.getBoard().validate(action, heroId);
+            if (!outcome.isOk()) {
+                result = ActionResult.of(outcome);
+                throw new RuntimeException(outcome.getMessage());
+            }
+            // Write-ahead: the action only takes effect once the log has accepted it
+            try {
+                draftEventLog.append(draftId, turn, action, heroId.intValue());
+            } catch (IllegalStateException e) {
+                result = ActionResult.CONFLICT;
+                throw new RuntimeException("Draft was modified concurrently", e);
+            }
+            live.apply(action, heroId);
+            DraftEvent event = new DraftEvent(turn, side, action, heroId);
+            draftEventBroadcaster.publish(draftId, event);
+            draftStatistics.record(live.getBoard().getSchedule(), event);
+
+            if (live.getState().isComplete()) {
+                // Finished drafts stay in memory for completed-ttl; the log keeps them for replay
+                draftEventBroadcaster.complete(draftId);
+            }
+            result = ActionResult.OK;
+            return live.snapshotState(this::heroOf);
+        } finally {
+            lock.unlock();
+            actionTimers[action.ordinal()][result.ordinal()].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Every action of a draft in the order it was made, replayed from the log.
+     * The sides are left out for a draft whose format is no longer configured.
+     */
+    public List<DraftEvent> history(Long draftId) {
+        DraftEventLog.RecordedDraft recorded = draftEventLog.read(draftId)
                 .orElseThrow(() -> new RuntimeException("Draft not found"));
+        return events(recorded);
+    }
 
-        Hero hero = heroRepository.findById(heroId)
-                .orElseThrow(() -> new RuntimeException("Hero not found"));
+    /**
+     * Ids of the drafts in progress on this node, in memory or only in the log.
+     */
+    public List<Long> openDraftIds() {
+        return draftEventLog.openDraftsStartedBefore(Long.MAX_VALUE);
+    }
+
+    /**
+     * Moves drafts in progress to another node. The drafts are copied under
+     * their locks, but {@code transfer} delivers the copies without holding
+     * them, so a slow node does not stall play. Afterwards a draft that is
+     * still at the copied turn is closed here and its event stream ends; one
+     * that moved on meanwhile is sent again, with its newer actions, a few
+     * times at most. If {@code transfer} throws, the drafts not yet confirmed
+     * stay here. Returns how many drafts were moved.
+     */
+    public int handOff(List<Long> draftIds, Consumer<List<ArchivedDraft>> transfer) {
+        int moved = 0;
+        List<Long> pending = draftIds;
+        for (int attempt = 0; attempt < HANDOFF_ATTEMPTS && !pending.isEmpty(); attempt++) {
+            boolean retry = attempt > 0;
+            List<Long> ids = pending;
+            List<ArchivedDraft> drafts = withLocks(ids, () -> {
+                List<ArchivedDraft> copies = new ArrayList<>(ids.size());
+                for (Long draftId : ids) {
+                    // A draft that finished since the first copy is sent once more so the new owner finishes it too;
+                    // one in a format no longer configured stays, as no node could replay it
+                    draftEventLog.read(draftId)
+                            .filter(recorded -> !recorded.abandoned() && (retry || !recorded.isComplete()))
+                            .filter(recorded -> draftFormatRegistry.find(recorded.format()).isPresent())
+                            .ifPresent(recorded -> copies.add(new ArchivedDraft(recorded.draftId(),
+                                    recorded.format(), recorded.startedAt(), events(recorded))));
+                }
+                return copies;
+            });
+            if (drafts.isEmpty()) {
+                break;
+            }
+
+            transfer.accept(drafts);
 
-        // Validate it's ban phase
-        if (draft.isPickPhase()) {
-            throw new RuntimeException("Not in ban phase");
+            List<Long> changed = new ArrayList<>();
+            moved += withLocks(drafts.stream().map(ArchivedDraft::draftId).toList(), () -> {
+                int confirmed = 0;
+                for (ArchivedDraft draft : drafts) {
+                    DraftEventLog.RecordedDraft current = draftEventLog.read(draft.draftId()).orElse(null);
+                    if (current == null || current.abandoned()) {
+                        continue;
+                    }
+                    if (current.actions().size() != draft.events().size()) {
+                        changed.add(draft.draftId());
+                        continue;
+                    }
+                    if (!current.isComplete()) {
+                        draftEventLog.abandon(draft.draftId());
+                        liveDrafts.remove(draft.draftId());
+                        draftEventBroadcaster.complete(draft.draftId());
+                    }
+                    confirmed++;
+                }
+                return confirmed;
+            });
+            pending = changed;
         }
+        return moved;
+    }
 
-        // Check if hero already picked or banned
-        if (isHeroInDraft(draft, heroId)) {
-            throw new RuntimeException("Hero already picked or banned");
+    private <T> T withLocks(List<Long> draftIds, Supplier<T> action) {
+        List<ReentrantLock> locks = draftIds.stream().map(draftLocks::forDraft).distinct().toList();
+        locks.forEach(Lock::lock);
+        try {
+            return action.get();
+        } finally {
+            locks.forEach(Lock::unlock);
         }
+    }
 
-        // Add to appropriate team's bans
-        if (draft.isRadiantTurn()) {
-            draft.getRadiantBans().add(hero);
-        } else {
-            draft.getDireBans().add(hero);
+    /**
+     * Takes over a draft in progress handed off by another node, under its
+     * existing id. Drafts that break their format's rules are refused; a draft
+     * already in progress here only takes the actions it is missing.
+     */
+    public void adopt(ArchivedDraft draft) {
+        TurnSchedule schedule = draftFormatRegistry.get(draft.format());
+        List<DraftEventLog.RecordedAction> actions = draft.events().stream()
+                .map(event -> new DraftEventLog.RecordedAction(event.action(), (int) event.heroId()))
+                .toList();
+        DraftEventLog.RecordedDraft recorded = new DraftEventLog.RecordedDraft(draft.draftId(), schedule.getName(),
+                draft.startedAt(), schedule.length(), actions, false);
+        if (liveDrafts.size() >= maxLive) {
+            evictLeastRecentlyUsed();
         }
 
-        advanceTurn(draft);
-        return draftRepository.save(draft);
+        Lock lock = draftLocks.forDraft(draft.draftId());
+        lock.lock();
+        try {
+            LiveDraft live = LiveDraft.replay(recorded, schedule);
+            if (!draftEventLog.adoptDraft(draft.draftId(), schedule.getName(), draft.startedAt(), schedule.length(),
+                    actions)) {
+                // Already adopted: the sender is retrying, possibly with actions taken since its first attempt
+                catchUp(draft, actions);
+                return;
+            }
+            // Held in memory so the idle sweep counts from now, not from when the draft started
+            liveDrafts.put(draft.draftId(), live);
+            draftEventBroadcaster.replay(draft.draftId(), draft.events());
+        } finally {
+            lock.unlock();
+        }
     }
 
-    private boolean isHeroInDraft(DraftState draft, Long heroId) {
-        return draft.getRadiantPicks().stream().anyMatch(h -> h.getId().equals(heroId))
-                || draft.getDirePicks().stream().anyMatch(h -> h.getId().equals(heroId))
-                || draft.getRadiantBans().stream().anyMatch(h -> h.getId().equals(heroId))
-                || draft.getDireBans().stream().anyMatch(h -> h.getId().equals(heroId));
+    // Applies the actions a draft adopted earlier is missing, if its own actions come first
+    private void catchUp(ArchivedDraft draft, List<DraftEventLog.RecordedAction> actions) {
+        LiveDraft live = getLiveDraft(draft.draftId());
+        int turn = live.getBoard().getTurnIndex();
+        List<DraftEventLog.RecordedAction> known = draftEventLog.read(draft.draftId())
+                .map(DraftEventLog.RecordedDraft::actions)
+                .orElse(List.of());
+        if (actions.size() <= turn || !actions.subList(0, turn).equals(known)) {
+            return;
+        }
+        draftEventLog.appendAll(draft.draftId(), turn, actions.subList(turn, actions.size()));
+        for (int i = turn; i < actions.size(); i++) {
+            live.apply(actions.get(i).action(), actions.get(i).heroId());
+            draftEventBroadcaster.publish(draft.draftId(), draft.events().get(i));
+        }
+        if (live.getState().isComplete()) {
+            draftEventBroadcaster.complete(draft.draftId());
+        }
     }
 
-    private void advanceTurn(DraftState draft) {
-        int turnIndex = draft.getCurrentTurnIndex();
-        turnIndex++;
-        draft.setCurrentTurnIndex(turnIndex);
+    // A hero no longer (or not yet) in the catalog is shown by its id alone
+    private Hero heroOf(long heroId) {
+        return heroCatalogService.current().findById(heroId).orElseGet(() -> {
+            Hero unknown = new Hero();
+            unknown.setId(heroId);
+            return unknown;
+        });
+    }
 
-        // Dota 2 Captain's Mode draft order:
-        // Ban phase 1: 1-1-1-1-1-1 (6 bans)
-        // Pick phase 1: 1-2-2-1 (6 picks)
-        // Ban phase 2: 1-1-1-1 (4 bans)
-        // Pick phase 2: 2-2-1 (5 picks total, one more pick)
-        // Final pick: 1 (total 10 picks, 10 bans)
+    private static String rejection(ActionOutcome outcome) {
+        return outcome.isOk() ? null : outcome.getMessage();
+    }
+
+    private static Timer batchTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("drafter.draft.batches")
+                .description("Batches of draft actions by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 
-        // Simplified version: alternate turns, switch to pick after 4 bans
-        if (turnIndex >= 4 && !draft.isPickPhase()) {
-            draft.setPickPhase(true);
+    private List<DraftEvent> events(DraftEventLog.RecordedDraft recorded) {
+        TurnSchedule schedule = draftFormatRegistry.find(recorded.format()).orElse(null);
+        List<DraftEvent> events = new ArrayList<>(recorded.actions().size());
+        for (DraftEventLog.RecordedAction action : recorded.actions()) {
+            int turn = events.size();
+            Side side = schedule != null ? schedule.side(turn) : null;
+            events.add(new DraftEvent(turn, side, action.action(), action.heroId()));
         }
+        return events;
+    }
 
-        // Check if draft is complete (5 picks + 2 bans per team)
-        int totalPicks = draft.getRadiantPicks().size() + draft.getDirePicks().size();
-        int totalBans = draft.getRadiantBans().size() + draft.getDireBans().size();
+    /**
+     * Evicts drafts that have not been used within their TTL. Drafts in progress
+     * are abandoned in the log and answer "Draft expired" from then on;
+     * finished drafts are only dropped from memory.
+     */
+    @Scheduled(fixedDelayString = "${drafter.draft.sweep-interval:PT30S}")
+    public void evictExpiredDrafts() {
+        long now = System.nanoTime();
+        liveDrafts.forEach((draftId, live) -> {
+            long lastAccess = live.getLastAccess();
+            boolean complete = live.getState().isComplete();
+            if (now - lastAccess > (complete ? completedTtlNanos : idleTtlNanos)) {
+                evict(draftId, live, lastAccess, complete ? EvictionReason.COMPLETED : EvictionReason.IDLE);
+            }
+        });
 
-        if (totalPicks >= 10 || (totalPicks >= 6 && totalBans >= 8)) {
-            draft.setComplete(true);
+        // Drafts recovered from the log after a restart and never loaded since
+        long cutoff = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(idleTtlNanos);
+        for (long draftId : draftEventLog.openDraftsStartedBefore(cutoff)) {
+            if (!liveDrafts.containsKey(draftId)) {
+                evict(draftId, null, 0, EvictionReason.IDLE);
+            }
         }
+    }
+
+    // Frees a batch of the least recently used drafts once the store is full
+    private void evictLeastRecentlyUsed() {
+        if (!capacityEviction.tryLock()) {
+            return;
+        }
+        try {
+            if (liveDrafts.size() < maxLive) {
+                return;
+            }
+            record Candidate(Long draftId, LiveDraft live, long lastAccess) {
+            }
+            int batch = Math.max(1, maxLive / 100);
+            PriorityQueue<Candidate> oldest = new PriorityQueue<>(
+                    Comparator.comparingLong(Candidate::lastAccess).reversed());
+            liveDrafts.forEach((draftId, live) -> {
+                oldest.add(new Candidate(draftId, live, live.getLastAccess()));
+                if (oldest.size() > batch) {
+                    oldest.poll();
+                }
+            });
+            for (Candidate candidate : oldest) {
+                evict(candidate.draftId(), candidate.live(), candidate.lastAccess(), EvictionReason.CAPACITY);
+            }
+        } finally {
+            capacityEviction.unlock();
+        }
+    }
 
-        // Toggle turn
-        draft.setRadiantTurn(!draft.isRadiantTurn());
+    // Evicts the draft unless it is busy or was used since it was chosen
+    private void evict(Long draftId, LiveDraft expected, long lastAccess, EvictionReason reason) {
+        Lock lock = draftLocks.forDraft(draftId);
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            LiveDraft live = liveDrafts.get(draftId);
+            if (live != expected || (live != null && live.getLastAccess() != lastAccess)) {
+                return;
+            }
+            if (live != null) {
+                liveDrafts.remove(draftId);
+            }
+            if (live == null || !live.getState().isComplete()) {
+                draftEventLog.abandon(draftId);
+                draftEventBroadcaster.complete(draftId);
+            }
+            evictions[reason.ordinal()].increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Callers hold the draft's lock, so no other thread loads the same draft meanwhile
+    private LiveDraft getLiveDraft(Long draftId) {
+        LiveDraft live = liveDrafts.get(draftId);
+        if (live != null) {
+            liveDraftHits.increment();
+            live.touch();
+            return live;
+        }
+        liveDraftMisses.increment();
+        if (draftEventLog.isAbandoned(draftId)) {
+            throw new DraftExpiredException();
+        }
+        DraftEventLog.RecordedDraft recorded = draftEventLog.read(draftId)
+                .orElseThrow(() -> new RuntimeException("Draft not found"));
+        if (recorded.abandoned()) {
+            throw new DraftExpiredException();
+        }
+        TurnSchedule schedule = draftFormatRegistry.find(recorded.format())
+                .orElseThrow(() -> new RuntimeException("Draft format " + recorded.format() + " is no longer configured"));
+        LiveDraft replayed = LiveDraft.replay(recorded, schedule);
+        if (!replayed.getState().isComplete()) {
+            draftEventBroadcaster.replay(draftId, events(recorded));
+        }
+        liveDrafts.put(draftId, replayed);
+        return replayed;
+    }
+
+    private enum EvictionReason {
+        IDLE, COMPLETED, CAPACITY
+    }
+
+    // Outcome tag of the drafter.draft.actions timer
+    private enum ActionResult {
+        OK("ok"),
+        WRONG_PHASE("wrong_phase"),
+        HERO_TAKEN("hero_taken"),
+        DRAFT_COMPLETE("draft_complete"),
+        NOT_FOUND("not_found"),
+        EXPIRED("expired"),
+        CONFLICT("conflict"),
+        ERROR("error");
+
+        private final String tag;
+
+        ActionResult(String tag) {
+            this.tag = tag;
+        }
+
+        static ActionResult of(ActionOutcome outcome) {
+            return switch (outcome) {
+                case OK -> OK;
+                case WRONG_PHASE_PICK, WRONG_PHASE_BAN -> WRONG_PHASE;
+                case HERO_TAKEN -> HERO_TAKEN;
+                case DRAFT_COMPLETE -> DRAFT_COMPLETE;
+                case INVALID_HERO -> NOT_FOUND;
+            };
+        }
     }
 }
@@ -0,0 +1,209 @@
+package com.dotadrafter.dota2.service;
+
+import com.dotadrafter.dota2.dto.DraftEvent;
+import com.dotadrafter.dota2.dto.DraftStatsReport;
+import com.dotadrafter.dota2.dto.DraftStatsReport.HeroDraftStats;
+import com.dotadrafter.dota2.engine.DraftAction;
+import com.dotadrafter.dota2.engine.DraftBoard;
+import com.dotadrafter.dota2.engine.Side;
+import com.dotadrafter.dota2.engine.TurnSchedule;
+import com.dotadrafter.dota2.model.Hero;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Incremental pick/ban counters fed by every accepted draft action.
+ * <p>
+ * Counters are indexed by phase, side, action and hero id. All-time totals are
+ * {@link LongAdder}s so concurrent drafts never contend; the rolling window is
+ * a ring of one-minute buckets that is recycled lock-free as time moves on.
+ * Queries sum the counters, so nothing ever scans stored drafts.
+ */
+@Component
+public class DraftStatistics {
+
+    public enum Metric {
+        PICK, BAN, CONTEST
+    }
+
+    private static final long BUCKET_MILLIS = 60_000;
+    private static final int HEROES = DraftBoard.HERO_ID_LIMIT;
+
+    // Counter blocks per phase and hero: radiant pick, dire pick, radiant ban, dire ban
+    private static final int RADIANT_PICK = 0;
+    private static final int DIRE_PICK = 1;
+    private static final int RADIANT_BAN = 2;
+    private static final int DIRE_BAN = 3;
+    private static final int SLOTS = 4;
+
+    // Ban and pick phases counted apart; any further phases of a custom schedule count towards the last
+    public static final int PHASES = 3;
+
+    private final HeroCatalogService heroCatalogService;
+    private final int windowMinutes;
+
+    private final LongAdder drafts = new LongAdder();
+    private final LongAdder[] counters = new LongAdder[PHASES * SLOTS * HEROES];
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    public DraftStatistics(HeroCatalogService heroCatalogService,
+                           @Value("${drafter.stats.window-minutes:60}") int windowMinutes) {
+        if (windowMinutes < 1) {
+            throw new IllegalArgumentException("Statistics window must be at least one minute");
+        }
+        this.heroCatalogService = heroCatalogService;
+        this.windowMinutes = windowMinutes;
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        this.buckets = new AtomicReferenceArray<>(windowMinutes);
+    }
+
+    public void recordDraftStarted() {
+        drafts.increment();
+        currentBucket().drafts.incrementAndGet();
+    }
+
+    public void record(TurnSchedule schedule, DraftEvent event) {
+        if (!DraftBoard.isValidHeroId(event.heroId())) {
+            return;
+        }
+        int phase = Math.min(schedule.phase(event.turn()), PHASES) - 1;
+        int index = index(phase, slot(event.side(), event.action()), (int) event.heroId());
+        counters[index].increment();
+        currentBucket().counts.incrementAndGet(index);
+    }
+
+    public DraftStatsReport report(Metric metric, int limit, int windowMinutes) {
+        return report(metric, limit, windowMinutes, null);
+    }
+
+    /**
+     * Top heroes by {@code metric} over the last {@code windowMinutes} minutes,
+     * or since startup when it is 0, counting only actions in the given ban or
+     * pick phase when {@code phase} is set. Rates are relative to the drafts
+     * started in the same period.
+     */
+    public DraftStatsReport report(Metric metric, int limit, int windowMinutes, Integer phase) {
+        if (windowMinutes < 0 || windowMinutes > this.windowMinutes) {
+            throw new RuntimeException("Window must be between 0 and " + this.windowMinutes + " minutes");
+        }
+        if (phase != null && (phase < 1 || phase > PHASES)) {
+            throw new RuntimeException("Phase must be between 1 and " + PHASES);
+        }
+
+        long[] counts = new long[counters.length];
+        long draftCount = 0;
+        if (windowMinutes == 0) {
+            for (int i = 0; i < counters.length; i++) {
+                counts[i] = counters[i].sum();
+            }
+            draftCount = drafts.sum();
+        } else {
+            long now = currentMinute();
+            for (int b = 0; b < buckets.length(); b++) {
+                Bucket bucket = buckets.get(b);
+                if (bucket == null || bucket.minute <= now - windowMinutes || bucket.minute > now) {
+                    continue;
+                }
+                draftCount += bucket.drafts.get();
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += bucket.counts.get(i);
+                }
+            }
+        }
+
+        double perDraft = draftCount > 0 ? 1.0 / draftCount : 0;
+        HeroCatalog catalog = heroCatalogService.current();
+        List<HeroDraftStats> heroes = new ArrayList<>();
+        for (int heroId = 1; heroId < HEROES; heroId++) {
+            long radiantPicks = 0;
+            long direPicks = 0;
+            long radiantBans = 0;
+            long direBans = 0;
+            Long[] picksByPhase = new Long[PHASES];
+            Long[] bansByPhase = new Long[PHASES];
+            for (int p = 0; p < PHASES; p++) {
+                long phaseRadiantPicks = counts[index(p, RADIANT_PICK, heroId)];
+                long phaseDirePicks = counts[index(p, DIRE_PICK, heroId)];
+                long phaseRadiantBans = counts[index(p, RADIANT_BAN, heroId)];
+                long phaseDireBans = counts[index(p, DIRE_BAN, heroId)];
+                picksByPhase[p] = phaseRadiantPicks + phaseDirePicks;
+                bansByPhase[p] = phaseRadiantBans + phaseDireBans;
+                if (phase == null || phase == p + 1) {
+                    radiantPicks += phaseRadiantPicks;
+                    direPicks += phaseDirePicks;
+                    radiantBans += phaseRadiantBans;
+                    direBans += phaseDireBans;
+                }
+            }
+            long picks = radiantPicks + direPicks;
+            long bans = radiantBans + direBans;
+            if (picks + bans == 0) {
+                continue;
+            }
+            String name = catalog.findById(heroId).map(Hero::getName).orElse(null);
+            heroes.add(new HeroDraftStats(heroId, name, radiantPicks, direPicks, radiantBans, direBans,
+                    picks * perDraft, bans * perDraft, (picks + bans) * perDraft,
+                    List.of(picksByPhase), List.of(bansByPhase)));
+        }
+
+        Comparator<HeroDraftStats> order = switch (metric) {
+            case PICK -> Comparator.comparingLong(h -> h.radiantPicks() + h.direPicks());
+            case BAN -> Comparator.comparingLong(h -> h.radiantBans() + h.direBans());
+            case CONTEST -> Comparator.comparingLong(
+                    h -> h.radiantPicks() + h.direPicks() + h.radiantBans() + h.direBans());
+        };
+        heroes.sort(order.reversed().thenComparingLong(HeroDraftStats::heroId));
+        return new DraftStatsReport(windowMinutes, phase, draftCount,
+                List.copyOf(heroes.subList(0, Math.min(Math.max(limit, 0), heroes.size()))));
+    }
+
+    private static int index(int phase, int slot, int heroId) {
+        return (phase * SLOTS + slot) * HEROES + heroId;
+    }
+
+    private static int slot(Side side, DraftAction action) {
+        if (action == DraftAction.PICK) {
+            return side == Side.RADIANT ? RADIANT_PICK : DIRE_PICK;
+        }
+        return side == Side.RADIANT ? RADIANT_BAN : DIRE_BAN;
+    }
+
+    private static long currentMinute() {
+        return System.currentTimeMillis() / BUCKET_MILLIS;
+    }
+
+    // The bucket for this minute, replacing the stale one in its ring slot if needed
+    private Bucket currentBucket() {
+        long minute = currentMinute();
+        int index = (int) (minute % buckets.length());
+        Bucket bucket = buckets.get(index);
+        while (bucket == null || bucket.minute < minute) {
+            Bucket fresh = new Bucket(minute);
+            if (buckets.compareAndSet(index, bucket, fresh)) {
+                return fresh;
+            }
+            bucket = buckets.get(index);
+        }
+        return bucket;
+    }
+
+    private static final class Bucket {
+        final long minute;
+        final AtomicLong drafts = new AtomicLong();
+        final AtomicLongArray counts = new AtomicLongArray(PHASES * SLOTS * HEROES);
+
+        Bucket(long minute) {
+            this.minute = minute;
+        }
+    }
+}
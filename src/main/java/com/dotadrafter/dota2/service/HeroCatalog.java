@@ -0,0 +1,103 @@
+package com.dotadrafter.dota2.service;
+
+import com.dotadrafter.dota2.model.Hero;
+
+import java.util.*;
+
+/**
+ * Immutable, versioned snapshot of every known hero with id and name indexes
+ * and a {@link HeroSearchIndex} for filtered queries. Heroes carry the win and
+ * pick rates of the {@link HeroMatchStats} the snapshot was built with.
+ * Heroes are detached copies sorted by id; a new snapshot is built whenever the
+ * underlying table changes and swapped in by {@link HeroCatalogService}.
+ */
+public final class HeroCatalog {
+
+    private static final HeroCatalog EMPTY = new HeroCatalog(0, List.of(), HeroMatchStats.empty());
+
+    private final long version;
+    private final List<Hero> heroes;
+    private final Hero[] byId;
+    private final Map<String, Hero> byName;
+    private final HeroSearchIndex searchIndex;
+    private final HeroMatchStats matchStats;
+
+    HeroCatalog(long version, Collection<Hero> source) {
+        this(version, source, HeroMatchStats.empty());
+    }
+
+    HeroCatalog(long version, Collection<Hero> source, HeroMatchStats matchStats) {
+        this.version = version;
+        this.matchStats = matchStats;
+
+        List<Hero> copies = new ArrayList<>(source.size());
+        long maxId = 0;
+        for (Hero hero : source) {
+            copies.add(copyOf(hero, matchStats));
+            maxId = Math.max(maxId, hero.getId());
+        }
+        copies.sort(Comparator.comparing(Hero::getId));
+        this.heroes = Collections.unmodifiableList(copies);
+
+        this.byId = new Hero[(int) maxId + 1];
+        Map<String, Hero> names = new HashMap<>(copies.size() * 2);
+        for (Hero hero : copies) {
+            byId[hero.getId().intValue()] = hero;
+            names.put(normalizeName(hero.getName()), hero);
+        }
+        this.byName = Collections.unmodifiableMap(names);
+        this.searchIndex = new HeroSearchIndex(heroes, byId.length);
+    }
+
+    public static HeroCatalog empty() {
+        return EMPTY;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Hero> getHeroes() {
+        return heroes;
+    }
+
+    public int size() {
+        return heroes.size();
+    }
+
+    public HeroSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    public HeroMatchStats getMatchStats() {
+        return matchStats;
+    }
+
+    public Optional<Hero> findById(long id) {
+        return id >= 0 && id < byId.length ? Optional.ofNullable(byId[(int) id]) : Optional.empty();
+    }
+
+    public Optional<Hero> findByName(String name) {
+        return name != null ? Optional.ofNullable(byName.get(normalizeName(name))) : Optional.empty();
+    }
+
+    static String normalizeName(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Hero copyOf(Hero hero, HeroMatchStats matchStats) {
+        int id = hero.getId().intValue();
+        boolean played = matchStats.games(id) > 0;
+        return new Hero(
+                hero.getId(),
+                hero.getName(),
+                hero.getPrimaryAttribute(),
+                hero.getRoles() != null ? List.copyOf(hero.getRoles()) : List.of(),
+                hero.getBaseStrength(),
+                hero.getBaseAgility(),
+                hero.getBaseIntelligence(),
+                hero.getImageUrl(),
+                played ? matchStats.winRate(id) : null,
+                played ? matchStats.pickRate(id) : null);
+    }
+}
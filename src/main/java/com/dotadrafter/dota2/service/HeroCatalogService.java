@@ -0,0 +1,100 @@
+package com.dotadrafter.dota2.service;
+
+import com.dotadrafter.dota2.model.Hero;
+import com.dotadrafter.dota2.repository.HeroRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Serves hero lookups from an in-memory {@link HeroCatalog} so the request path
+ * never queries the database. The catalog is loaded at startup and rebuilt
+ * after every write to the hero table, together with its pre-rendered JSON.
+ * Every catalog is built with the same {@link HeroMatchStats}, read once from
+ * the ingested match dumps.
+ */
+@Service
+public class HeroCatalogService {
+
+    private static final Logger log = LoggerFactory.getLogger(HeroCatalogService.class);
+
+    private final HeroRepository heroRepository;
+    private final ObjectMapper objectMapper;
+    private final HeroMatchStats matchStats;
+    private final Counter lookupHits;
+    private final Counter lookupMisses;
+
+    private volatile HeroCatalog catalog = HeroCatalog.empty();
+    private volatile HeroListPayload payload;
+
+    public HeroCatalogService(HeroRepository heroRepository, ObjectMapper objectMapper,
+                              HeroMatchStats matchStats, MeterRegistry meterRegistry) {
+        this.heroRepository = heroRepository;
+        this.objectMapper = objectMapper;
+        this.matchStats = matchStats;
+        this.lookupHits = Counter.builder("drafter.heroes.lookups").tag("result", "hit").register(meterRegistry);
+        this.lookupMisses = Counter.builder("drafter.heroes.lookups").tag("result", "miss").register(meterRegistry);
+        this.payload = render(catalog);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refresh();
+    }
+
+    /**
+     * Reloads the hero table (roles fetched in the same query) and atomically
+     * replaces the current catalog.
+     */
+    public HeroCatalog refresh() {
+        return publish(heroRepository.findAllWithRoles());
+    }
+
+    public synchronized HeroCatalog publish(List<Hero> heroes) {
+        HeroCatalog next = new HeroCatalog(catalog.getVersion() + 1, heroes, matchStats);
+        HeroListPayload nextPayload = render(next);
+        catalog = next;
+        payload = nextPayload;
+        log.debug("Published hero catalog v{} with {} heroes", next.getVersion(), next.size());
+        return next;
+    }
+
+    public HeroCatalog current() {
+        return catalog;
+    }
+
+    public HeroListPayload currentPayload() {
+        return payload;
+    }
+
+    public List<Hero> getAllHeroes() {
+        return catalog.getHeroes();
+    }
+
+    public Optional<Hero> findById(Long id) {
+        Optional<Hero> hero = id != null ? catalog.findById(id) : Optional.empty();
+        (hero.isPresent() ? lookupHits : lookupMisses).increment();
+        return hero;
+    }
+
+    public Optional<Hero> findByName(String name) {
+        return catalog.findByName(name);
+    }
+
+    private HeroListPayload render(HeroCatalog source) {
+        try {
+            return new HeroListPayload(source.getVersion(), objectMapper.writeValueAsBytes(source.getHeroes()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render hero list", e);
+        }
+    }
+}
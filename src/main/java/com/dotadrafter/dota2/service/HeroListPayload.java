@@ -0,0 +1,78 @@
+package com.dotadrafter.dota2.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The {@code GET /api/heroes} body rendered once per catalog version, in plain
+ * and gzip form, with strong ETags for each representation.
+ */
+public final class HeroListPayload {
+
+    private final long version;
+    private final byte[] json;
+    private final byte[] gzipJson;
+    private final String etag;
+    private final String gzipEtag;
+
+    HeroListPayload(long version, byte[] json) {
+        this.version = version;
+        this.json = json;
+        this.gzipJson = gzip(json);
+
+        CRC32 crc = new CRC32();
+        crc.update(json);
+        String tag = "heroes-" + version + "-" + Long.toHexString(crc.getValue());
+        this.etag = "\"" + tag + "\"";
+        this.gzipEtag = "\"" + tag + "-gz\"";
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    public byte[] getGzipJson() {
+        return gzipJson;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getGzipEtag() {
+        return gzipEtag;
+    }
+
+    /**
+     * Returns true if an {@code If-None-Match} header names either representation.
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,249 @@
+package com.dotadrafter.dota2.service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Win, pick and matchup counts per hero and per pair of heroes, aggregated
+ * from historical matches by {@link MatchDumpIngester}. Counts are kept in
+ * flat primitive arrays indexed by hero id, pair counts at
+ * {@code a * idLimit + b}.
+ * <p>
+ * The file is columnar: a header (magic, version, id limit, match count)
+ * followed by the pick and win columns of every hero, then the ally games,
+ * ally wins, enemy games and enemy wins columns of every pair {@code a < b}
+ * only, since the rest follows by symmetry. Hero ids up to 145 take about 170 KB.
+ */
+public final class HeroMatchStats {
+
+    private static final int MAGIC = 0x44524853; // "DRHS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+
+    private static final HeroMatchStats EMPTY = new HeroMatchStats(1);
+
+    private final int idLimit;
+    private long matches;
+    private final int[] picks;
+    private final int[] wins;
+    // Games a and b played on the same team, and how many that team won
+    private final int[] allyGames;
+    private final int[] allyWins;
+    // Games a played against b, and how many a's team won
+    private final int[] enemyGames;
+    private final int[] enemyWins;
+
+    HeroMatchStats(int idLimit) {
+        this.idLimit = idLimit;
+        this.picks = new int[idLimit];
+        this.wins = new int[idLimit];
+        this.allyGames = new int[idLimit * idLimit];
+        this.allyWins = new int[idLimit * idLimit];
+        this.enemyGames = new int[idLimit * idLimit];
+        this.enemyWins = new int[idLimit * idLimit];
+    }
+
+    public static HeroMatchStats empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Counts one match. Hero ids must be below {@link #idLimit()} and
+     * distinct; the caller validates them.
+     */
+    void record(int[] radiant, int radiantCount, int[] dire, int direCount, boolean radiantWin) {
+        matches++;
+        recordTeam(radiant, radiantCount, dire, direCount, radiantWin);
+        recordTeam(dire, direCount, radiant, radiantCount, !radiantWin);
+    }
+
+    private void recordTeam(int[] team, int teamCount, int[] enemies, int enemyCount, boolean won) {
+        int win = won ? 1 : 0;
+        for (int i = 0; i < teamCount; i++) {
+            int a = team[i];
+            int row = a * idLimit;
+            picks[a]++;
+            wins[a] += win;
+            for (int j = 0; j < teamCount; j++) {
+                if (j != i) {
+                    allyGames[row + team[j]]++;
+                    allyWins[row + team[j]] += win;
+                }
+            }
+            for (int j = 0; j < enemyCount; j++) {
+                enemyGames[row + enemies[j]]++;
+                enemyWins[row + enemies[j]] += win;
+            }
+        }
+    }
+
+    /** Adds another partial aggregate of the same id limit into this one. */
+    void add(HeroMatchStats other) {
+        if (other.idLimit != idLimit) {
+            throw new IllegalArgumentException("Stats must cover the same hero ids");
+        }
+        matches += other.matches;
+        addAll(picks, other.picks);
+        addAll(wins, other.wins);
+        addAll(allyGames, other.allyGames);
+        addAll(allyWins, other.allyWins);
+        addAll(enemyGames, other.enemyGames);
+        addAll(enemyWins, other.enemyWins);
+    }
+
+    private static void addAll(int[] target, int[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += source[i];
+        }
+    }
+
+    public boolean isEmpty() {
+        return matches == 0;
+    }
+
+    public long matches() {
+        return matches;
+    }
+
+    /** Exclusive upper bound of hero ids covered by these stats. */
+    public int idLimit() {
+        return idLimit;
+    }
+
+    public int games(int heroId) {
+        return covers(heroId) ? picks[heroId] : 0;
+    }
+
+    public double winRate(int heroId) {
+        return ratio(covers(heroId) ? wins[heroId] : 0, games(heroId));
+    }
+
+    public double pickRate(int heroId) {
+        return matches > 0 ? games(heroId) / (double) matches : 0;
+    }
+
+    public int allyGames(int a, int b) {
+        return covers(a) && covers(b) ? allyGames[a * idLimit + b] : 0;
+    }
+
+    /** Win rate of the teams that had both heroes. */
+    public double allyWinRate(int a, int b) {
+        return ratio(covers(a) && covers(b) ? allyWins[a * idLimit + b] : 0, allyGames(a, b));
+    }
+
+    public int enemyGames(int a, int b) {
+        return covers(a) && covers(b) ? enemyGames[a * idLimit + b] : 0;
+    }
+
+    /** Win rate of {@code a} in games against {@code b}. */
+    public double winRateAgainst(int a, int b) {
+        return ratio(covers(a) && covers(b) ? enemyWins[a * idLimit + b] : 0, enemyGames(a, b));
+    }
+
+    private boolean covers(int heroId) {
+        return heroId >= 0 && heroId < idLimit;
+    }
+
+    private static double ratio(int part, int total) {
+        return total > 0 ? part / (double) total : 0;
+    }
+
+    /**
+     * Writes these stats, trimmed to the highest hero id seen, to a temporary
+     * file that is then moved into place.
+     */
+    public void write(Path file) throws IOException {
+        int limit = idLimit;
+        while (limit > 1 && picks[limit - 1] == 0) {
+            limit--;
+        }
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "hero-stats", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(limit);
+            out.writeInt(0);
+            out.writeLong(matches);
+            writeColumn(out, picks, limit);
+            writeColumn(out, wins, limit);
+            writePairColumn(out, allyGames, limit);
+            writePairColumn(out, allyWins, limit);
+            writePairColumn(out, enemyGames, limit);
+            writePairColumn(out, enemyWins, limit);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeColumn(DataOutputStream out, int[] column, int limit) throws IOException {
+        for (int i = 0; i < limit; i++) {
+            out.writeInt(column[i]);
+        }
+    }
+
+    private void writePairColumn(DataOutputStream out, int[] column, int limit) throws IOException {
+        for (int a = 0; a < limit; a++) {
+            for (int b = a + 1; b < limit; b++) {
+                out.writeInt(column[a * idLimit + b]);
+            }
+        }
+    }
+
+    /** Maps a stats file and expands its columns into memory. */
+    public static HeroMatchStats read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a hero stats file: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported hero stats version " + version + " in " + file);
+            }
+            int limit = buffer.getInt();
+            buffer.getInt();
+            long matches = buffer.getLong();
+            long pairs = (long) limit * (limit - 1) / 2;
+            if (limit < 1 || buffer.remaining() != 4L * (2L * limit + 4 * pairs)) {
+                throw new IOException("Truncated hero stats file: " + file);
+            }
+
+            HeroMatchStats stats = new HeroMatchStats(limit);
+            stats.matches = matches;
+            IntBuffer columns = buffer.asIntBuffer();
+            columns.get(stats.picks);
+            columns.get(stats.wins);
+            readPairColumn(columns, stats.allyGames, limit);
+            readPairColumn(columns, stats.allyWins, limit);
+            readPairColumn(columns, stats.enemyGames, limit);
+            // b's wins against a are the games a lost
+            for (int a = 0; a < limit; a++) {
+                for (int b = a + 1; b < limit; b++) {
+                    int won = columns.get();
+                    stats.enemyWins[a * limit + b] = won;
+                    stats.enemyWins[b * limit + a] = stats.enemyGames[a * limit + b] - won;
+                }
+            }
+            return stats;
+        }
+    }
+
+    private static void readPairColumn(IntBuffer columns, int[] column, int limit) {
+        for (int a = 0; a < limit; a++) {
+            for (int b = a + 1; b < limit; b++) {
+                int value = columns.get();
+                column[a * limit + b] = value;
+                column[b * limit + a] = value;
+            }
+        }
+    }
+}
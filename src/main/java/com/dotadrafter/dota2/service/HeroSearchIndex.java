@@ -0,0 +1,148 @@
+package com.dotadrafter.dota2.service;
+
+import com.dotadrafter.dota2.model.Hero;
+import com.dotadrafter.dota2.model.HeroAttribute;
+
+import java.util.*;
+
+/**
+ * Prebuilt bitmap index over a {@link HeroCatalog} answering combined name,
+ * attribute and role queries. Every bitmap is a {@code long[]} indexed by hero
+ * id, so a query is a handful of map lookups and word-wise ANDs.
+ * <p>
+ * Names are indexed by every 1-3 character n-gram; longer queries intersect
+ * their trigrams and then confirm the substring on the few remaining heroes,
+ * which gives the same "name contains" semantics as the web client.
+ */
+public final class HeroSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private final int words;
+    private final String[] namesById;
+    private final long[] all;
+    private final Map<String, long[]> grams = new HashMap<>();
+    private final long[][] attributes = new long[HeroAttribute.values().length][];
+    private final Map<String, long[]> roles = new HashMap<>();
+
+    HeroSearchIndex(List<Hero> heroes, int idLimit) {
+        this.words = (idLimit >>> 6) + 1;
+        this.namesById = new String[idLimit];
+        this.all = new long[words];
+        for (int i = 0; i < attributes.length; i++) {
+            attributes[i] = new long[words];
+        }
+
+        for (Hero hero : heroes) {
+            int id = hero.getId().intValue();
+            String name = HeroCatalog.normalizeName(hero.getName());
+            namesById[id] = name;
+            set(all, id);
+
+            for (int length = 1; length <= GRAM; length++) {
+                for (int start = 0; start + length <= name.length(); start++) {
+                    set(grams.computeIfAbsent(name.substring(start, start + length), g -> new long[words]), id);
+                }
+            }
+            if (hero.getPrimaryAttribute() != null) {
+                set(attributes[hero.getPrimaryAttribute().ordinal()], id);
+            }
+            if (hero.getRoles() != null) {
+                for (String role : hero.getRoles()) {
+                    set(roles.computeIfAbsent(normalizeRole(role), r -> new long[words]), id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the ids, ascending, of heroes matching every supplied criterion.
+     * Null or blank criteria are ignored.
+     */
+    public long[] search(String name, HeroAttribute attribute, Collection<String> requiredRoles) {
+        long[] result = all.clone();
+
+        String query = name != null ? HeroCatalog.normalizeName(name) : "";
+        if (!query.isEmpty() && !matchName(query, result)) {
+            return new long[0];
+        }
+        if (attribute != null) {
+            and(result, attributes[attribute.ordinal()]);
+        }
+        if (requiredRoles != null) {
+            for (String role : requiredRoles) {
+                if (role == null || role.isBlank()) {
+                    continue;
+                }
+                long[] bitmap = roles.get(normalizeRole(role));
+                if (bitmap == null) {
+                    return new long[0];
+                }
+                and(result, bitmap);
+            }
+        }
+        return toIds(result);
+    }
+
+    private boolean matchName(String query, long[] result) {
+        if (query.length() <= GRAM) {
+            long[] bitmap = grams.get(query);
+            if (bitmap == null) {
+                return false;
+            }
+            and(result, bitmap);
+            return true;
+        }
+
+        for (int start = 0; start + GRAM <= query.length(); start++) {
+            long[] bitmap = grams.get(query.substring(start, start + GRAM));
+            if (bitmap == null) {
+                return false;
+            }
+            and(result, bitmap);
+        }
+        // Trigram intersection can over-match; confirm the survivors
+        for (int w = 0; w < words; w++) {
+            long bits = result[w];
+            while (bits != 0) {
+                int id = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (!namesById[id].contains(query)) {
+                    result[w] &= ~(1L << id);
+                }
+            }
+        }
+        return true;
+    }
+
+    private static String normalizeRole(String role) {
+        return role.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void set(long[] bitmap, int id) {
+        bitmap[id >>> 6] |= 1L << id;
+    }
+
+    private static void and(long[] target, long[] other) {
+        for (int w = 0; w < target.length; w++) {
+            target[w] &= other[w];
+        }
+    }
+
+    private static long[] toIds(long[] bitmap) {
+        int count = 0;
+        for (long word : bitmap) {
+            count += Long.bitCount(word);
+        }
+        long[] ids = new long[count];
+        int i = 0;
+        for (int w = 0; w < bitmap.length; w++) {
+            long bits = bitmap[w];
+            while (bits != 0) {
+                ids[i++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return ids;
+    }
+}
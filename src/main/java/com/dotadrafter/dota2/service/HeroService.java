@@ -1,57 +1,185 @@
 package com.dotadrafter.dota2.service;
 
+import com.dotadrafter.dota2.client.HeroImageCache;
 import com.dotadrafter.dota2.client.OpenDotaClient;
 import com.dotadrafter.dota2.dto.HeroStatsDto;
+import com.dotadrafter.dota2.dto.HeroSyncResult;
 import com.dotadrafter.dota2.model.Hero;
 import com.dotadrafter.dota2.model.HeroAttribute;
+import com.dotadrafter.dota2.repository.HeroBatchWriter;
 import com.dotadrafter.dota2.repository.HeroRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class HeroService {
 
+    private static final Logger log = LoggerFactory.getLogger(HeroService.class);
+
     private final HeroRepository heroRepository;
     private final OpenDotaClient openDotaClient;
+    private final HeroImageCache heroImageCache;
+    private final HeroCatalogService heroCatalogService;
+    private final HeroBatchWriter heroBatchWriter;
+
+    private final Timer syncTimer;
+    private final Counter heroesInserted;
+    private final Counter heroesUpdated;
+    private final Counter heroesUnchanged;
 
-    public HeroService(HeroRepository heroRepository, OpenDotaClient openDotaClient) {
+    public HeroService(HeroRepository heroRepository, OpenDotaClient openDotaClient, HeroImageCache heroImageCache,
+                       HeroCatalogService heroCatalogService, HeroBatchWriter heroBatchWriter,
+                       MeterRegistry meterRegistry) {
         this.heroRepository = heroRepository;
         this.openDotaClient = openDotaClient;
+        this.heroImageCache = heroImageCache;
+        this.heroCatalogService = heroCatalogService;
+        this.heroBatchWriter = heroBatchWriter;
+
+        this.syncTimer = Timer.builder("drafter.heroes.sync")
+                .description("Hero sync from OpenDota, fetch included")
+                .register(meterRegistry);
+        this.heroesInserted = syncedHeroes(meterRegistry, "inserted");
+        this.heroesUpdated = syncedHeroes(meterRegistry, "updated");
+        this.heroesUnchanged = syncedHeroes(meterRegistry, "unchanged");
+        Gauge.builder("drafter.heroes.catalog.size", heroCatalogService, catalog -> catalog.current().size())
+                .description("Heroes in the published catalog")
+                .register(meterRegistry);
     }
 
     public List<Hero> getAllHeroes() {
-        return heroRepository.findAll();
+        return heroCatalogService.getAllHeroes();
+    }
+
+    public HeroListPayload getHeroListPayload() {
+        return heroCatalogService.currentPayload();
+    }
+
+    public long[] searchHeroes(String name, HeroAttribute attribute, List<String> roles) {
+        return heroCatalogService.current().getSearchIndex().search(name, attribute, roles);
+    }
+
+    public Optional<Path> findImage(long heroId) {
+        return heroImageCache.find(heroId);
+    }
+
+    public Optional<String> imageSource(long heroId) {
+        return heroImageCache.sourceUrl(heroId);
     }
 
     public Hero createHero(Hero hero) {
-        return heroRepository.save(hero);
+        Hero saved = heroRepository.save(hero);
+        heroCatalogService.refresh();
+        return saved;
+    }
+
+    /**
+     * Fills an empty hero table from the last good OpenDota snapshot on disk.
+     * The table is in memory, so without this a restarted node knows no heroes
+     * until its first sync, and drafts recovered from the log cannot continue.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreFromSnapshot() {
+        if (heroRepository.count() > 0) {
+            return;
+        }
+        List<HeroStatsDto> lastGood = openDotaClient.lastGoodHeroStats();
+        if (lastGood.isEmpty()) {
+            return;
+        }
+        heroBatchWriter.write(lastGood.stream().map(this::mapToHero).toList(), List.of());
+        heroCatalogService.refresh();
+        log.info("Restored {} heroes from the last OpenDota snapshot", lastGood.size());
+    }
+
+    /**
+     * Fetches upstream hero stats and their images, and writes only heroes that
+     * are new or whose mapped fields differ from the current catalog. A sync with no upstream
+     * change performs no writes and keeps the catalog version.
+     */
+    public HeroSyncResult syncHeroesFromApi() {
+        return syncHeroesFromApi(() -> { });
     }
 
-    public int syncHeroesFromApi() {
+    /**
+     * Same as {@link #syncHeroesFromApi()}, calling {@code onFetched} once the
+     * upstream data has arrived and the writes begin.
+     */
+    public HeroSyncResult syncHeroesFromApi(Runnable onFetched) {
+        return syncTimer.record(() -> syncHeroes(onFetched));
+    }
+
+    private HeroSyncResult syncHeroes(Runnable onFetched) {
         List<HeroStatsDto> heroStats = openDotaClient.fetchHeroStats();
+        heroImageCache.refresh(heroStats);
+        onFetched.run();
+        HeroCatalog catalog = heroCatalogService.current();
+
+        List<Hero> inserts = new ArrayList<>();
+        List<Hero> updates = new ArrayList<>();
+        Map<Long, Hero> merged = new LinkedHashMap<>();
+        catalog.getHeroes().forEach(hero -> merged.put(hero.getId(), hero));
 
-        List<Hero> heroes = heroStats.stream()
-                .map(this::mapToHero)
-                .toList();
+        int unchanged = 0;
+        for (HeroStatsDto dto : heroStats) {
+            Hero hero = mapToHero(dto);
+            Hero existing = catalog.findById(hero.getId()).orElse(null);
+            if (existing == null) {
+                inserts.add(hero);
+            } else if (!existing.equals(hero)) {
+                updates.add(hero);
+            } else {
+                unchanged++;
+                continue;
+            }
+            merged.put(hero.getId(), hero);
+        }
 
-        heroRepository.saveAll(heroes);
-        return heroes.size();
+        HeroSyncResult result = new HeroSyncResult(inserts.size(), updates.size(), unchanged);
+        if (result.hasChanges()) {
+            heroBatchWriter.write(inserts, updates);
+            heroCatalogService.publish(new ArrayList<>(merged.values()));
+        }
+        heroesInserted.increment(inserts.size());
+        heroesUpdated.increment(updates.size());
+        heroesUnchanged.increment(unchanged);
+        return result;
     }
 
-    private Hero mapToHero(HeroStatsDto dto) {
+    Hero mapToHero(HeroStatsDto dto) {
         Hero hero = new Hero();
         hero.setId(dto.getId());
         hero.setName(dto.getLocalizedName());
         hero.setPrimaryAttribute(mapAttribute(dto.getPrimaryAttr()));
-        hero.setRoles(dto.getRoles());
+        hero.setRoles(dto.getRoles() != null ? dto.getRoles() : List.of());
         hero.setBaseStrength(dto.getBaseStr() != null ? dto.getBaseStr() : 0.0);
         hero.setBaseAgility(dto.getBaseAgi() != null ? dto.getBaseAgi() : 0.0);
         hero.setBaseIntelligence(dto.getBaseInt() != null ? dto.getBaseInt() : 0.0);
-        hero.setImageUrl("https://cdn.cloudflare.steamstatic.com" + dto.getImg());
+        hero.setImageUrl(heroImageCache.imageUrl(dto));
         return hero;
     }
 
+    private static Counter syncedHeroes(MeterRegistry meterRegistry, String change) {
+        return Counter.builder("drafter.heroes.synced")
+                .description("Heroes received from OpenDota, by what the sync did with them")
+                .tag("change", change)
+                .register(meterRegistry);
+    }
+
     private HeroAttribute mapAttribute(String attr) {
         return switch (attr != null ? attr.toLowerCase() : "") {
             case "str" -> HeroAttribute.STRENGTH;
@@ -0,0 +1,111 @@
+package com.dotadrafter.dota2.service;
+
+import com.dotadrafter.dota2.dto.HeroSyncJob;
+import com.dotadrafter.dota2.dto.HeroSyncResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs hero syncs as background jobs, on demand and on a schedule.
+ * <p>
+ * At most one sync runs at a time: triggering while a job is queued or
+ * running returns that job instead of starting another, so any number of
+ * concurrent requests costs a single upstream fetch. The job builds the new
+ * catalog off to the side and publishes it in one swap, so readers see either
+ * the old or the new hero list, never a partial one.
+ */
+@Service
+public class HeroSyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(HeroSyncService.class);
+    private static final int HISTORY = 20;
+
+    private final HeroService heroService;
+    private final ExecutorService heroSyncExecutor;
+    private final boolean scheduled;
+
+    // Most recent jobs by id, oldest evicted first; guarded by this
+    private final Map<Long, HeroSyncJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, HeroSyncJob> eldest) {
+            return size() > HISTORY;
+        }
+    };
+    private long lastJobId;
+    private HeroSyncJob active;
+
+    public HeroSyncService(HeroService heroService,
+                           @Qualifier("heroSyncExecutor") ExecutorService heroSyncExecutor,
+                           @Value("${drafter.sync.scheduled:true}") boolean scheduled) {
+        this.heroService = heroService;
+        this.heroSyncExecutor = heroSyncExecutor;
+        this.scheduled = scheduled;
+    }
+
+    /**
+     * Starts a sync in the background, or joins the one already in flight.
+     */
+    public HeroSyncJob trigger(String trigger) {
+        HeroSyncJob job;
+        synchronized (this) {
+            if (active != null) {
+                return active;
+            }
+            job = HeroSyncJob.queued(++lastJobId, trigger);
+            jobs.put(job.id(), job);
+            active = job;
+        }
+        try {
+            heroSyncExecutor.execute(() -> run(job.id()));
+        } catch (RejectedExecutionException e) {
+            update(job.id(), queued -> queued.failed("Hero sync is shutting down"));
+        }
+        return find(job.id()).orElse(job);
+    }
+
+    public synchronized Optional<HeroSyncJob> find(long jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public synchronized Optional<HeroSyncJob> latest() {
+        return lastJobId == 0 ? Optional.empty() : Optional.ofNullable(jobs.get(lastJobId));
+    }
+
+    @Scheduled(initialDelayString = "${drafter.sync.initial-delay:PT6H}",
+            fixedDelayString = "${drafter.sync.interval:PT6H}")
+    public void scheduledSync() {
+        if (scheduled) {
+            trigger("scheduled");
+        }
+    }
+
+    private void run(long jobId) {
+        update(jobId, HeroSyncJob::fetching);
+        try {
+            HeroSyncResult result = heroService.syncHeroesFromApi(() -> update(jobId, HeroSyncJob::writing));
+            log.info("Hero sync {} finished: {} inserted, {} updated, {} unchanged",
+                    jobId, result.inserted(), result.updated(), result.unchanged());
+            update(jobId, job -> job.succeeded(result));
+        } catch (RuntimeException e) {
+            log.error("Hero sync {} failed", jobId, e);
+            update(jobId, job -> job.failed(e.getMessage()));
+        }
+    }
+
+    private synchronized void update(long jobId, UnaryOperator<HeroSyncJob> change) {
+        HeroSyncJob next = change.apply(active);
+        active = next.isDone() ? null : next;
+        jobs.put(jobId, next);
+    }
+}
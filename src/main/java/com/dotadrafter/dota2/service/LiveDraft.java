@@ -0,0 +1,116 @@
+package com.dotadrafter.dota2.service;
+
+import com.dotadrafter.dota2.engine.ActionOutcome;
+import com.dotadrafter.dota2.engine.DraftAction;
+import com.dotadrafter.dota2.engine.DraftBoard;
+import com.dotadrafter.dota2.engine.TurnSchedule;
+import com.dotadrafter.dota2.model.DraftState;
+import com.dotadrafter.dota2.model.Hero;
+import com.dotadrafter.dota2.repository.DraftEventLog;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongFunction;
+
+/**
+ * An in-progress draft held in memory: the primitive {@link DraftBoard} used for
+ * validation plus the detached {@link DraftState} view returned to clients.
+ * Only hero ids are kept; heroes are looked up when a view is taken, so a draft
+ * replays whatever the hero catalog holds at the time.
+ */
+class LiveDraft {
+
+    private final DraftBoard board;
+    private final DraftState state;
+    // System.nanoTime() of the last action or read, for idle eviction
+    private volatile long lastAccess = System.nanoTime();
+
+    LiveDraft(DraftBoard board, DraftState state) {
+        this.board = board;
+        this.state = state;
+        syncFlags();
+    }
+
+    /**
+     * Rebuilds a draft by replaying its logged actions in order.
+     */
+    static LiveDraft replay(DraftEventLog.RecordedDraft recorded, TurnSchedule schedule) {
+        DraftState state = new DraftState();
+        state.setId(recorded.draftId());
+        state.setFormat(recorded.format());
+        state.setStartTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(recorded.startedAt()), ZoneId.systemDefault()));
+
+        LiveDraft live = new LiveDraft(new DraftBoard(schedule), state);
+        for (DraftEventLog.RecordedAction action : recorded.actions()) {
+            if (!live.apply(action.action(), action.heroId()).isOk()) {
+                throw new IllegalStateException("Draft " + recorded.draftId() + " cannot be replayed at hero "
+                        + action.heroId());
+            }
+        }
+        return live;
+    }
+
+    ActionOutcome apply(DraftAction action, long heroId) {
+        ActionOutcome outcome = board.apply(action, heroId);
+        if (outcome.isOk()) {
+            syncFlags();
+        }
+        return outcome;
+    }
+
+    /**
+     * Copy of the client view that stays stable while later actions mutate
+     * this draft, safe to serialize outside the draft's lock. {@code heroes}
+     * resolves the hero ids on the board.
+     */
+    DraftState snapshotState(LongFunction<Hero> heroes) {
+        DraftState copy = new DraftState();
+        copy.setId(state.getId());
+        copy.setStartTime(state.getStartTime());
+        copy.setFormat(state.getFormat());
+        copy.setRadiantPicks(resolve(heroes, board.getRadiantPickCount(), board::getRadiantPick));
+        copy.setDirePicks(resolve(heroes, board.getDirePickCount(), board::getDirePick));
+        copy.setRadiantBans(resolve(heroes, board.getRadiantBanCount(), board::getRadiantBan));
+        copy.setDireBans(resolve(heroes, board.getDireBanCount(), board::getDireBan));
+        copy.setRadiantTurn(state.isRadiantTurn());
+        copy.setPickPhase(state.isPickPhase());
+        copy.setComplete(state.isComplete());
+        copy.setCurrentTurnIndex(state.getCurrentTurnIndex());
+        return copy;
+    }
+
+    private static List<Hero> resolve(LongFunction<Hero> heroes, int count, IntUnaryOperator heroIdAt) {
+        List<Hero> resolved = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            resolved.add(heroes.apply(heroIdAt.applyAsInt(i)));
+        }
+        return resolved;
+    }
+
+    void touch() {
+        lastAccess = System.nanoTime();
+    }
+
+    long getLastAccess() {
+        return lastAccess;
+    }
+
+    DraftBoard getBoard() {
+        return board;
+    }
+
+    DraftState getState() {
+        return state;
+    }
+
+    private void syncFlags() {
+        state.setCurrentTurnIndex(board.getTurnIndex());
+        state.setRadiantTurn(board.isRadiantTurn());
+        state.setPickPhase(board.isPickPhase());
+        state.setComplete(board.isComplete());
+    }
+}
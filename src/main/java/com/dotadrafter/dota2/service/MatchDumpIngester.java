@@ -0,0 +1,367 @@
+package com.dotadrafter.dota2.service;
+
+import com.dotadrafter.dota2.engine.DraftBoard;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Offline job that aggregates historical match dumps into a {@link HeroMatchStats}
+ * file for the application to load at startup.
+ * <p>
+ * A dump is either JSON Lines, one match per line, or a single JSON array of
+ * matches, optionally gzipped. JSON Lines files are split at line breaks into
+ * chunks that are memory-mapped and parsed in parallel, each worker into its
+ * own partial aggregate; array and gzipped dumps are parsed as one stream.
+ * Matches are read with Jackson's streaming parser and every field but the
+ * result and the heroes is skipped unread, so memory stays flat whatever the
+ * dump size. Both OpenDota shapes are accepted:
+ * <pre>
+ * {"radiant_win": true, "players": [{"hero_id": 1, "player_slot": 0}, ...]}
+ * {"radiant_win": true, "radiant_team": [1, 2, 3, 4, 5], "dire_team": "6,7,8,9,10"}
+ * </pre>
+ * Matches without a result, or with an unknown or repeated hero, are skipped.
+ */
+public final class MatchDumpIngester {
+
+    public static final long DEFAULT_CHUNK_BYTES = 64L * 1024 * 1024;
+
+    private static final int TEAM_SIZE = 5;
+    // player_slot of the first Dire player
+    private static final int DIRE_SLOT = 128;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final long chunkBytes;
+    private final int workers;
+
+    public MatchDumpIngester(long chunkBytes, int workers) {
+        if (chunkBytes < 1 || chunkBytes > Integer.MAX_VALUE || workers < 1) {
+            throw new IllegalArgumentException("Chunk size must be 1 byte to 2 GB and workers at least 1");
+        }
+        this.chunkBytes = chunkBytes;
+        this.workers = workers;
+    }
+
+    public record Result(HeroMatchStats stats, long skipped, int chunks) {
+    }
+
+    public Result ingest(List<Path> dumps) throws IOException {
+        List<Chunk> chunks = new ArrayList<>();
+        for (Path dump : dumps) {
+            split(dump, chunks);
+        }
+
+        AtomicInteger next = new AtomicInteger();
+        LongAdder skipped = new LongAdder();
+        int threads = Math.max(1, Math.min(workers, chunks.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<HeroMatchStats>> partials = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                partials.add(executor.submit(() -> {
+                    HeroMatchStats partial = new HeroMatchStats(DraftBoard.HERO_ID_LIMIT);
+                    MatchReader reader = new MatchReader();
+                    for (int chunk; (chunk = next.getAndIncrement()) < chunks.size(); ) {
+                        parse(chunks.get(chunk), reader, partial, skipped);
+                    }
+                    return partial;
+                }));
+            }
+            HeroMatchStats total = new HeroMatchStats(DraftBoard.HERO_ID_LIMIT);
+            for (Future<HeroMatchStats> partial : partials) {
+                total.add(partial.get());
+            }
+            return new Result(total, skipped.sum(), chunks.size());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IllegalStateException("Match dump ingestion failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Match dump ingestion interrupted");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // JSON Lines are cut at the first line break after every chunkBytes
+    private void split(Path dump, List<Chunk> chunks) throws IOException {
+        long size = Files.size(dump);
+        if (!isJsonLines(dump)) {
+            chunks.add(new Chunk(dump, 0, size, false));
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(dump, StandardOpenOption.READ)) {
+            long offset = 0;
+            while (offset < size) {
+                long end = lineStartFrom(channel, Math.min(size, offset + chunkBytes), size);
+                if (end - offset > Integer.MAX_VALUE) {
+                    throw new IOException("A line of " + dump + " at byte " + offset + " is longer than 2 GB");
+                }
+                chunks.add(new Chunk(dump, offset, end - offset, true));
+                offset = end;
+            }
+        }
+    }
+
+    private static long lineStartFrom(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    // Anything that does not open with an array is taken for JSON Lines
+    private static boolean isJsonLines(Path dump) throws IOException {
+        if (isGzip(dump)) {
+            return false;
+        }
+        try (InputStream in = Files.newInputStream(dump)) {
+            int b;
+            do {
+                b = in.read();
+            } while (b == ' ' || b == '\t' || b == '\r' || b == '\n');
+            return b != '[';
+        }
+    }
+
+    private static boolean isGzip(Path dump) {
+        return dump.getFileName().toString().endsWith(".gz");
+    }
+
+    private void parse(Chunk chunk, MatchReader reader, HeroMatchStats stats, LongAdder skipped) throws IOException {
+        try (InputStream in = open(chunk); JsonParser parser = jsonFactory.createParser(in)) {
+            try {
+                for (JsonToken token; (token = parser.nextToken()) != null; ) {
+                    // The brackets of an array dump are stepped over; each object is one match
+                    if (token == JsonToken.START_OBJECT) {
+                        if (reader.read(parser)) {
+                            reader.recordInto(stats);
+                        } else {
+                            skipped.increment();
+                        }
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                throw new IOException("Malformed match dump " + chunk.file() + " near byte "
+                        + (chunk.offset() + parser.currentLocation().getByteOffset()), e);
+            }
+        }
+    }
+
+    private static InputStream open(Chunk chunk) throws IOException {
+        if (chunk.mapped()) {
+            try (FileChannel channel = FileChannel.open(chunk.file(), StandardOpenOption.READ)) {
+                // The mapping stays valid after the channel is closed
+                return new ByteBufferBackedInputStream(
+                        channel.map(FileChannel.MapMode.READ_ONLY, chunk.offset(), chunk.length()));
+            }
+        }
+        InputStream in = Files.newInputStream(chunk.file());
+        return isGzip(chunk.file()) ? new GZIPInputStream(in, 64 * 1024) : in;
+    }
+
+    private record Chunk(Path file, long offset, long length, boolean mapped) {
+    }
+
+    // Reused for every match of a worker, so parsing allocates nothing per match
+    private static final class MatchReader {
+
+        private final int[] radiant = new int[TEAM_SIZE];
+        private final int[] dire = new int[TEAM_SIZE];
+        private int radiantCount;
+        private int direCount;
+        private int radiantWin;
+        private boolean valid;
+
+        // Reads the rest of a match object; true if it can be counted
+        boolean read(JsonParser parser) throws IOException {
+            radiantCount = 0;
+            direCount = 0;
+            radiantWin = -1;
+            valid = true;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "radiant_win" -> radiantWin = value == JsonToken.VALUE_TRUE ? 1
+                            : value == JsonToken.VALUE_FALSE ? 0 : -1;
+                    case "players" -> readPlayers(parser, value);
+                    case "radiant_team" -> readTeam(parser, value, true);
+                    case "dire_team" -> readTeam(parser, value, false);
+                    default -> parser.skipChildren();
+                }
+            }
+            return valid && radiantWin >= 0 && radiantCount > 0 && direCount > 0;
+        }
+
+        void recordInto(HeroMatchStats stats) {
+            stats.record(radiant, radiantCount, dire, direCount, radiantWin == 1);
+        }
+
+        private void readPlayers(JsonParser parser, JsonToken value) throws IOException {
+            if (value != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                valid = false;
+                return;
+            }
+            radiantCount = 0;
+            direCount = 0;
+            for (JsonToken token; (token = parser.nextToken()) != JsonToken.END_ARRAY; ) {
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    valid = false;
+                    continue;
+                }
+                int heroId = 0;
+                int slot = -1;
+                int isRadiant = -1;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken player = parser.nextToken();
+                    switch (field) {
+                        case "hero_id" -> heroId = parser.getValueAsInt(0);
+                        case "player_slot" -> slot = parser.getValueAsInt(-1);
+                        case "isRadiant" -> isRadiant = player == JsonToken.VALUE_TRUE ? 1
+                                : player == JsonToken.VALUE_FALSE ? 0 : -1;
+                        default -> parser.skipChildren();
+                    }
+                }
+                if (isRadiant < 0 && slot < 0) {
+                    valid = false;
+                } else {
+                    add(isRadiant >= 0 ? isRadiant == 1 : slot < DIRE_SLOT, heroId);
+                }
+            }
+        }
+
+        // A team as an array of hero ids or a comma-separated string of them
+        private void readTeam(JsonParser parser, JsonToken value, boolean radiantSide) throws IOException {
+            if (radiantSide) {
+                radiantCount = 0;
+            } else {
+                direCount = 0;
+            }
+            if (value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    add(radiantSide, parser.getValueAsInt(0));
+                    parser.skipChildren();
+                }
+            } else if (value == JsonToken.VALUE_STRING) {
+                String team = parser.getText();
+                int heroId = 0;
+                for (int i = 0; i <= team.length(); i++) {
+                    char c = i < team.length() ? team.charAt(i) : ',';
+                    if (c == ',') {
+                        add(radiantSide, heroId);
+                        heroId = 0;
+                    } else if (c >= '0' && c <= '9' && heroId < DraftBoard.HERO_ID_LIMIT) {
+                        heroId = heroId * 10 + (c - '0');
+                    } else if (c != ' ') {
+                        valid = false;
+                    }
+                }
+            } else {
+                parser.skipChildren();
+                valid = false;
+            }
+        }
+
+        private void add(boolean radiantSide, int heroId) {
+            int count = radiantSide ? radiantCount : direCount;
+            if (!DraftBoard.isValidHeroId(heroId) || count == TEAM_SIZE || contains(heroId)) {
+                valid = false;
+                return;
+            }
+            if (radiantSide) {
+                radiant[radiantCount++] = heroId;
+            } else {
+                dire[direCount++] = heroId;
+            }
+        }
+
+        private boolean contains(int heroId) {
+            for (int i = 0; i < radiantCount; i++) {
+                if (radiant[i] == heroId) {
+                    return true;
+                }
+            }
+            for (int i = 0; i < direCount; i++) {
+                if (dire[i] == heroId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * {@code MatchDumpIngester [output=data/hero-stats.bin] [workers=N] [chunkMb=64] <dump or directory>...}
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        List<Path> dumps = new ArrayList<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split > 0) {
+                options.put(arg.substring(0, split), arg.substring(split + 1));
+            } else if (Files.isDirectory(Path.of(arg))) {
+                try (Stream<Path> files = Files.list(Path.of(arg))) {
+                    files.filter(Files::isRegularFile).sorted().forEach(dumps::add);
+                }
+            } else {
+                dumps.add(Path.of(arg));
+            }
+        }
+        if (dumps.isEmpty()) {
+            System.err.println("Usage: MatchDumpIngester [output=data/hero-stats.bin] [workers=N] [chunkMb=64] <dump or directory>...");
+            System.exit(2);
+        }
+        Path output = Path.of(options.getOrDefault("output", "data/hero-stats.bin"));
+        int workers = Integer.parseInt(options.getOrDefault("workers",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        long chunkBytes = Long.parseLong(options.getOrDefault("chunkMb", "64")) * 1024 * 1024;
+
+        long started = System.nanoTime();
+        Result result = new MatchDumpIngester(chunkBytes, workers).ingest(dumps);
+        result.stats().write(output);
+        System.out.printf("Ingested %d matches (%d skipped) from %d files in %d chunks in %.1fs into %s%n",
+                result.stats().matches(), result.skipped(), dumps.size(), result.chunks(),
+                (System.nanoTime() - started) / 1e9, output);
+    }
+}
@@ -0,0 +1,232 @@
+package com.dotadrafter.dota2.service;
+
+import com.dotadrafter.dota2.config.HeroStatsProperties;
+import com.dotadrafter.dota2.dto.HeroMatchup;
+import com.dotadrafter.dota2.dto.HeroMatchups;
+import com.dotadrafter.dota2.dto.HeroRecommendation;
+import com.dotadrafter.dota2.engine.DraftBoard;
+import com.dotadrafter.dota2.engine.DraftScorer;
+import com.dotadrafter.dota2.engine.HeroProfiles;
+import com.dotadrafter.dota2.engine.MatchupMatrices;
+import com.dotadrafter.dota2.engine.Side;
+import com.dotadrafter.dota2.model.Hero;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Ranks the remaining heroes of a draft for the side about to act. During bans
+ * the ranking is from the opponent's point of view, i.e. the heroes most worth
+ * denying. The scorer is rebuilt only when the hero catalog version changes.
+ * <p>
+ * Synergy and counter values come from the catalog's {@link HeroMatchStats}
+ * for every pair with enough games: how far the pair's win rate lies above
+ * what the two heroes' own win rates predict. Other pairs fall back to
+ * role-based priors.
+ */
+@Service
+public class RecommendationService {
+
+    public static final int MAX_LIMIT = 50;
+
+    // Role-based priors for pairs without enough historical games
+    private static final String[][] SYNERGY_PAIRS = {
+            {"Carry", "Support"}, {"Initiator", "Nuker"}, {"Disabler", "Carry"}, {"Durable", "Support"}};
+    private static final String[][] COUNTER_PAIRS = {
+            {"Disabler", "Escape"}, {"Nuker", "Support"}, {"Initiator", "Carry"}};
+    private static final double PAIR_WEIGHT = 0.25;
+
+    private final DraftService draftService;
+    private final HeroCatalogService heroCatalogService;
+    private final HeroStatsProperties heroStatsProperties;
+
+    private volatile Model model = new Model(-1, null);
+
+    public RecommendationService(DraftService draftService, HeroCatalogService heroCatalogService,
+                                 HeroStatsProperties heroStatsProperties) {
+        this.draftService = draftService;
+        this.heroCatalogService = heroCatalogService;
+        this.heroStatsProperties = heroStatsProperties;
+    }
+
+    public List<HeroRecommendation> recommend(Long draftId, int limit) {
+        DraftBoard board = draftService.snapshotBoard(draftId);
+        if (board.isComplete()) {
+            return List.of();
+        }
+        Side acting = Side.of(board.isRadiantTurn());
+        Side beneficiary = board.isPickPhase() ? acting : acting.opponent();
+
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        int[] ids = new int[size];
+        double[] scores = new double[size];
+        HeroCatalog catalog = heroCatalogService.current();
+        int count = currentScorer().rank(board, beneficiary, ids, scores);
+
+        List<HeroRecommendation> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = catalog.findById(ids[i]).map(Hero::getName).orElse(null);
+            result.add(new HeroRecommendation(ids[i], name, scores[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Historical allies and opponents of a hero, best first, or empty if the
+     * hero is unknown. Lists are empty while no match stats are loaded.
+     */
+    public Optional<HeroMatchups> matchups(long heroId, int limit) {
+        HeroCatalog catalog = heroCatalogService.current();
+        Optional<Hero> hero = catalog.findById(heroId);
+        if (hero.isEmpty() || !DraftBoard.isValidHeroId(heroId)) {
+            return Optional.empty();
+        }
+        HeroMatchStats stats = catalog.getMatchStats();
+        int id = (int) heroId;
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        int minGames = Math.max(1, heroStatsProperties.getMinGames());
+
+        List<HeroMatchup> allies = new ArrayList<>();
+        List<HeroMatchup> enemies = new ArrayList<>();
+        for (Hero other : catalog.getHeroes()) {
+            int otherId = other.getId().intValue();
+            if (otherId == id) {
+                continue;
+            }
+            if (stats.allyGames(id, otherId) >= minGames) {
+                allies.add(new HeroMatchup(otherId, other.getName(),
+                        stats.allyGames(id, otherId), stats.allyWinRate(id, otherId)));
+            }
+            if (stats.enemyGames(id, otherId) >= minGames) {
+                enemies.add(new HeroMatchup(otherId, other.getName(),
+                        stats.enemyGames(id, otherId), stats.winRateAgainst(id, otherId)));
+            }
+        }
+        Comparator<HeroMatchup> best = Comparator.comparingDouble(HeroMatchup::winRate).reversed();
+        allies.sort(best);
+        enemies.sort(best);
+        List<HeroMatchup> weakest = new ArrayList<>(enemies.subList(Math.max(0, enemies.size() - size), enemies.size()));
+        Collections.reverse(weakest);
+
+        return Optional.of(new HeroMatchups(heroId, hero.get().getName(), stats.matches(), stats.games(id),
+                stats.winRate(id), stats.pickRate(id),
+                List.copyOf(allies.subList(0, Math.min(size, allies.size()))),
+                List.copyOf(enemies.subList(0, Math.min(size, enemies.size()))),
+                List.copyOf(weakest)));
+    }
+
+    /**
+     * Scorer for the current hero catalog, shared by recommendation and search.
+     */
+    public DraftScorer currentScorer() {
+        HeroCatalog catalog = heroCatalogService.current();
+        Model current = model;
+        if (current.version != catalog.getVersion()) {
+            synchronized (this) {
+                current = model;
+                if (current.version != catalog.getVersion()) {
+                    current = new Model(catalog.getVersion(), buildScorer(catalog, heroStatsProperties));
+                    model = current;
+                }
+            }
+        }
+        return current.scorer;
+    }
+
+    static DraftScorer buildScorer(HeroCatalog catalog, HeroStatsProperties heroStatsProperties) {
+        Map<String, Integer> roleBits = new HashMap<>();
+        int idLimit = 1;
+        for (Hero hero : catalog.getHeroes()) {
+            if (DraftBoard.isValidHeroId(hero.getId())) {
+                idLimit = Math.max(idLimit, hero.getId().intValue() + 1);
+            }
+            for (String role : hero.getRoles()) {
+                if (roleBits.size() < Integer.SIZE) {
+                    roleBits.putIfAbsent(role, roleBits.size());
+                }
+            }
+        }
+
+        int[] roleMasks = new int[idLimit];
+        byte[] attributes = new byte[idLimit];
+        Arrays.fill(attributes, HeroProfiles.NO_ATTRIBUTE);
+        int[] ids = catalog.getHeroes().stream()
+                .mapToInt(hero -> hero.getId().intValue())
+                .filter(DraftBoard::isValidHeroId)
+                .toArray();
+        for (Hero hero : catalog.getHeroes()) {
+            int id = hero.getId().intValue();
+            if (!DraftBoard.isValidHeroId(id)) {
+                continue;
+            }
+            for (String role : hero.getRoles()) {
+                Integer bit = roleBits.get(role);
+                if (bit != null) {
+                    roleMasks[id] |= 1 << bit;
+                }
+            }
+            if (hero.getPrimaryAttribute() != null) {
+                attributes[id] = (byte) hero.getPrimaryAttribute().ordinal();
+            }
+        }
+
+        HeroProfiles profiles = new HeroProfiles(ids, roleMasks, attributes);
+        return new DraftScorer(profiles, matchups(profiles, roleBits, catalog.getMatchStats(), heroStatsProperties));
+    }
+
+    private static MatchupMatrices matchups(HeroProfiles profiles, Map<String, Integer> roleBits,
+                                            HeroMatchStats stats, HeroStatsProperties heroStatsProperties) {
+        MatchupMatrices matrices = MatchupMatrices.empty(profiles.idLimit());
+        int minGames = Math.max(1, heroStatsProperties.getMinGames());
+        double weight = heroStatsProperties.getMatchupWeight();
+        int carry = mask(roleBits, "Carry");
+        for (int a : profiles.getHeroIds()) {
+            int rolesA = profiles.roleMask(a);
+            for (int b : profiles.getHeroIds()) {
+                if (a == b) {
+                    continue;
+                }
+                int rolesB = profiles.roleMask(b);
+                double synergy = 0;
+                for (String[] pair : SYNERGY_PAIRS) {
+                    int first = mask(roleBits, pair[0]);
+                    int second = mask(roleBits, pair[1]);
+                    if (has(rolesA, first) && has(rolesB, second) || has(rolesA, second) && has(rolesB, first)) {
+                        synergy += PAIR_WEIGHT;
+                    }
+                }
+                if (has(rolesA, carry) && has(rolesB, carry)) {
+                    synergy -= PAIR_WEIGHT;
+                }
+                double counter = 0;
+                for (String[] pair : COUNTER_PAIRS) {
+                    if (has(rolesA, mask(roleBits, pair[0])) && has(rolesB, mask(roleBits, pair[1]))) {
+                        counter += PAIR_WEIGHT;
+                    }
+                }
+                if (stats.allyGames(a, b) >= minGames) {
+                    double expected = (stats.winRate(a) + stats.winRate(b)) / 2;
+                    synergy = weight * (stats.allyWinRate(a, b) - expected);
+                }
+                if (stats.enemyGames(a, b) >= minGames) {
+                    double expected = (stats.winRate(a) + 1 - stats.winRate(b)) / 2;
+                    counter = weight * (stats.winRateAgainst(a, b) - expected);
+                }
+                matrices.set(a, b, synergy, counter);
+            }
+        }
+        return matrices;
+    }
+
+    private static int mask(Map<String, Integer> roleBits, String role) {
+        Integer bit = roleBits.get(role);
+        return bit != null ? 1 << bit : 0;
+    }
+
+    private static boolean has(int roles, int mask) {
+        return mask != 0 && (roles & mask) != 0;
+    }
+
+    private record Model(long version, DraftScorer scorer) {
+    }
+}
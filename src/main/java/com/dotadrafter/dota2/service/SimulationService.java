@@ -0,0 +1,76 @@
+package com.dotadrafter.dota2.service;
+
+import com.dotadrafter.dota2.dto.SimulationReport;
+import com.dotadrafter.dota2.dto.SimulationReport.HeroSimulationStats;
+import com.dotadrafter.dota2.engine.DraftScorer;
+import com.dotadrafter.dota2.engine.DraftSimulator;
+import com.dotadrafter.dota2.engine.SimulationPolicy;
+import com.dotadrafter.dota2.engine.SimulationResult;
+import com.dotadrafter.dota2.engine.TurnSchedule;
+import com.dotadrafter.dota2.model.Hero;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class SimulationService {
+
+    private static final Logger log = LoggerFactory.getLogger(SimulationService.class);
+
+    private final RecommendationService recommendationService;
+    private final HeroCatalogService heroCatalogService;
+    private final DraftFormatRegistry draftFormatRegistry;
+    private final ForkJoinPool draftSimulationPool;
+    private final long maxDrafts;
+
+    public SimulationService(RecommendationService recommendationService, HeroCatalogService heroCatalogService,
+                             DraftFormatRegistry draftFormatRegistry,
+                             @Qualifier("draftSimulationPool") ForkJoinPool draftSimulationPool,
+                             @Value("${drafter.simulation.max-drafts:1000000}") long maxDrafts) {
+        this.recommendationService = recommendationService;
+        this.heroCatalogService = heroCatalogService;
+        this.draftFormatRegistry = draftFormatRegistry;
+        this.draftSimulationPool = draftSimulationPool;
+        this.maxDrafts = maxDrafts;
+    }
+
+    public SimulationReport simulate(long drafts, String format, SimulationPolicy policy, Long seed) {
+        if (drafts < 1 || drafts > maxDrafts) {
+            throw new RuntimeException("Number of drafts must be between 1 and " + maxDrafts);
+        }
+        TurnSchedule schedule = draftFormatRegistry.get(format);
+        HeroCatalog catalog = heroCatalogService.current();
+        DraftScorer scorer = recommendationService.currentScorer();
+
+        SimulationResult result;
+        try {
+            result = new DraftSimulator(scorer, draftSimulationPool)
+                    .run(schedule, policy, drafts, seed != null ? seed : System.nanoTime());
+        } catch (IllegalStateException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+        log.info("Simulated {} {} drafts ({}) at {} drafts/s", drafts, schedule.getName(), policy,
+                Math.round(result.draftsPerSecond()));
+
+        List<HeroSimulationStats> heroes = new ArrayList<>();
+        for (int heroId : scorer.getProfiles().getHeroIds()) {
+            double pickRate = (double) result.picks(heroId) / drafts;
+            double banRate = (double) result.bans(heroId) / drafts;
+            String name = catalog.findById(heroId).map(Hero::getName).orElse(null);
+            heroes.add(new HeroSimulationStats(heroId, name, pickRate, banRate, pickRate + banRate,
+                    result.pickTurnHistogram(heroId)));
+        }
+        heroes.sort(Comparator.comparingDouble(HeroSimulationStats::contestRate).reversed());
+
+        return new SimulationReport(schedule.getName(), policy.name(), drafts,
+                TimeUnit.NANOSECONDS.toMillis(result.getElapsedNanos()), result.draftsPerSecond(), heroes);
+    }
+}
@@ -53,8 +53,14 @@ async function syncHeroes() {
 
     if (!response.ok) throw new Error("Sync failed");
 
-    const message = await response.text();
-    alert(message);
+    const job = await waitForSync(await response.json());
+    if (job.state === "FAILED") throw new Error(job.error || "Sync failed");
+
+    const result = job.result;
+    alert(
+      `Successfully synced ${result.inserted + result.updated + result.unchanged} heroes from OpenDota API ` +
+        `(${result.inserted} inserted, ${result.updated} updated, ${result.unchanged} unchanged)`
+    );
     await loadHeroes();
   } catch (error) {
     alert("Failed to sync heroes: " + error.message);
@@ -65,6 +71,18 @@ async function syncHeroes() {
   }
 }
 
+// Sync runs in the background; poll its job until it has finished
+async function waitForSync(job) {
+  while (job.state !== "SUCCEEDED" && job.state !== "FAILED") {
+    syncButton.textContent = `Syncing (${job.state.toLowerCase()})...`;
+    await new Promise((resolve) => setTimeout(resolve, 500));
+    const response = await fetch(`${API_BASE}/heroes/sync/${job.id}`);
+    if (!response.ok) throw new Error("Sync status unavailable");
+    job = await response.json();
+  }
+  return job;
+}
+
 async function startNewDraft() {
   try {
     const response = await fetch(`${API_BASE}/draft/start`, {
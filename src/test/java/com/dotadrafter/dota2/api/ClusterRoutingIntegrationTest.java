@@ -0,0 +1,98 @@
+package com.dotadrafter.dota2.api;
+
+import com.dotadrafter.dota2.engine.DraftAction;
+import com.dotadrafter.dota2.repository.DraftEventLog;
+import com.dotadrafter.dota2.service.ConsistentHashRing;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Two-node cluster where the other node never answers: drafts owned there are
+ * redirected, while this node's own drafts, and drafts its log still holds,
+ * are served locally.
+ */
+@SpringBootTest(properties = {
+        "drafter.draft-log.directory=target/test-drafts-cluster",
+        "drafter.cluster.node-id=a",
+        "drafter.cluster.nodes.a=http://127.0.0.1:8081",
+        "drafter.cluster.nodes.b=http://127.0.0.1:1",
+        "drafter.cluster.virtual-nodes=16",
+        "drafter.cluster.routing=redirect"
+})
+@AutoConfigureMockMvc
+@DisplayName("Cluster Routing Integration Tests")
+class ClusterRoutingIntegrationTest {
+
+    private final ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b"), 16);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DraftEventLog draftEventLog;
+
+    @Test
+    @DisplayName("Requests for another node's draft are redirected there")
+    void testForeignDraftRedirected() throws Exception {
+        // ARRANGE
+        long foreign = LongStream.iterate(1, id -> id + 1).filter(id -> ring.ownerOf(id).equals("b"))
+                .findFirst().orElseThrow();
+
+        // ACT & ASSERT: 307 keeps the POST
+        mockMvc.perform(post("/api/draft/" + foreign + "/pick/3?view=ids"))
+                .andExpect(status().isTemporaryRedirect())
+                .andExpect(header().string("Location", "http://127.0.0.1:1/api/draft/" + foreign + "/pick/3?view=ids"));
+    }
+
+    @Test
+    @DisplayName("A draft that finished here keeps being served here after its id moved to another node")
+    void testFinishedDraftServedLocally() throws Exception {
+        // ARRANGE: A finished draft in this node's log under an id node b now owns
+        long moved = LongStream.iterate(1, id -> id + 1).filter(id -> ring.ownerOf(id).equals("b"))
+                .skip(1).findFirst().orElseThrow();
+        draftEventLog.adoptDraft(moved, "all-pick", 1_000, 2, List.of(
+                new DraftEventLog.RecordedAction(DraftAction.PICK, 3),
+                new DraftEventLog.RecordedAction(DraftAction.PICK, 9)));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/draft/" + moved + "/history"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].heroId").value(9));
+    }
+
+    @Test
+    @DisplayName("New drafts get ids this node owns and are served here")
+    void testNewDraftsOwnedLocally() throws Exception {
+        // ACT
+        String body = mockMvc.perform(post("/api/draft/start").param("format", "all-pick"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long draftId = objectMapper.readTree(body).get("id").asLong();
+
+        // ASSERT
+        assertEquals("a", ring.ownerOf(draftId));
+        mockMvc.perform(get("/api/draft/" + draftId + "/history"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+        mockMvc.perform(get("/api/cluster"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nodeId").value("a"))
+                .andExpect(jsonPath("$.routing").value("REDIRECT"));
+    }
+}
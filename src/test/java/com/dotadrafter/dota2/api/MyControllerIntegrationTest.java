@@ -3,6 +3,7 @@ package com.dotadrafter.dota2.api;
 import com.dotadrafter.dota2.model.Hero;
 import com.dotadrafter.dota2.model.HeroAttribute;
 import com.dotadrafter.dota2.repository.HeroRepository;
+import com.dotadrafter.dota2.service.HeroCatalogService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -38,7 +39,11 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * - MockMvc: Simulates HTTP requests without starting a real server
  * - jsonPath(): Validates JSON response structure and values
  */
-@SpringBootTest
+@SpringBootTest(properties = {
+        "drafter.draft-log.directory=target/test-drafts",
+        "drafter.images.directory=target/test-hero-images",
+        "drafter.hero-stats.file=target/no-hero-stats.bin"
+})
 @AutoConfigureMockMvc
 @Transactional
 @DisplayName("Hero API Integration Tests")
@@ -50,6 +55,9 @@ class MyControllerIntegrationTest {
     @Autowired
     private HeroRepository heroRepository;
 
+    @Autowired
+    private HeroCatalogService heroCatalogService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -85,6 +93,9 @@ class MyControllerIntegrationTest {
         // Save to database
         heroRepository.save(testHero1);
         heroRepository.save(testHero2);
+
+        // Hero reads are served from the in-memory catalog, so rebuild it
+        heroCatalogService.refresh();
     }
 
     @Test
@@ -108,6 +119,7 @@ class MyControllerIntegrationTest {
     void testGetAllHeroesEmpty() throws Exception {
         // ARRANGE: Clear all heroes
         heroRepository.deleteAll();
+        heroCatalogService.refresh();
 
         // ACT & ASSERT
         mockMvc.perform(get("/api/heroes"))
@@ -115,6 +127,60 @@ class MyControllerIntegrationTest {
                 .andExpect(jsonPath("$", hasSize(0)));
     }
 
+    @Test
+    @DisplayName("GET /api/heroes should answer 304 when the ETag still matches")
+    void testGetAllHeroesNotModified() throws Exception {
+        // ARRANGE: First request returns the current ETag
+        String etag = mockMvc.perform(get("/api/heroes"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // ACT & ASSERT: Revalidating with it yields no body
+        mockMvc.perform(get("/api/heroes").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+    }
+
+    @Test
+    @DisplayName("GET /api/heroes should serve the gzip variant when accepted")
+    void testGetAllHeroesGzip() throws Exception {
+        mockMvc.perform(get("/api/heroes").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")));
+
+        // ACT & ASSERT: q=0 means gzip is refused
+        mockMvc.perform(get("/api/heroes").header("Accept-Encoding", "gzip;q=0, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"));
+    }
+
+    @Test
+    @DisplayName("GET /api/heroes/{id}/image should answer 404 for a hero never synced")
+    void testHeroImageNotCached() throws Exception {
+        mockMvc.perform(get("/api/heroes/999/image"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /api/heroes/search should combine name, attribute and role filters")
+    void testSearchHeroes() throws Exception {
+        mockMvc.perform(get("/api/heroes/search").param("name", "maid"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", contains(2)));
+
+        mockMvc.perform(get("/api/heroes/search")
+                        .param("attribute", "AGILITY")
+                        .param("roles", "Carry,Escape"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", contains(1)));
+
+        mockMvc.perform(get("/api/heroes/search").param("roles", "Nuker"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
     @Test
     @DisplayName("POST /api/draft/start should create a new draft")
     void testStartDraft() throws Exception {
@@ -132,6 +198,58 @@ class MyControllerIntegrationTest {
                 .andExpect(jsonPath("$.direBans", hasSize(0)));
     }
 
+    @Test
+    @DisplayName("POST /api/draft/start?view=ids should return hero ids instead of heroes")
+    void testStartDraftIdsView() throws Exception {
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/draft/start").param("view", "ids"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", notNullValue()))
+                .andExpect(jsonPath("$.radiantTurn", is(true)))
+                .andExpect(jsonPath("$.radiantPickIds", hasSize(0)))
+                .andExpect(jsonPath("$.direBanIds", hasSize(0)))
+                .andExpect(jsonPath("$.radiantPicks").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("POST /api/draft/actions should start a draft and report the first rejected action")
+    void testStartDraftWithActions() throws Exception {
+        // ACT & ASSERT: All Pick opens Radiant, Dire, Dire; the third pick repeats a hero
+        mockMvc.perform(post("/api/draft/actions")
+                        .param("format", "all-pick")
+                        .param("view", "ids")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"action": "PICK", "heroId": 1},
+                                 {"action": "PICK", "heroId": 2},
+                                 {"action": "PICK", "heroId": 1}]"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied", is(2)))
+                .andExpect(jsonPath("$.rejectedIndex", is(2)))
+                .andExpect(jsonPath("$.rejectedReason", is("Hero already picked or banned")))
+                .andExpect(jsonPath("$.draft.id", notNullValue()))
+                .andExpect(jsonPath("$.draft.currentTurnIndex", is(2)))
+                .andExpect(jsonPath("$.draft.radiantPickIds", contains(1)))
+                .andExpect(jsonPath("$.draft.direPickIds", contains(2)))
+                .andExpect(jsonPath("$.draft.radiantPicks").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /api/heroes/{id}/matchups should answer without match stats and 404 for unknown heroes")
+    void testHeroMatchupsWithoutStats() throws Exception {
+        // ACT & ASSERT: No stats file, so no rates on heroes and empty matchup lists
+        mockMvc.perform(get("/api/heroes"))
+                .andExpect(jsonPath("$[0].winRate").doesNotExist());
+        mockMvc.perform(get("/api/heroes/1/matchups"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Anti-Mage")))
+                .andExpect(jsonPath("$.matches", is(0)))
+                .andExpect(jsonPath("$.bestAllies", empty()))
+                .andExpect(jsonPath("$.weakAgainst", empty()));
+        mockMvc.perform(get("/api/heroes/99/matchups"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @DisplayName("Should filter heroes by attribute using repository")
     void testFilterHeroesByAttribute() {
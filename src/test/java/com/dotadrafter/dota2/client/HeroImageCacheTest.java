@@ -0,0 +1,160 @@
+package com.dotadrafter.dota2.client;
+
+import com.dotadrafter.dota2.config.HeroImageProperties;
+import com.dotadrafter.dota2.dto.HeroStatsDto;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TEST: Unit Test for HeroImageCache against a loopback stand-in for the CDN.
+ */
+@DisplayName("Hero Image Cache Unit Tests")
+class HeroImageCacheTest {
+
+    private static final byte[] IMAGE = {(byte) 0x89, 'P', 'N', 'G', 1, 2, 3};
+
+
+    @TempDir
+    Path directory;
+
+    private HttpServer cdn;
+    private final AtomicInteger downloads = new AtomicInteger();
+    private volatile String lastModified = "Wed, 01 Jan 2025 00:00:00 GMT";
+    private HeroImageProperties properties;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Serves every image with a fixed Last-Modified and honours If-Modified-Since
+        cdn = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        cdn.createContext("/apps/", exchange -> {
+            if (lastModified.equals(exchange.getRequestHeaders().getFirst("If-Modified-Since"))) {
+                exchange.sendResponseHeaders(304, -1);
+            } else if (exchange.getRequestURI().getPath().endsWith("missing.png")) {
+                exchange.sendResponseHeaders(404, -1);
+            } else {
+                downloads.incrementAndGet();
+                exchange.getResponseHeaders().set("Content-Type", "image/png");
+                exchange.getResponseHeaders().set("Last-Modified", lastModified);
+                exchange.sendResponseHeaders(200, IMAGE.length);
+                exchange.getResponseBody().write(IMAGE);
+            }
+            exchange.close();
+        });
+        cdn.start();
+
+        properties = new HeroImageProperties();
+        properties.setDirectory(directory.toString());
+        properties.setCdnBaseUrl("http://127.0.0.1:" + cdn.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cdn.stop(0);
+    }
+
+    @Test
+    @DisplayName("Images are downloaded once and served from disk, also after a restart")
+    void testImagesCachedOnce() throws IOException {
+        // ARRANGE
+        HeroImageCache cache = newCache();
+        List<HeroStatsDto> heroes = List.of(hero(1, "/apps/dota2/heroes/antimage.png?"), hero(2, "/apps/missing.png"));
+
+        // ACT: The second sync finds the image unchanged upstream
+        int first = cache.refresh(heroes);
+        int second = cache.refresh(heroes);
+        HeroImageCache restarted = newCache();
+
+        // ASSERT
+        assertEquals(1, first);
+        assertEquals(0, second);
+        assertEquals(1, downloads.get());
+        Path image = restarted.find(1).orElseThrow();
+        assertArrayEquals(IMAGE, Files.readAllBytes(image));
+        assertTrue(image.getFileName().toString().endsWith(".png"));
+        assertTrue(cache.find(2).isEmpty());
+        assertEquals(properties.getCdnBaseUrl() + "/apps/missing.png", cache.sourceUrl(2).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Image URLs point at this server and change with the upstream image")
+    void testImageUrlRewritten() {
+        // ARRANGE
+        HeroImageCache cache = newCache();
+
+        // ACT
+        String url = cache.imageUrl(hero(1, "/apps/dota2/heroes/antimage.png?"));
+        String changed = cache.imageUrl(hero(1, "/apps/dota2/heroes/antimage_v2.png?"));
+        properties.setEnabled(false);
+        String direct = newCache().imageUrl(hero(1, "/apps/dota2/heroes/antimage.png?"));
+
+        // ASSERT
+        assertTrue(url.startsWith("/api/heroes/1/image?v="));
+        assertNotEquals(url, changed);
+        assertEquals(properties.getCdnBaseUrl() + "/apps/dota2/heroes/antimage.png?", direct);
+    }
+
+    @Test
+    @DisplayName("A new upstream image path replaces the cached file")
+    void testChangedImageReplaced() {
+        // ARRANGE
+        HeroImageCache cache = newCache();
+        cache.refresh(List.of(hero(1, "/apps/dota2/heroes/antimage.png?")));
+        Path old = cache.find(1).orElseThrow();
+
+        // ACT
+        int written = cache.refresh(List.of(hero(1, "/apps/dota2/heroes/antimage_v2.png?")));
+
+        // ASSERT
+        assertEquals(1, written);
+        assertNotEquals(old, cache.find(1).orElseThrow());
+        assertFalse(Files.exists(old));
+    }
+
+    @Test
+    @DisplayName("An image replaced upstream at the same path gets a new URL")
+    void testModifiedImageGetsNewUrl() {
+        // ARRANGE
+        HeroImageCache cache = newCache();
+        HeroStatsDto antiMage = hero(1, "/apps/dota2/heroes/antimage.png?");
+        cache.refresh(List.of(antiMage));
+        String url = cache.imageUrl(antiMage);
+
+        // ACT: Unchanged first, then the CDN reports a newer image
+        cache.refresh(List.of(antiMage));
+        String unchanged = cache.imageUrl(antiMage);
+        lastModified = "Thu, 02 Jan 2025 00:00:00 GMT";
+        int written = cache.refresh(List.of(antiMage));
+
+        // ASSERT: Same file, new version, so browsers holding the old one for good fetch it again
+        assertEquals(url, unchanged);
+        assertEquals(1, written);
+        assertEquals(2, downloads.get());
+        assertNotEquals(url, cache.imageUrl(antiMage));
+    }
+
+    private HeroImageCache newCache() {
+        return new HeroImageCache(WebClient.builder(), properties, new SimpleMeterRegistry());
+    }
+
+    private static HeroStatsDto hero(long id, String img) {
+        HeroStatsDto dto = new HeroStatsDto();
+        dto.setId(id);
+        dto.setImg(img);
+        return dto;
+    }
+}
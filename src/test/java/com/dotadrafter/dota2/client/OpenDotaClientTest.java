@@ -0,0 +1,91 @@
+package com.dotadrafter.dota2.client;
+
+import com.dotadrafter.dota2.config.OpenDotaProperties;
+import com.dotadrafter.dota2.dto.HeroStatsDto;
+import com.dotadrafter.dota2.dto.HeroStatsSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TEST: Unit Test for OpenDotaClient against the local file stand-in
+ * (src/test/resources/opendota/heroStats.json), so no network is needed.
+ */
+@DisplayName("OpenDota Client Unit Tests")
+class OpenDotaClientTest {
+
+    @Test
+    @DisplayName("Should stream hero stats from a file: base URL")
+    void testFetchFromFixture() throws Exception {
+        // ARRANGE
+        Path fixture = Path.of(getClass().getResource("/opendota/heroStats.json").toURI());
+        OpenDotaProperties properties = new OpenDotaProperties();
+        properties.setBaseUrl(fixture.toUri().toString());
+        properties.setSnapshotPath("");
+        OpenDotaClient client = new OpenDotaClient(WebClient.builder(), properties, new ObjectMapper(),
+                new SimpleMeterRegistry());
+
+        // ACT
+        List<HeroStatsDto> heroes = client.fetchHeroStats();
+
+        // ASSERT
+        assertEquals(3, heroes.size());
+        assertEquals("Anti-Mage", heroes.get(0).getLocalizedName());
+        assertEquals("int", heroes.get(1).getPrimaryAttr());
+        assertEquals(List.of("Initiator", "Disabler", "Nuker", "Escape"), heroes.get(2).getRoles());
+    }
+
+    @Test
+    @DisplayName("Should answer from the last good snapshot when OpenDota exceeds the fetch timeout")
+    void testFetchTimeoutFallsBackToSnapshot(@TempDir Path directory) throws Exception {
+        // ARRANGE: A snapshot on disk and an upstream that accepts requests but never answers
+        HeroStatsDto antiMage = new HeroStatsDto();
+        antiMage.setId(1L);
+        antiMage.setLocalizedName("Anti-Mage");
+        Path snapshot = directory.resolve("snapshot.json");
+        new ObjectMapper().writeValue(snapshot.toFile(), new HeroStatsSnapshot(null, null, List.of(antiMage)));
+
+        CountDownLatch release = new CountDownLatch(1);
+        HttpServer upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.createContext("/", exchange -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        upstream.start();
+
+        OpenDotaProperties properties = new OpenDotaProperties();
+        properties.setBaseUrl("http://127.0.0.1:" + upstream.getAddress().getPort());
+        properties.setSnapshotPath(snapshot.toString());
+        properties.setReadTimeout(Duration.ofSeconds(30));
+        properties.setFetchTimeout(Duration.ofMillis(300));
+        OpenDotaClient client = new OpenDotaClient(WebClient.builder(), properties, new ObjectMapper(),
+                new SimpleMeterRegistry());
+
+        try {
+            // ACT
+            List<HeroStatsDto> heroes = client.fetchHeroStats();
+
+            // ASSERT
+            assertEquals(List.of("Anti-Mage"), heroes.stream().map(HeroStatsDto::getLocalizedName).toList());
+        } finally {
+            release.countDown();
+            upstream.stop(0);
+        }
+    }
+}
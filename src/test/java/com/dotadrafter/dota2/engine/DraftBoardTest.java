@@ -0,0 +1,61 @@
+package com.dotadrafter.dota2.engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Draft Board Unit Tests")
+class DraftBoardTest {
+
+    @Test
+    @DisplayName("New board starts with Radiant banning")
+    void testInitialState() {
+        DraftBoard board = new DraftBoard();
+
+        assertTrue(board.isRadiantTurn());
+        assertFalse(board.isPickPhase());
+        assertFalse(board.isComplete());
+        assertEquals(0, board.getTurnIndex());
+    }
+
+    @Test
+    @DisplayName("Ban marks hero as taken and passes the turn")
+    void testBanMarksHeroTaken() {
+        DraftBoard board = new DraftBoard();
+
+        assertEquals(ActionOutcome.OK, board.apply(DraftAction.BAN, 1));
+
+        assertTrue(board.isTaken(1));
+        assertEquals(1, board.getRadiantBanCount());
+        assertEquals(1, board.getRadiantBan(0));
+        assertFalse(board.isRadiantTurn());
+        assertEquals(1, board.getTurnIndex());
+    }
+
+    @Test
+    @DisplayName("Taken heroes and wrong-phase actions are rejected without changing state")
+    void testRejectedActions() {
+        DraftBoard board = new DraftBoard();
+        board.apply(DraftAction.BAN, 1);
+
+        assertEquals(ActionOutcome.HERO_TAKEN, board.apply(DraftAction.BAN, 1));
+        assertEquals(ActionOutcome.WRONG_PHASE_PICK, board.apply(DraftAction.PICK, 2));
+        assertEquals(ActionOutcome.INVALID_HERO, board.apply(DraftAction.BAN, DraftBoard.HERO_ID_LIMIT));
+        assertEquals(1, board.getTurnIndex());
+        assertFalse(board.isTaken(2));
+    }
+
+    @Test
+    @DisplayName("Restored board matches the recorded picks and bans")
+    void testRestore() {
+        DraftBoard board = DraftBoard.restore(
+                new long[]{5}, new long[]{6}, new long[]{1, 3}, new long[]{2, 4}, TurnSchedule.LEGACY);
+
+        assertTrue(board.isTaken(3));
+        assertTrue(board.isTaken(6));
+        assertEquals(ActionOutcome.HERO_TAKEN, board.apply(DraftAction.PICK, 5));
+        assertEquals(ActionOutcome.OK, board.apply(DraftAction.PICK, 7));
+        assertEquals(2, board.getRadiantPickCount());
+    }
+}
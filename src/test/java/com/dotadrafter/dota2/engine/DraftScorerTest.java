@@ -0,0 +1,75 @@
+package com.dotadrafter.dota2.engine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Draft Scorer Unit Tests")
+class DraftScorerTest {
+
+    private static final int CARRY = 1;
+    private static final int SUPPORT = 1 << 1;
+
+    private DraftScorer scorer;
+
+    @BeforeEach
+    void setUp() {
+        // Heroes 1 and 2 are carries, 3 is a support; 3 pairs well with carries
+        int[] roles = {0, CARRY, CARRY, SUPPORT};
+        byte[] attributes = {HeroProfiles.NO_ATTRIBUTE, 0, 1, 2};
+        HeroProfiles profiles = new HeroProfiles(new int[]{1, 2, 3}, roles, attributes);
+
+        MatchupMatrices matrices = MatchupMatrices.empty(4);
+        matrices.set(3, 1, 1.0, 0.0);
+        matrices.set(1, 3, 1.0, 0.0);
+        matrices.set(2, 1, 0.0, 2.0);
+        scorer = new DraftScorer(profiles, matrices);
+    }
+
+    @Test
+    @DisplayName("Ranking skips taken heroes and orders by score")
+    void testRank() {
+        // ARRANGE: Radiant has picked hero 1
+        DraftBoard board = DraftBoard.restore(new long[]{1}, new long[0], new long[0], new long[0],
+                TurnSchedule.LEGACY);
+
+        int[] ids = new int[3];
+        double[] scores = new double[3];
+
+        // ACT: Rank for Dire, who faces hero 1 (countered by hero 2)
+        int count = scorer.rank(board, Side.DIRE, ids, scores);
+
+        // ASSERT
+        assertEquals(2, count);
+        assertEquals(2, ids[0]);
+        assertEquals(3, ids[1]);
+        assertTrue(scores[0] > scores[1]);
+    }
+
+    @Test
+    @DisplayName("Ranking keeps only the requested number of heroes")
+    void testRankLimit() {
+        DraftBoard board = DraftBoard.restore(new long[]{1}, new long[0], new long[0], new long[0],
+                TurnSchedule.LEGACY);
+
+        int[] ids = new int[1];
+        double[] scores = new double[1];
+        int count = scorer.rank(board, Side.RADIANT, ids, scores);
+
+        assertEquals(1, count);
+        assertEquals(3, ids[0], "Support with carry synergy should rank first");
+    }
+
+    @Test
+    @DisplayName("Team evaluation rewards synergy and role coverage")
+    void testEvaluate() {
+        DraftBoard carrySupport = DraftBoard.restore(new long[]{1, 3}, new long[0], new long[0], new long[0],
+                TurnSchedule.LEGACY);
+        DraftBoard twoCarries = DraftBoard.restore(new long[]{1, 2}, new long[0], new long[0], new long[0],
+                TurnSchedule.LEGACY);
+
+        assertTrue(scorer.evaluate(carrySupport, Side.RADIANT) > scorer.evaluate(twoCarries, Side.RADIANT));
+    }
+}
@@ -0,0 +1,111 @@
+package com.dotadrafter.dota2.engine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Draft Search Unit Tests")
+class DraftSearchTest {
+
+    private DraftScorer scorer;
+
+    @BeforeEach
+    void setUp() {
+        // Twelve heroes; hero 1 counters everything and hero 2 pairs with hero 3
+        int[] ids = new int[12];
+        int[] roles = new int[13];
+        byte[] attributes = new byte[13];
+        for (int id = 1; id <= 12; id++) {
+            ids[id - 1] = id;
+            roles[id] = 1 << (id % 4);
+            attributes[id] = (byte) (id % 4);
+        }
+        MatchupMatrices matrices = MatchupMatrices.empty(13);
+        for (int id = 2; id <= 12; id++) {
+            matrices.set(1, id, 0.0, 3.0);
+        }
+        matrices.set(2, 3, 2.0, 0.0);
+        matrices.set(3, 2, 2.0, 0.0);
+        scorer = new DraftScorer(new HeroProfiles(ids, roles, attributes), matrices);
+    }
+
+    @Test
+    @DisplayName("Search leaves the root board untouched and returns a legal line")
+    void testSearchLine() {
+        DraftBoard root = new DraftBoard();
+        DraftSearch search = new DraftSearch(scorer, ForkJoinPool.commonPool(), 4);
+
+        SearchResult result = search.search(root, 3, TimeUnit.SECONDS.toNanos(5));
+
+        assertEquals(0, root.getTurnIndex());
+        assertEquals(3, result.getDepth());
+        assertEquals(3, result.getLine().length);
+        assertFalse(result.isTimedOut());
+
+        DraftBoard replay = root.copy();
+        for (int heroId : result.getLine()) {
+            assertTrue(replay.apply(replay.getSchedule().action(replay.getTurnIndex()), heroId).isOk());
+        }
+    }
+
+    @Test
+    @DisplayName("Look-ahead takes the hero the opponent would otherwise pick")
+    void testLookAheadDeniesCounterPick() {
+        // ARRANGE: Bans are done, Radiant picks first
+        DraftBoard root = DraftBoard.restore(new long[0], new long[0], new long[]{9, 11}, new long[]{10, 12},
+                TurnSchedule.LEGACY);
+        DraftSearch search = new DraftSearch(scorer, ForkJoinPool.commonPool(), 4);
+
+        // ACT
+        SearchResult result = search.search(root, 2, TimeUnit.SECONDS.toNanos(5));
+
+        // ASSERT
+        assertEquals(1, result.getLine()[0]);
+        assertTrue(result.getValue() > 0);
+    }
+
+    @Test
+    @DisplayName("Searching with several workers agrees with one worker")
+    void testParallelMatchesSequential() {
+        // ARRANGE: Deep enough that nodes below the root fork their younger siblings
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        DraftBoard root = new DraftBoard();
+
+        try {
+            // ACT
+            SearchResult sequential = new DraftSearch(scorer, single, 4).search(root, 5, TimeUnit.SECONDS.toNanos(30));
+            SearchResult parallel = new DraftSearch(scorer, several, 4).search(root, 5, TimeUnit.SECONDS.toNanos(30));
+
+            // ASSERT
+            assertEquals(5, parallel.getDepth());
+            assertFalse(parallel.isTimedOut());
+            assertEquals(sequential.getValue(), parallel.getValue(), 1e-9);
+            assertEquals(5, parallel.getLine().length);
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Undo restores the board exactly")
+    void testUndo() {
+        DraftBoard board = new DraftBoard();
+        board.apply(DraftAction.BAN, 4);
+        board.apply(DraftAction.BAN, 5);
+
+        board.undo();
+
+        assertEquals(1, board.getTurnIndex());
+        assertFalse(board.isTaken(5));
+        assertTrue(board.isTaken(4));
+        assertEquals(0, board.getDireBanCount());
+        assertFalse(board.isRadiantTurn());
+    }
+}
@@ -0,0 +1,57 @@
+package com.dotadrafter.dota2.engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Draft Simulator Unit Tests")
+class DraftSimulatorTest {
+
+    @Test
+    @DisplayName("Every simulated draft records all picks and bans of the format")
+    void testCountersCoverEveryTurn() {
+        // ARRANGE: 30 interchangeable heroes
+        int[] ids = new int[30];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i + 1;
+        }
+        HeroProfiles profiles = new HeroProfiles(ids, new int[31], new byte[31]);
+        DraftScorer scorer = new DraftScorer(profiles, MatchupMatrices.empty(31));
+        DraftSimulator simulator = new DraftSimulator(scorer, new ForkJoinPool(4));
+
+        for (SimulationPolicy policy : SimulationPolicy.values()) {
+            // ACT
+            SimulationResult result = simulator.run(TurnSchedule.CAPTAINS_MODE, policy, 1_000, 42);
+
+            // ASSERT: 10 picks and 14 bans per draft, each pick on some turn
+            long picks = 0;
+            long bans = 0;
+            long histogram = 0;
+            for (int id : ids) {
+                picks += result.picks(id);
+                bans += result.bans(id);
+                for (long count : result.pickTurnHistogram(id)) {
+                    histogram += count;
+                }
+            }
+            assertEquals(1_000, result.getDrafts());
+            assertEquals(10_000, picks);
+            assertEquals(14_000, bans);
+            assertEquals(picks, histogram);
+        }
+    }
+
+    @Test
+    @DisplayName("Formats needing more heroes than exist are rejected")
+    void testTooFewHeroes() {
+        HeroProfiles profiles = new HeroProfiles(new int[]{1, 2, 3}, new int[4], new byte[4]);
+        DraftSimulator simulator = new DraftSimulator(
+                new DraftScorer(profiles, MatchupMatrices.empty(4)), ForkJoinPool.commonPool());
+
+        assertThrows(IllegalStateException.class,
+                () -> simulator.run(TurnSchedule.CAPTAINS_MODE, SimulationPolicy.RANDOM, 10, 1));
+    }
+}
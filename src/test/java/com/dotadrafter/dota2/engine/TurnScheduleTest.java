@@ -0,0 +1,81 @@
+package com.dotadrafter.dota2.engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Turn Schedule Unit Tests")
+class TurnScheduleTest {
+
+    @Test
+    @DisplayName("Captain's Mode has 24 steps with 7 bans and 5 picks per side")
+    void testCaptainsModeShape() {
+        TurnSchedule schedule = TurnSchedule.CAPTAINS_MODE;
+
+        assertEquals(24, schedule.length());
+        for (Side side : Side.values()) {
+            assertEquals(7, count(schedule, side, DraftAction.BAN));
+            assertEquals(5, count(schedule, side, DraftAction.PICK));
+        }
+        assertEquals(Side.RADIANT, schedule.side(0));
+        assertEquals(DraftAction.BAN, schedule.action(0));
+        assertEquals(DraftAction.PICK, schedule.action(7));
+        assertEquals(Side.DIRE, schedule.side(23));
+    }
+
+    @Test
+    @DisplayName("Phases count runs of bans and of picks separately")
+    void testPhases() {
+        TurnSchedule schedule = TurnSchedule.CAPTAINS_MODE;
+
+        assertEquals(1, schedule.phase(0));
+        assertEquals(1, schedule.phase(6));
+        assertEquals(1, schedule.phase(7));
+        assertEquals(2, schedule.phase(9));
+        assertEquals(2, schedule.phase(12));
+        assertEquals(3, schedule.phase(18));
+        assertEquals(3, schedule.phase(23));
+        assertEquals(1, TurnSchedule.ALL_PICK.phase(9));
+    }
+
+    @Test
+    @DisplayName("A board following a schedule completes after its last step")
+    void testBoardFollowsSchedule() {
+        DraftBoard board = new DraftBoard(TurnSchedule.ALL_PICK);
+
+        for (int heroId = 1; heroId <= 10; heroId++) {
+            Side expected = TurnSchedule.ALL_PICK.side(heroId - 1);
+            assertEquals(expected == Side.RADIANT, board.isRadiantTurn());
+            assertEquals(ActionOutcome.OK, board.apply(DraftAction.PICK, heroId));
+        }
+
+        assertTrue(board.isComplete());
+        assertEquals(5, board.getRadiantPickCount());
+        assertEquals(5, board.getDirePickCount());
+        assertEquals(ActionOutcome.DRAFT_COMPLETE, board.apply(DraftAction.PICK, 11));
+    }
+
+    @Test
+    @DisplayName("Custom specs are parsed and validated")
+    void testParse() {
+        TurnSchedule custom = TurnSchedule.parse("short", "rb db RP DP");
+
+        assertEquals(4, custom.length());
+        assertEquals(Side.DIRE, custom.side(3));
+        assertEquals(DraftAction.PICK, custom.action(3));
+
+        assertThrows(IllegalArgumentException.class, () -> TurnSchedule.parse("bad", "RX"));
+        assertThrows(IllegalArgumentException.class, () -> TurnSchedule.parse("long", "RP RP RP RP RP RP"));
+    }
+
+    private static int count(TurnSchedule schedule, Side side, DraftAction action) {
+        int count = 0;
+        for (int turn = 0; turn < schedule.length(); turn++) {
+            if (schedule.side(turn) == side && schedule.action(turn) == action) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,46 @@
+package com.dotadrafter.dota2.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Closed Draft Index Unit Tests")
+class ClosedDraftIndexTest {
+
+    @Test
+    @DisplayName("Random puts and removes agree with a hash map through several resizes")
+    void testMatchesHashMap() {
+        // ARRANGE: Few distinct ids, so probe runs overlap and removals shift entries back
+        ClosedDraftIndex index = new ClosedDraftIndex();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // ACT
+        for (int i = 0; i < 200_000; i++) {
+            long draftId = 1 + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                index.remove(draftId);
+                expected.remove(draftId);
+            } else {
+                int segment = random.nextInt(1_000);
+                boolean abandoned = random.nextBoolean();
+                index.put(draftId, segment, abandoned);
+                expected.put(draftId, abandoned ? -segment - 1 : segment);
+            }
+        }
+
+        // ASSERT
+        assertEquals(expected.size(), index.size());
+        for (long draftId = 1; draftId <= 5_000; draftId++) {
+            Integer value = expected.get(draftId);
+            int segment = value == null ? -1 : value < 0 ? -value - 1 : value;
+            assertEquals(segment, index.lastSegment(draftId));
+            assertEquals(value != null && value < 0, index.isAbandoned(draftId));
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.dotadrafter.dota2.repository;
+
+import com.dotadrafter.dota2.config.DraftLogProperties;
+import com.dotadrafter.dota2.engine.DraftAction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Draft Event Log Unit Tests")
+class DraftEventLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Drafts in progress and finished drafts survive a restart")
+    void testRecoverAfterRestart() {
+        // ARRANGE: One finished two-turn draft and one draft halfway through
+        DraftEventLog eventLog = open(1024 * 1024);
+        long finished = eventLog.startDraft("duel", 2);
+        eventLog.append(finished, 0, DraftAction.BAN, 7);
+        eventLog.append(finished, 1, DraftAction.PICK, 12);
+        long inProgress = eventLog.startDraft("all-pick", 10);
+        eventLog.append(inProgress, 0, DraftAction.PICK, 42);
+        eventLog.close();
+
+        // ACT
+        DraftEventLog reopened = open(1024 * 1024);
+
+        // ASSERT
+        DraftEventLog.RecordedDraft first = reopened.read(finished).orElseThrow();
+        assertEquals("duel", first.format());
+        assertTrue(first.isComplete());
+        assertEquals(List.of(new DraftEventLog.RecordedAction(DraftAction.BAN, 7),
+                new DraftEventLog.RecordedAction(DraftAction.PICK, 12)), first.actions());
+
+        DraftEventLog.RecordedDraft second = reopened.read(inProgress).orElseThrow();
+        assertFalse(second.isComplete());
+        assertEquals(1, second.actions().size());
+
+        // New ids never collide with logged drafts, and the open draft continues
+        assertTrue(reopened.startDraft("all-pick", 10) > inProgress);
+        reopened.append(inProgress, 1, DraftAction.PICK, 43);
+        assertEquals(2, reopened.read(inProgress).orElseThrow().actions().size());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Full segments roll over with a snapshot and old drafts stay replayable")
+    void testSegmentsRollWithSnapshots() throws IOException {
+        // ARRANGE: Segments small enough to roll every few drafts
+        DraftEventLog eventLog = open(256);
+        long openDraft = eventLog.startDraft("long", 200);
+        for (int turn = 0; turn < 3; turn++) {
+            eventLog.append(openDraft, turn, DraftAction.BAN, turn + 1);
+            eventLog.flush();
+        }
+        long firstFinished = 0;
+        for (int i = 0; i < 40; i++) {
+            long draftId = eventLog.startDraft("duel", 2);
+            eventLog.append(draftId, 0, DraftAction.PICK, 100 + i);
+            eventLog.append(draftId, 1, DraftAction.PICK, 150 + i);
+            eventLog.flush();
+            if (i == 0) {
+                firstFinished = draftId;
+            }
+        }
+        eventLog.close();
+
+        // ACT
+        DraftEventLog reopened = open(256);
+
+        // ASSERT: Several segments and snapshots were written
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.filter(path -> path.toString().endsWith(".snap")).count() > 1);
+        }
+        assertEquals(3, reopened.read(openDraft).orElseThrow().actions().size());
+        DraftEventLog.RecordedDraft old = reopened.read(firstFinished).orElseThrow();
+        assertEquals(100, old.actions().get(0).heroId());
+        assertEquals(150, old.actions().get(1).heroId());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Filled segments are indexed, so old and unknown drafts are found without a full scan")
+    void testSegmentIndexes() throws IOException {
+        // ARRANGE: Every other draft is abandoned, across several segments
+        DraftEventLog eventLog = open(256);
+        eventLog.assignIdsMatching(draftId -> draftId % 2 == 1);
+        List<Long> drafts = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            long draftId = eventLog.startDraft("duel", 2);
+            eventLog.append(draftId, 0, DraftAction.PICK, 100 + i);
+            if (i % 2 == 0) {
+                eventLog.append(draftId, 1, DraftAction.PICK, 150 + i);
+            } else {
+                eventLog.abandon(draftId);
+            }
+            eventLog.flush();
+            drafts.add(draftId);
+        }
+        eventLog.close();
+
+        // ACT
+        DraftEventLog reopened = open(256);
+
+        // ASSERT: Each filled segment has an index; ids owned by another node are never logged here
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.filter(path -> path.toString().endsWith(".idx")).count() > 1);
+        }
+        for (int i = 0; i < drafts.size(); i++) {
+            DraftEventLog.RecordedDraft recorded = reopened.read(drafts.get(i)).orElseThrow();
+            assertEquals(i % 2 == 1, recorded.abandoned());
+            assertEquals(i % 2 == 1, reopened.isAbandoned(drafts.get(i)));
+            assertEquals(100 + i, recorded.actions().get(0).heroId());
+        }
+        assertTrue(reopened.read(drafts.get(3) + 1).isEmpty());
+        reopened.close();
+
+        // A log written before indexes existed is still read by scanning
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path index : files.filter(path -> path.toString().endsWith(".idx")).toList()) {
+                Files.delete(index);
+            }
+        }
+        DraftEventLog unindexed = open(256);
+        assertEquals(150, unindexed.read(drafts.get(0)).orElseThrow().actions().get(1).heroId());
+        assertTrue(unindexed.read(drafts.get(3) + 1).isEmpty());
+        unindexed.close();
+    }
+
+    @Test
+    @DisplayName("A record cut off by a crash is dropped on recovery")
+    void testTruncatedTailIsDiscarded() throws IOException {
+        // ARRANGE
+        DraftEventLog eventLog = open(1024 * 1024);
+        long draftId = eventLog.startDraft("all-pick", 10);
+        eventLog.append(draftId, 0, DraftAction.PICK, 5);
+        eventLog.append(draftId, 1, DraftAction.PICK, 6);
+        eventLog.close();
+
+        Path segment = directory.resolve("00000001.log");
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        // ACT
+        DraftEventLog reopened = open(1024 * 1024);
+
+        // ASSERT: Only the intact action remains and the draft accepts turn 1 again
+        assertEquals(1, reopened.read(draftId).orElseThrow().actions().size());
+        reopened.append(draftId, 1, DraftAction.PICK, 8);
+        assertEquals(8, reopened.read(draftId).orElseThrow().actions().get(1).heroId());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Actions for a stale turn are refused")
+    void testStaleTurnRejected() {
+        // ARRANGE
+        DraftEventLog eventLog = open(1024 * 1024);
+        long draftId = eventLog.startDraft("all-pick", 10);
+        eventLog.append(draftId, 0, DraftAction.PICK, 5);
+
+        // ACT & ASSERT
+        assertThrows(IllegalStateException.class, () -> eventLog.append(draftId, 0, DraftAction.PICK, 6));
+        assertTrue(eventLog.read(99).isEmpty());
+        eventLog.close();
+    }
+
+    @Test
+    @DisplayName("Only finished drafts from the requested id onwards are exported")
+    void testForEachFinished() {
+        // ARRANGE: An imported draft, an unfinished one and a finished one
+        DraftEventLog eventLog = open(1024 * 1024);
+        long imported = eventLog.importDraft("duel", 42L, List.of(
+                new DraftEventLog.RecordedAction(DraftAction.BAN, 1),
+                new DraftEventLog.RecordedAction(DraftAction.PICK, 2)));
+        long unfinished = eventLog.startDraft("duel", 2);
+        eventLog.append(unfinished, 0, DraftAction.BAN, 3);
+        long finished = eventLog.startDraft("duel", 2);
+        eventLog.append(finished, 0, DraftAction.BAN, 4);
+        eventLog.append(finished, 1, DraftAction.PICK, 5);
+
+        // ACT
+        List<DraftEventLog.RecordedDraft> all = new ArrayList<>();
+        eventLog.forEachFinished(1, all::add);
+        List<DraftEventLog.RecordedDraft> recent = new ArrayList<>();
+        eventLog.forEachFinished(unfinished, recent::add);
+
+        // ASSERT
+        assertEquals(List.of(imported, finished), all.stream().map(DraftEventLog.RecordedDraft::draftId).toList());
+        assertEquals(42L, all.get(0).startedAt());
+        assertEquals(List.of(finished), recent.stream().map(DraftEventLog.RecordedDraft::draftId).toList());
+        eventLog.close();
+    }
+
+    @Test
+    @DisplayName("A batch of actions is logged together, or not at all from a stale turn")
+    void testAppendAll() {
+        // ARRANGE
+        DraftEventLog eventLog = open(1024 * 1024);
+        long draftId = eventLog.startDraft("duel", 3);
+        List<DraftEventLog.RecordedAction> actions = List.of(
+                new DraftEventLog.RecordedAction(DraftAction.BAN, 1),
+                new DraftEventLog.RecordedAction(DraftAction.PICK, 2));
+
+        // ACT
+        eventLog.appendAll(draftId, 0, actions);
+
+        // ASSERT: Replaying the batch from turn 0 again is refused and logs nothing
+        assertThrows(IllegalStateException.class, () -> eventLog.appendAll(draftId, 0, actions));
+        assertThrows(IllegalStateException.class, () -> eventLog.appendAll(draftId, 2, actions));
+        assertEquals(actions, eventLog.read(draftId).orElseThrow().actions());
+        eventLog.appendAll(draftId, 2, List.of(new DraftEventLog.RecordedAction(DraftAction.PICK, 3)));
+        assertTrue(eventLog.read(draftId).orElseThrow().isComplete());
+        assertEquals(0, eventLog.openDraftCount());
+        eventLog.close();
+    }
+
+    @Test
+    @DisplayName("Abandoned drafts stay closed across a restart and are never exported")
+    void testAbandonedDraft() {
+        // ARRANGE
+        DraftEventLog eventLog = open(1024 * 1024);
+        long draftId = eventLog.startDraft("duel", 2);
+        eventLog.append(draftId, 0, DraftAction.BAN, 3);
+
+        // ACT
+        assertTrue(eventLog.abandon(draftId));
+        eventLog.close();
+        DraftEventLog reopened = open(1024 * 1024);
+
+        // ASSERT
+        DraftEventLog.RecordedDraft recorded = reopened.read(draftId).orElseThrow();
+        assertTrue(recorded.abandoned());
+        assertTrue(reopened.isAbandoned(draftId));
+        assertEquals(1, recorded.actions().size());
+        assertEquals(0, reopened.openDraftCount());
+        assertFalse(reopened.abandon(draftId));
+        assertThrows(IllegalStateException.class, () -> reopened.append(draftId, 1, DraftAction.PICK, 4));
+        List<DraftEventLog.RecordedDraft> finished = new ArrayList<>();
+        reopened.forEachFinished(1, finished::add);
+        assertTrue(finished.isEmpty());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Drafts adopted from another node keep their id and new ids skip foreign ones")
+    void testAdoptedDraft() {
+        // ARRANGE: This node owns the even ids; draft 2 moves away, draft 7 moves in
+        DraftEventLog eventLog = open(1024 * 1024);
+        eventLog.assignIdsMatching(draftId -> draftId % 2 == 0);
+        long handedOff = eventLog.startDraft("duel", 2);
+        eventLog.append(handedOff, 0, DraftAction.BAN, 3);
+        eventLog.abandon(handedOff);
+        List<DraftEventLog.RecordedAction> actions = List.of(new DraftEventLog.RecordedAction(DraftAction.BAN, 5));
+
+        // ACT
+        assertTrue(eventLog.adoptDraft(7, "duel", 1_000, 2, actions));
+        assertFalse(eventLog.adoptDraft(7, "duel", 1_000, 2, actions));
+        long next = eventLog.startDraft("duel", 2);
+        eventLog.append(7, 1, DraftAction.PICK, 6);
+        // Draft 2 comes back, with the action taken on the other node
+        assertTrue(eventLog.adoptDraft(handedOff, "duel", 2_000, 2, List.of(
+                new DraftEventLog.RecordedAction(DraftAction.BAN, 3),
+                new DraftEventLog.RecordedAction(DraftAction.PICK, 4))));
+        eventLog.reserveIdsBelow(100);
+        eventLog.close();
+        DraftEventLog reopened = open(1024 * 1024);
+
+        // ASSERT
+        assertEquals(2, handedOff);
+        assertEquals(8, next);
+        DraftEventLog.RecordedDraft adopted = reopened.read(7).orElseThrow();
+        assertEquals(1_000, adopted.startedAt());
+        assertTrue(adopted.isComplete());
+        assertEquals(new DraftEventLog.RecordedAction(DraftAction.PICK, 6), adopted.actions().get(1));
+        DraftEventLog.RecordedDraft returned = reopened.read(handedOff).orElseThrow();
+        assertFalse(returned.abandoned());
+        assertFalse(reopened.isAbandoned(handedOff));
+        assertTrue(returned.isComplete());
+        assertEquals(List.of(next), reopened.openDraftsStartedBefore(Long.MAX_VALUE));
+        // Reservations are not logged; the cluster learns them again on startup
+        assertEquals(9, reopened.nextDraftId());
+        reopened.close();
+    }
+
+    private DraftEventLog open(long segmentBytes) {
+        DraftLogProperties properties = new DraftLogProperties();
+        properties.setDirectory(directory.toString());
+        properties.setSegmentBytes(segmentBytes);
+        return new DraftEventLog(properties);
+    }
+}
@@ -0,0 +1,68 @@
+package com.dotadrafter.dota2.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Consistent Hash Ring Unit Tests")
+class ConsistentHashRingTest {
+
+    private static final int DRAFTS = 30_000;
+
+    @Test
+    @DisplayName("Consecutive draft ids spread evenly over the nodes")
+    void testDraftsSpreadEvenly() {
+        // ARRANGE
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c"), 128);
+
+        // ACT
+        Map<String, Integer> owned = new HashMap<>();
+        for (long draftId = 1; draftId <= DRAFTS; draftId++) {
+            owned.merge(ring.ownerOf(draftId), 1, Integer::sum);
+        }
+
+        // ASSERT: Each node owns a third, give or take a fifth of its share
+        assertEquals(3, owned.size());
+        owned.values().forEach(count -> assertEquals(DRAFTS / 3.0, count, DRAFTS / 15.0));
+    }
+
+    @Test
+    @DisplayName("Adding a node only moves drafts onto the new node")
+    void testAddingNodeMovesFewDrafts() {
+        // ARRANGE
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("c", "a", "b", "d"), 128);
+
+        // ACT
+        int moved = 0;
+        for (long draftId = 1; draftId <= DRAFTS; draftId++) {
+            String owner = after.ownerOf(draftId);
+            if (!owner.equals(before.ownerOf(draftId))) {
+                assertEquals("d", owner);
+                moved++;
+            }
+        }
+
+        // ASSERT: About a quarter moved, all of it to the new node
+        assertEquals(DRAFTS / 4.0, moved, DRAFTS / 20.0);
+    }
+
+    @Test
+    @DisplayName("Every node builds the same ring whatever the order of its node list")
+    void testRingIsDeterministic() {
+        ConsistentHashRing first = new ConsistentHashRing(List.of("a", "b", "c"), 16);
+        ConsistentHashRing second = new ConsistentHashRing(List.of("c", "b", "a"), 16);
+        ConsistentHashRing single = new ConsistentHashRing(List.of("a"), 16);
+
+        for (long draftId = 1; draftId <= 1000; draftId++) {
+            assertEquals(first.ownerOf(draftId), second.ownerOf(draftId));
+            assertEquals("a", single.ownerOf(draftId));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of(), 16));
+    }
+}
@@ -0,0 +1,63 @@
+package com.dotadrafter.dota2.service;
+
+import com.dotadrafter.dota2.dto.ArchivedDraft;
+import com.dotadrafter.dota2.dto.DraftEvent;
+import com.dotadrafter.dota2.engine.TurnSchedule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Draft Archive Codec Unit Tests")
+class DraftArchiveCodecTest {
+
+    @Test
+    @DisplayName("Drafts survive an encode/decode round trip in a few bytes each")
+    void testRoundTrip() throws IOException {
+        // ARRANGE: Two Captain's Mode drafts and one All Pick draft
+        List<ArchivedDraft> drafts = List.of(
+                draft(1, TurnSchedule.CAPTAINS_MODE, 1),
+                draft(300, TurnSchedule.ALL_PICK, 100),
+                draft(70_000, TurnSchedule.CAPTAINS_MODE, 130));
+
+        // ACT
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DraftArchiveCodec.Writer writer = DraftArchiveCodec.writer(bytes)) {
+            for (ArchivedDraft draft : drafts) {
+                writer.write(draft);
+            }
+        }
+        DraftArchiveCodec.Reader reader = DraftArchiveCodec.reader(new ByteArrayInputStream(bytes.toByteArray()));
+        List<ArchivedDraft> decoded = new ArrayList<>();
+        ArchivedDraft next;
+        while ((next = reader.next()) != null) {
+            decoded.add(next);
+        }
+
+        // ASSERT
+        assertEquals(drafts, decoded);
+        assertTrue(bytes.size() < 160, "Encoded size was " + bytes.size());
+    }
+
+    @Test
+    @DisplayName("Streams without the archive header are rejected")
+    void testRejectsForeignData() {
+        // ACT & ASSERT
+        assertThrows(IOException.class,
+                () -> DraftArchiveCodec.reader(new ByteArrayInputStream("{\"id\":1}".getBytes())));
+    }
+
+    private static ArchivedDraft draft(long id, TurnSchedule schedule, int firstHero) {
+        List<DraftEvent> events = new ArrayList<>();
+        for (int turn = 0; turn < schedule.length(); turn++) {
+            events.add(new DraftEvent(turn, schedule.side(turn), schedule.action(turn), firstHero + turn));
+        }
+        return new ArchivedDraft(id, schedule.getName(), 1_700_000_000_000L + id, events);
+    }
+}
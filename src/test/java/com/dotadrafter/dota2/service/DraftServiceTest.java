@@ -0,0 +1,464 @@
+package com.dotadrafter.dota2.service;
+
+import com.dotadrafter.dota2.config.DraftLogProperties;
+import com.dotadrafter.dota2.config.DraftProperties;
+import com.dotadrafter.dota2.dto.DraftActionRequest;
+import com.dotadrafter.dota2.dto.DraftBatchResult;
+import com.dotadrafter.dota2.dto.DraftEvent;
+import com.dotadrafter.dota2.engine.DraftAction;
+import com.dotadrafter.dota2.engine.Side;
+import com.dotadrafter.dota2.engine.TurnSchedule;
+import com.dotadrafter.dota2.model.DraftState;
+import com.dotadrafter.dota2.model.Hero;
+import com.dotadrafter.dota2.model.HeroAttribute;
+import com.dotadrafter.dota2.repository.DraftEventLog;
+import com.dotadrafter.dota2.repository.HeroRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Draft Service Unit Tests")
+class DraftServiceTest {
+
+    @Mock
+    private HeroRepository heroRepository;
+
+    @TempDir
+    Path logDirectory;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DraftProperties draftProperties;
+    private HeroCatalogService catalog;
+    private DraftEventLog draftEventLog;
+    private DraftService draftService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        draftProperties = new DraftProperties();
+        catalog = new HeroCatalogService(heroRepository, new ObjectMapper(), HeroMatchStats.empty(), meterRegistry);
+        List<Hero> heroes = new ArrayList<>();
+        for (long id = 1; id <= 30; id++) {
+            heroes.add(hero(id));
+        }
+        catalog.publish(heroes);
+
+        draftEventLog = openLog();
+        draftService = newDraftService(draftEventLog);
+    }
+
+    @Test
+    @DisplayName("Simultaneous actions on one draft never land on the same turn")
+    void testConcurrentBansAreSerialized() throws Exception {
+        // ARRANGE: Captain's Mode opens with seven bans before the first pick
+        Long draftId = draftService.startNewDraft("captains-mode").getId();
+
+        int attempts = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        // ACT: Every thread tries to ban a different hero at the same moment
+        for (long heroId = 1; heroId <= attempts; heroId++) {
+            long hero = heroId;
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    draftService.banHero(draftId, hero);
+                    return true;
+                } catch (RuntimeException e) {
+                    assertEquals("Not in ban phase", e.getMessage());
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int accepted = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(10, TimeUnit.SECONDS)) {
+                accepted++;
+            }
+        }
+        executor.shutdown();
+
+        // ASSERT: Exactly the seven ban turns were taken, once each
+        assertEquals(7, accepted);
+        assertEquals(7, draftService.snapshotBoard(draftId).getTurnIndex());
+        assertTrue(draftService.snapshotBoard(draftId).isPickPhase());
+    }
+
+    @Test
+    @DisplayName("Drafts are replayed from the event log after a restart")
+    void testDraftRecoveredAfterRestart() {
+        // ARRANGE: Radiant and Dire each pick once, then the service restarts
+        Long draftId = draftService.startNewDraft("all-pick").getId();
+        draftService.pickHero(draftId, 3L);
+        draftService.pickHero(draftId, 9L);
+        draftEventLog.close();
+
+        // ACT: A fresh service over the same log directory
+        DraftEventLog reopened = openLog();
+        DraftService restarted = newDraftService(reopened);
+        DraftState state = restarted.pickHero(draftId, 4L);
+
+        // ASSERT
+        assertEquals(3, state.getCurrentTurnIndex());
+        assertEquals(List.of(3L), state.getRadiantPicks().stream().map(Hero::getId).toList());
+        assertEquals(List.of(9L, 4L), state.getDirePicks().stream().map(Hero::getId).toList());
+        assertEquals(List.of(new DraftEvent(0, Side.RADIANT, DraftAction.PICK, 3),
+                        new DraftEvent(1, Side.DIRE, DraftAction.PICK, 9),
+                        new DraftEvent(2, Side.DIRE, DraftAction.PICK, 4)),
+                restarted.history(draftId));
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Drafts are recovered before the hero catalog is loaded")
+    void testDraftRecoveredWithEmptyCatalog() {
+        // ARRANGE: The restarted node has not synced any heroes yet
+        Long draftId = draftService.startNewDraft("all-pick").getId();
+        draftService.pickHero(draftId, 3L);
+        draftEventLog.close();
+        DraftEventLog reopened = openLog();
+        catalog.publish(List.of());
+        DraftService restarted = newDraftService(reopened);
+
+        // ACT: A pick of a hero the empty catalog does not know yet is rejected, then accepted after a sync
+        DraftState before = restarted.applyActions(draftId, List.of(new DraftActionRequest(DraftAction.PICK, 9))).draft();
+        catalog.publish(List.of(hero(3L), hero(9L)));
+        DraftState after = restarted.pickHero(draftId, 9L);
+
+        // ASSERT: Unknown heroes keep their id, and are filled in once the catalog has them
+        assertEquals(1, before.getCurrentTurnIndex());
+        assertEquals(3L, before.getRadiantPicks().get(0).getId());
+        assertNull(before.getRadiantPicks().get(0).getName());
+        assertEquals("Hero 3", after.getRadiantPicks().get(0).getName());
+        assertEquals("Hero 9", after.getDirePicks().get(0).getName());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Watchers of a recovered draft receive its earlier actions; finished drafts keep no stream")
+    void testEventStreamsAfterRestart() {
+        // ARRANGE: One pick before the restart
+        Long draftId = draftService.startNewDraft("all-pick").getId();
+        draftService.pickHero(draftId, 3L);
+        draftEventLog.close();
+        DraftEventLog reopened = openLog();
+        DraftEventBroadcaster broadcaster = new DraftEventBroadcaster();
+        DraftService restarted = newDraftService(reopened, broadcaster);
+
+        // ACT
+        List<DraftEvent> replayed = restarted.streamEvents(draftId).take(1).collectList().block(Duration.ofSeconds(5));
+        Long finished = restarted.startNewDraft("captains-mode").getId();
+        for (long heroId = 1; !restarted.snapshotBoard(finished).isComplete(); heroId++) {
+            DraftAction action = restarted.snapshotBoard(finished).isPickPhase() ? DraftAction.PICK : DraftAction.BAN;
+            restarted.applyActions(finished, List.of(new DraftActionRequest(action, heroId)));
+        }
+
+        // ASSERT
+        assertEquals(List.of(new DraftEvent(0, Side.RADIANT, DraftAction.PICK, 3)), replayed);
+        assertEquals(List.of(), restarted.streamEvents(finished).collectList().block(Duration.ofSeconds(5)));
+        assertEquals(1, broadcaster.activeStreams());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Drafts in a format removed from the configuration keep their history and are skipped by export")
+    void testRemovedFormat() throws Exception {
+        // ARRANGE: One draft in a custom format and one in Captain's Mode, both finished
+        draftProperties.getFormats().put("short", "RP DP");
+        DraftService withFormat = newDraftService(draftEventLog);
+        Long custom = withFormat.startNewDraft("short").getId();
+        withFormat.pickHero(custom, 1L);
+        withFormat.pickHero(custom, 2L);
+        Long captains = withFormat.startDraftWithActions(null, captainsModeActions()).draft().getId();
+        draftProperties.getFormats().clear();
+        DraftService withoutFormat = newDraftService(draftEventLog);
+        DraftArchiveService archive = new DraftArchiveService(draftEventLog, new DraftFormatRegistry(draftProperties));
+
+        // ACT
+        List<DraftEvent> history = withoutFormat.history(custom);
+        long exported = archive.exportDrafts(0, new ByteArrayOutputStream());
+
+        // ASSERT
+        assertEquals(List.of(new DraftEvent(0, null, DraftAction.PICK, 1), new DraftEvent(1, null, DraftAction.PICK, 2)),
+                history);
+        assertEquals(24, withoutFormat.history(captains).size());
+        assertEquals(1, exported);
+    }
+
+    @Test
+    @DisplayName("A draft started with actions is logged with them in one append")
+    void testStartDraftWithActions() {
+        // ACT: The third action has no type, so only the first two are applied
+        DraftBatchResult result = draftService.startDraftWithActions("all-pick", List.of(
+                new DraftActionRequest(DraftAction.PICK, 3), new DraftActionRequest(DraftAction.PICK, 9),
+                new DraftActionRequest(null, 4)));
+        Long draftId = result.draft().getId();
+        draftEventLog.close();
+        DraftEventLog reopened = openLog();
+
+        // ASSERT: The log holds the start and both picks, and nothing else
+        assertEquals(2, result.applied());
+        assertEquals(2, result.rejectedIndex());
+        assertEquals(2, result.draft().getCurrentTurnIndex());
+        DraftEventLog.RecordedDraft recorded = reopened.read(draftId).orElseThrow();
+        assertEquals(List.of(new DraftEventLog.RecordedAction(DraftAction.PICK, 3),
+                new DraftEventLog.RecordedAction(DraftAction.PICK, 9)), recorded.actions());
+        assertEquals(1, reopened.openDraftCount());
+        assertEquals(1, meterRegistry.get("drafter.draft.batches").tag("outcome", "rejected").timer().count());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("A batch applies actions up to the first rejected one and logs them")
+    void testBatchStopsAtFirstRejection() {
+        // ARRANGE: Captain's Mode opens with seven bans, so the eighth ban is out of turn
+        Long draftId = draftService.startNewDraft("captains-mode").getId();
+        List<DraftActionRequest> actions = new ArrayList<>();
+        for (long heroId = 1; heroId <= 8; heroId++) {
+            actions.add(new DraftActionRequest(DraftAction.BAN, heroId));
+        }
+        actions.add(new DraftActionRequest(DraftAction.PICK, 20));
+
+        // ACT
+        DraftBatchResult result = draftService.applyActions(draftId, actions);
+
+        // ASSERT
+        assertEquals(7, result.applied());
+        assertEquals(7, result.rejectedIndex());
+        assertEquals("Not in ban phase", result.rejectedReason());
+        assertEquals(7, result.draft().getCurrentTurnIndex());
+        assertEquals(7, draftService.history(draftId).size());
+        assertEquals(1, meterRegistry.get("drafter.draft.batches").tag("outcome", "rejected").timer().count());
+
+        // The draft continues where the batch stopped, also after a restart
+        draftEventLog.close();
+        draftEventLog = openLog();
+        draftService = newDraftService(draftEventLog);
+        DraftBatchResult rest = draftService.applyActions(draftId, List.of(
+                new DraftActionRequest(DraftAction.PICK, 20), new DraftActionRequest(DraftAction.PICK, 99)));
+        assertEquals(1, rest.applied());
+        assertEquals(1, rest.rejectedIndex());
+        assertEquals("Hero not found", rest.rejectedReason());
+        assertEquals(List.of(20L), rest.draft().getRadiantPicks().stream().map(Hero::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Actions are timed with their outcome and active drafts are gauged")
+    void testActionMetrics() {
+        // ARRANGE: Captain's Mode opens with a Radiant ban
+        Long draftId = draftService.startNewDraft("captains-mode").getId();
+
+        // ACT: One accepted ban, then a pick in the ban phase, a taken hero and unknown ids
+        draftService.banHero(draftId, 1L);
+        assertThrows(RuntimeException.class, () -> draftService.pickHero(draftId, 2L));
+        assertThrows(RuntimeException.class, () -> draftService.banHero(draftId, 1L));
+        assertThrows(RuntimeException.class, () -> draftService.banHero(draftId, 999L));
+        assertThrows(RuntimeException.class, () -> draftService.banHero(12345L, 2L));
+
+        // ASSERT
+        assertEquals(1, actionCount("ban", "ok"));
+        assertEquals(1, actionCount("pick", "wrong_phase"));
+        assertEquals(1, actionCount("ban", "hero_taken"));
+        assertEquals(2, actionCount("ban", "not_found"));
+        assertEquals(1.0, meterRegistry.get("drafter.drafts.active").gauge().value());
+        assertEquals(1.0, meterRegistry.get("drafter.drafts.started").counter().count());
+    }
+
+    @Test
+    @DisplayName("Idle drafts are abandoned and then answer Draft expired")
+    void testIdleDraftExpires() throws InterruptedException {
+        // ARRANGE: Any idle time is too long; one draft finished, one left mid-way
+        draftProperties.setIdleTtl(Duration.ZERO);
+        draftProperties.setCompletedTtl(Duration.ZERO);
+        meterRegistry = new SimpleMeterRegistry();
+        draftService = newDraftService(draftEventLog);
+        Long abandoned = draftService.startNewDraft("all-pick").getId();
+        draftService.pickHero(abandoned, 1L);
+        Long finished = draftService.startNewDraft("captains-mode").getId();
+        for (long heroId = 1; !draftService.snapshotBoard(finished).isComplete(); heroId++) {
+            if (draftService.snapshotBoard(finished).isPickPhase()) {
+                draftService.pickHero(finished, heroId);
+            } else {
+                draftService.banHero(finished, heroId);
+            }
+        }
+        TimeUnit.MILLISECONDS.sleep(5);
+
+        // ACT
+        draftService.evictExpiredDrafts();
+
+        // ASSERT: The abandoned draft is gone for good, its history kept; the finished one replays
+        DraftExpiredException expired = assertThrows(DraftExpiredException.class,
+                () -> draftService.pickHero(abandoned, 2L));
+        assertEquals("Draft expired", expired.getMessage());
+        assertEquals(1, draftService.history(abandoned).size());
+        assertTrue(draftService.snapshotBoard(finished).isComplete());
+        assertEquals(0, draftEventLog.openDraftCount());
+        assertEquals(1.0, meterRegistry.get("drafter.drafts.evicted").tag("reason", "idle").counter().count());
+        assertEquals(1.0, meterRegistry.get("drafter.drafts.evicted").tag("reason", "completed").counter().count());
+        assertEquals(1, actionCount("pick", "expired"));
+    }
+
+    @Test
+    @DisplayName("The least recently used draft makes room once the store is full")
+    void testCapacityEviction() {
+        // ARRANGE
+        draftProperties.setMaxLive(3);
+        meterRegistry = new SimpleMeterRegistry();
+        draftService = newDraftService(draftEventLog);
+        Long oldest = draftService.startNewDraft("all-pick").getId();
+        Long second = draftService.startNewDraft("all-pick").getId();
+        Long third = draftService.startNewDraft("all-pick").getId();
+        draftService.pickHero(oldest, 1L);
+
+        // ACT: Touching the oldest draft makes the second the least recently used
+        draftService.startNewDraft("all-pick");
+
+        // ASSERT
+        assertThrows(DraftExpiredException.class, () -> draftService.pickHero(second, 2L));
+        assertEquals(1, draftService.pickHero(third, 2L).getCurrentTurnIndex());
+        assertEquals(2, draftService.pickHero(oldest, 3L).getCurrentTurnIndex());
+        assertEquals(3.0, meterRegistry.get("drafter.drafts.active").gauge().value());
+    }
+
+    @Test
+    @DisplayName("A draft handed off to another node continues there under the same id")
+    void testHandOffToAnotherNode() {
+        // ARRANGE: A second node with its own log; Radiant has picked once here
+        Long draftId = draftService.startNewDraft("all-pick").getId();
+        draftService.pickHero(draftId, 3L);
+        DraftEventLog otherLog = openLog(logDirectory.resolve("other"));
+        DraftService otherNode = newDraftService(otherLog);
+
+        // ACT
+        int moved = draftService.handOff(draftService.openDraftIds(), drafts -> drafts.forEach(otherNode::adopt));
+        DraftState state = otherNode.pickHero(draftId, 9L);
+
+        // ASSERT: Only the new owner can continue it; this node keeps its history
+        assertEquals(1, moved);
+        assertEquals(2, state.getCurrentTurnIndex());
+        assertEquals(List.of(3L), state.getRadiantPicks().stream().map(Hero::getId).toList());
+        assertThrows(DraftExpiredException.class, () -> draftService.pickHero(draftId, 9L));
+        assertTrue(draftService.openDraftIds().isEmpty());
+        assertEquals(1, draftService.history(draftId).size());
+        assertEquals(2, otherNode.history(draftId).size());
+        assertTrue(otherLog.nextDraftId() > draftId);
+        otherLog.close();
+    }
+
+    @Test
+    @DisplayName("A draft played on while its hand-off is in flight is sent again with the new action")
+    void testHandOffRetriesChangedDraft() {
+        // ARRANGE: Two drafts; one gets a pick here while the first copy is on its way
+        Long changed = draftService.startNewDraft("all-pick").getId();
+        Long unchanged = draftService.startNewDraft("all-pick").getId();
+        draftService.pickHero(changed, 3L);
+        DraftEventLog otherLog = openLog(logDirectory.resolve("other"));
+        DraftService otherNode = newDraftService(otherLog);
+        List<Integer> sent = new ArrayList<>();
+
+        // ACT: The transfer runs without the draft locks, so the pick is not blocked
+        int moved = draftService.handOff(draftService.openDraftIds(), drafts -> {
+            drafts.forEach(otherNode::adopt);
+            if (sent.isEmpty()) {
+                draftService.pickHero(changed, 9L);
+            }
+            sent.add(drafts.size());
+        });
+
+        // ASSERT: Only the changed draft went twice, and the new owner has its latest pick
+        assertEquals(2, moved);
+        assertEquals(List.of(2, 1), sent);
+        assertEquals(2, otherNode.history(changed).size());
+        assertEquals(0, otherNode.history(unchanged).size());
+        assertEquals(3, otherNode.pickHero(changed, 4L).getCurrentTurnIndex());
+        assertThrows(DraftExpiredException.class, () -> draftService.pickHero(changed, 4L));
+        assertTrue(draftService.openDraftIds().isEmpty());
+        otherLog.close();
+    }
+
+    @Test
+    @DisplayName("A failed hand-off leaves the drafts where they were")
+    void testFailedHandOff() {
+        // ARRANGE
+        Long draftId = draftService.startNewDraft("all-pick").getId();
+
+        // ACT
+        assertThrows(RuntimeException.class, () -> draftService.handOff(List.of(draftId), drafts -> {
+            throw new RuntimeException("Node b is unreachable");
+        }));
+
+        // ASSERT
+        assertEquals(List.of(draftId), draftService.openDraftIds());
+        assertEquals(1, draftService.pickHero(draftId, 3L).getCurrentTurnIndex());
+    }
+
+    private long actionCount(String action, String outcome) {
+        return meterRegistry.get("drafter.draft.actions").tag("action", action).tag("outcome", outcome).timer().count();
+    }
+
+    private DraftEventLog openLog() {
+        return openLog(logDirectory);
+    }
+
+    private DraftEventLog openLog(Path directory) {
+        DraftLogProperties properties = new DraftLogProperties();
+        properties.setDirectory(directory.toString());
+        return new DraftEventLog(properties);
+    }
+
+    // A whole Captain's Mode draft: bans of heroes 1-14 and picks of 15-24, in schedule order
+    private static List<DraftActionRequest> captainsModeActions() {
+        List<DraftActionRequest> actions = new ArrayList<>();
+        int ban = 1;
+        int pick = 15;
+        for (int turn = 0; turn < TurnSchedule.CAPTAINS_MODE.length(); turn++) {
+            DraftAction action = TurnSchedule.CAPTAINS_MODE.action(turn);
+            actions.add(new DraftActionRequest(action, action == DraftAction.BAN ? ban++ : pick++));
+        }
+        return actions;
+    }
+
+    private static Hero hero(long id) {
+        Hero hero = new Hero();
+        hero.setId(id);
+        hero.setName("Hero " + id);
+        hero.setPrimaryAttribute(HeroAttribute.STRENGTH);
+        hero.setRoles(List.of("Carry"));
+        return hero;
+    }
+
+    private DraftService newDraftService(DraftEventLog eventLog) {
+        return newDraftService(eventLog, new DraftEventBroadcaster());
+    }
+
+    private DraftService newDraftService(DraftEventLog eventLog, DraftEventBroadcaster broadcaster) {
+        return new DraftService(eventLog, catalog, broadcaster,
+                new DraftFormatRegistry(draftProperties), new DraftLocks(16), new DraftStatistics(catalog, 60),
+                draftProperties, meterRegistry);
+    }
+}
@@ -0,0 +1,143 @@
+package com.dotadrafter.dota2.service;
+
+import com.dotadrafter.dota2.dto.DraftEvent;
+import com.dotadrafter.dota2.dto.DraftStatsReport;
+import com.dotadrafter.dota2.engine.DraftAction;
+import com.dotadrafter.dota2.engine.Side;
+import com.dotadrafter.dota2.engine.TurnSchedule;
+import com.dotadrafter.dota2.model.Hero;
+import com.dotadrafter.dota2.model.HeroAttribute;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Draft Statistics Unit Tests")
+class DraftStatisticsTest {
+
+    @Mock
+    private HeroCatalogService heroCatalogService;
+
+    private DraftStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = new DraftStatistics(heroCatalogService, 60);
+    }
+
+    @Test
+    @DisplayName("Counters split picks and bans by side and rank heroes by contest rate")
+    void testReportRanksByContest() {
+        // ARRANGE: Two drafts; hero 2 is banned by both sides and picked once
+        when(heroCatalogService.current())
+                .thenReturn(new HeroCatalog(1, List.of(hero(1, "Anti-Mage"), hero(2, "Axe"))));
+        statistics.recordDraftStarted();
+        statistics.recordDraftStarted();
+        statistics.record(TurnSchedule.CAPTAINS_MODE, new DraftEvent(0, Side.RADIANT, DraftAction.BAN, 2));
+        statistics.record(TurnSchedule.CAPTAINS_MODE, new DraftEvent(0, Side.DIRE, DraftAction.BAN, 2));
+        statistics.record(TurnSchedule.CAPTAINS_MODE, new DraftEvent(1, Side.DIRE, DraftAction.PICK, 2));
+        statistics.record(TurnSchedule.CAPTAINS_MODE, new DraftEvent(2, Side.RADIANT, DraftAction.PICK, 1));
+
+        // ACT
+        DraftStatsReport windowed = statistics.report(DraftStatistics.Metric.CONTEST, 10, 60);
+        DraftStatsReport allTime = statistics.report(DraftStatistics.Metric.PICK, 1, 0);
+
+        // ASSERT
+        assertEquals(2, windowed.drafts());
+        assertEquals(List.of(2L, 1L), windowed.heroes().stream().map(DraftStatsReport.HeroDraftStats::heroId).toList());
+        DraftStatsReport.HeroDraftStats axe = windowed.heroes().get(0);
+        assertEquals("Axe", axe.name());
+        assertEquals(1, axe.radiantBans());
+        assertEquals(1, axe.direBans());
+        assertEquals(1, axe.direPicks());
+        assertEquals(1.5, axe.contestRate(), 1e-9);
+        assertEquals(0.5, axe.pickRate(), 1e-9);
+
+        assertEquals(1, allTime.heroes().size());
+        assertEquals(1L, allTime.heroes().get(0).heroId());
+    }
+
+    @Test
+    @DisplayName("Actions are counted per ban and pick phase and can be reported for one phase")
+    void testReportByPhase() {
+        // ARRANGE: Hero 2 banned in the first and third ban phases, picked in the second pick phase
+        when(heroCatalogService.current()).thenReturn(new HeroCatalog(1, List.of(hero(2, "Axe"))));
+        statistics.recordDraftStarted();
+        statistics.recordDraftStarted();
+        statistics.record(TurnSchedule.CAPTAINS_MODE, new DraftEvent(0, Side.RADIANT, DraftAction.BAN, 2));
+        statistics.record(TurnSchedule.CAPTAINS_MODE, new DraftEvent(19, Side.DIRE, DraftAction.BAN, 2));
+        statistics.record(TurnSchedule.CAPTAINS_MODE, new DraftEvent(12, Side.DIRE, DraftAction.PICK, 2));
+
+        // ACT
+        DraftStatsReport all = statistics.report(DraftStatistics.Metric.CONTEST, 10, 0);
+        DraftStatsReport third = statistics.report(DraftStatistics.Metric.CONTEST, 10, 60, 3);
+        DraftStatsReport first = statistics.report(DraftStatistics.Metric.PICK, 10, 60, 1);
+
+        // ASSERT
+        DraftStatsReport.HeroDraftStats axe = all.heroes().get(0);
+        assertEquals(List.of(0L, 1L, 0L), axe.picksByPhase());
+        assertEquals(List.of(1L, 0L, 1L), axe.bansByPhase());
+        assertNull(all.phase());
+
+        assertEquals(3, third.phase());
+        DraftStatsReport.HeroDraftStats thirdPhase = third.heroes().get(0);
+        assertEquals(0, thirdPhase.radiantBans());
+        assertEquals(1, thirdPhase.direBans());
+        assertEquals(0, thirdPhase.direPicks());
+        assertEquals(0.5, thirdPhase.contestRate(), 1e-9);
+
+        assertEquals(1, first.heroes().get(0).radiantBans());
+        assertEquals(0, first.heroes().get(0).direPicks());
+        assertThrows(RuntimeException.class, () -> statistics.report(DraftStatistics.Metric.PICK, 10, 60, 4));
+    }
+
+    @Test
+    @DisplayName("Concurrent actions are all counted")
+    void testConcurrentRecording() throws InterruptedException {
+        // ARRANGE
+        when(heroCatalogService.current()).thenReturn(HeroCatalog.empty());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // ACT: 8 threads record 10,000 picks of hero 7 each
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    statistics.record(TurnSchedule.CAPTAINS_MODE, new DraftEvent(0, Side.RADIANT, DraftAction.PICK, 7));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // ASSERT
+        assertEquals(80_000, statistics.report(DraftStatistics.Metric.PICK, 1, 0).heroes().get(0).radiantPicks());
+        assertEquals(80_000, statistics.report(DraftStatistics.Metric.PICK, 1, 60).heroes().get(0).radiantPicks());
+    }
+
+    @Test
+    @DisplayName("Windows longer than the configured one are rejected")
+    void testWindowOutOfRange() {
+        // ACT & ASSERT
+        assertThrows(RuntimeException.class, () -> statistics.report(DraftStatistics.Metric.BAN, 10, 61));
+    }
+
+    private static Hero hero(long id, String name) {
+        Hero hero = new Hero();
+        hero.setId(id);
+        hero.setName(name);
+        hero.setPrimaryAttribute(HeroAttribute.STRENGTH);
+        hero.setRoles(List.of());
+        return hero;
+    }
+}
@@ -1,14 +1,20 @@
 package com.dotadrafter.dota2.service;
 
+import com.dotadrafter.dota2.client.HeroImageCache;
+import com.dotadrafter.dota2.dto.HeroStatsDto;
+import com.dotadrafter.dota2.dto.HeroSyncResult;
 import com.dotadrafter.dota2.model.Hero;
 import com.dotadrafter.dota2.model.HeroAttribute;
+import com.dotadrafter.dota2.repository.HeroBatchWriter;
 import com.dotadrafter.dota2.repository.HeroRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
@@ -42,6 +48,18 @@ class HeroServiceTest {
     @Mock
     private com.dotadrafter.dota2.client.OpenDotaClient openDotaClient;
 
+    @Mock
+    private HeroImageCache heroImageCache;
+
+    @Mock
+    private HeroCatalogService heroCatalogService;
+
+    @Mock
+    private HeroBatchWriter heroBatchWriter;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private HeroService heroService;
 
@@ -61,11 +79,11 @@ class HeroServiceTest {
     }
 
     @Test
-    @DisplayName("Should return all heroes from repository")
+    @DisplayName("Should return all heroes from the in-memory catalog")
     void testGetAllHeroes() {
         // ARRANGE: Set up test data and mock behavior
         List<Hero> expectedHeroes = Arrays.asList(testHero);
-        when(heroRepository.findAll()).thenReturn(expectedHeroes);
+        when(heroCatalogService.getAllHeroes()).thenReturn(expectedHeroes);
 
         // ACT: Call the method we're testing
         List<Hero> actualHeroes = heroService.getAllHeroes();
@@ -75,8 +93,9 @@ class HeroServiceTest {
         assertEquals(1, actualHeroes.size(), "Should return 1 hero");
         assertEquals("Anti-Mage", actualHeroes.get(0).getName(), "Hero name should match");
 
-        // VERIFY: Check that the repository method was called exactly once
-        verify(heroRepository, times(1)).findAll();
+        // VERIFY: Check that the catalog was used and the database was not queried
+        verify(heroCatalogService, times(1)).getAllHeroes();
+        verify(heroRepository, never()).findAll();
     }
 
     @Test
@@ -95,5 +114,89 @@ class HeroServiceTest {
 
         // VERIFY
         verify(heroRepository, times(1)).save(testHero);
+        verify(heroCatalogService, times(1)).refresh();
+    }
+
+    @Test
+    @DisplayName("Sync should batch-insert heroes missing from the catalog")
+    void testSyncInsertsNewHeroes() {
+        // ARRANGE: Empty catalog, one hero upstream
+        when(heroCatalogService.current()).thenReturn(HeroCatalog.empty());
+        when(openDotaClient.fetchHeroStats()).thenReturn(List.of(antiMageStats()));
+
+        // ACT
+        HeroSyncResult result = heroService.syncHeroesFromApi();
+
+        // ASSERT
+        assertEquals(1, result.inserted());
+        assertEquals(0, result.updated());
+        assertEquals(0, result.unchanged());
+        verify(heroBatchWriter, times(1)).write(argThat(heroes -> heroes.size() == 1), eq(List.of()));
+        verify(heroCatalogService, times(1)).publish(anyList());
+        verify(heroImageCache, times(1)).refresh(anyList());
+
+        // ASSERT: The sync was timed and its hero counts recorded
+        assertEquals(1, meterRegistry.get("drafter.heroes.sync").timer().count());
+        assertEquals(1.0, meterRegistry.get("drafter.heroes.synced").tag("change", "inserted").counter().count());
+        assertEquals(0.0, meterRegistry.get("drafter.heroes.synced").tag("change", "unchanged").counter().count());
+    }
+
+    @Test
+    @DisplayName("Repeated sync with no upstream change should write nothing")
+    void testSyncUnchangedDoesNotWrite() {
+        // ARRANGE: Catalog already holds exactly what upstream returns
+        testHero.setImageUrl("/api/heroes/1/image?v=1");
+        when(heroCatalogService.current()).thenReturn(new HeroCatalog(1, List.of(testHero)));
+        when(openDotaClient.fetchHeroStats()).thenReturn(List.of(antiMageStats()));
+        when(heroImageCache.imageUrl(any())).thenReturn("/api/heroes/1/image?v=1");
+
+        // ACT
+        HeroSyncResult result = heroService.syncHeroesFromApi();
+
+        // ASSERT
+        assertEquals(1, result.unchanged());
+        assertFalse(result.hasChanges());
+        verify(heroBatchWriter, never()).write(anyList(), anyList());
+        verify(heroCatalogService, never()).publish(anyList());
+    }
+
+    @Test
+    @DisplayName("An empty hero table is restored from the last OpenDota snapshot at startup")
+    void testRestoreFromSnapshot() {
+        // ARRANGE: The in-memory table starts empty after a restart
+        when(heroRepository.count()).thenReturn(0L);
+        when(openDotaClient.lastGoodHeroStats()).thenReturn(List.of(antiMageStats()));
+
+        // ACT
+        heroService.restoreFromSnapshot();
+
+        // ASSERT
+        verify(heroBatchWriter, times(1)).write(argThat(heroes -> heroes.size() == 1
+                && heroes.get(0).getId() == 1L), eq(List.of()));
+        verify(heroCatalogService, times(1)).refresh();
+    }
+
+    @Test
+    @DisplayName("A populated hero table is not overwritten by the snapshot")
+    void testRestoreSkippedWhenHeroesExist() {
+        when(heroRepository.count()).thenReturn(1L);
+
+        heroService.restoreFromSnapshot();
+
+        verify(openDotaClient, never()).lastGoodHeroStats();
+        verify(heroBatchWriter, never()).write(anyList(), anyList());
+    }
+
+    private HeroStatsDto antiMageStats() {
+        HeroStatsDto dto = new HeroStatsDto();
+        dto.setId(1L);
+        dto.setLocalizedName("Anti-Mage");
+        dto.setPrimaryAttr("agi");
+        dto.setRoles(Arrays.asList("Carry", "Escape"));
+        dto.setBaseStr(23.0);
+        dto.setBaseAgi(24.0);
+        dto.setBaseInt(12.0);
+        dto.setImg("/antimage.png");
+        return dto;
     }
 }
@@ -0,0 +1,110 @@
+package com.dotadrafter.dota2.service;
+
+import com.dotadrafter.dota2.dto.HeroSyncJob;
+import com.dotadrafter.dota2.dto.HeroSyncResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Hero Sync Service Unit Tests")
+class HeroSyncServiceTest {
+
+    @Mock
+    private HeroService heroService;
+
+    private ExecutorService executor;
+    private HeroSyncService heroSyncService;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        heroSyncService = new HeroSyncService(heroService, executor, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Concurrent sync requests share one job and one upstream fetch")
+    void testConcurrentTriggersAreDeduplicated() throws Exception {
+        // ARRANGE: The sync blocks until released, as a slow upstream would
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(heroService.syncHeroesFromApi(any(Runnable.class))).thenAnswer(invocation -> {
+            fetching.countDown();
+            release.await();
+            invocation.<Runnable>getArgument(0).run();
+            return new HeroSyncResult(3, 0, 0);
+        });
+
+        // ACT: Ten requests arrive while the first sync is still fetching
+        long first = heroSyncService.trigger("api").id();
+        assertTrue(fetching.await(5, TimeUnit.SECONDS));
+        List<Future<HeroSyncJob>> joined = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            joined.add(executor.submit(() -> heroSyncService.trigger("api")));
+        }
+
+        // ASSERT: Every request joined the running job
+        for (Future<HeroSyncJob> job : joined) {
+            assertEquals(first, job.get(5, TimeUnit.SECONDS).id());
+            assertEquals(HeroSyncJob.State.FETCHING, job.get().state());
+        }
+
+        release.countDown();
+        HeroSyncJob done = awaitDone(first);
+        assertEquals(HeroSyncJob.State.SUCCEEDED, done.state());
+        assertEquals(3, done.result().inserted());
+        assertNotNull(done.finishedAt());
+        verify(heroService, times(1)).syncHeroesFromApi(any(Runnable.class));
+
+        // A request after the job finished starts a new one
+        assertNotEquals(first, heroSyncService.trigger("api").id());
+    }
+
+    @Test
+    @DisplayName("A failed sync is reported on its job")
+    void testFailedSync() throws Exception {
+        // ARRANGE
+        when(heroService.syncHeroesFromApi(any(Runnable.class))).thenThrow(new RuntimeException("OpenDota down"));
+
+        // ACT
+        long jobId = heroSyncService.trigger("api").id();
+        HeroSyncJob done = awaitDone(jobId);
+
+        // ASSERT
+        assertEquals(HeroSyncJob.State.FAILED, done.state());
+        assertEquals("OpenDota down", done.error());
+        assertNull(done.result());
+        assertEquals(done, heroSyncService.latest().orElseThrow());
+    }
+
+    private HeroSyncJob awaitDone(long jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        HeroSyncJob job = heroSyncService.find(jobId).orElseThrow();
+        while (!job.isDone() && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+            job = heroSyncService.find(jobId).orElseThrow();
+        }
+        return job;
+    }
+}
@@ -0,0 +1,114 @@
+package com.dotadrafter.dota2.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TEST: Unit Test for MatchDumpIngester and the HeroMatchStats file it writes.
+ */
+@DisplayName("Match Dump Ingester Unit Tests")
+class MatchDumpIngesterTest {
+
+    // Radiant 1-5 beat Dire 6-10; fields other than the result and heroes are skipped
+    private static final String PLAYERS_MATCH = "{\"match_id\":7001,\"radiant_win\":true,"
+            + "\"picks_bans\":[{\"is_pick\":true,\"hero_id\":1}],\"players\":["
+            + "{\"account_id\":11,\"hero_id\":1,\"player_slot\":0,\"ability_upgrades_arr\":[5003,5004]},"
+            + "{\"hero_id\":2,\"player_slot\":1},{\"hero_id\":3,\"player_slot\":2},"
+            + "{\"hero_id\":4,\"player_slot\":3},{\"hero_id\":5,\"player_slot\":4},"
+            + "{\"hero_id\":6,\"player_slot\":128},{\"hero_id\":7,\"player_slot\":129},"
+            + "{\"hero_id\":8,\"player_slot\":130},{\"hero_id\":9,\"player_slot\":131},"
+            + "{\"hero_id\":10,\"player_slot\":132}]}";
+    // Radiant with hero 1 loses to Dire with hero 2
+    private static final String TEAMS_MATCH = "{\"match_id\":7002,\"radiant_team\":[1,6,11,12,13],"
+            + "\"dire_team\":\"2,7,14,15,16\",\"radiant_win\":false,\"avg_rank_tier\":null}";
+    private static final String NO_RESULT = "{\"match_id\":7003,\"radiant_team\":[1,2,3,4,5],\"dire_team\":[6,7,8,9,10]}";
+    private static final String UNKNOWN_HERO = "{\"match_id\":7004,\"radiant_win\":true,"
+            + "\"radiant_team\":[1,2,3,4,999],\"dire_team\":[6,7,8,9,10]}";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("A JSON Lines dump split into many chunks is aggregated exactly once")
+    void testChunkedJsonLines() throws IOException {
+        // ARRANGE
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            lines.addAll(List.of(PLAYERS_MATCH, TEAMS_MATCH, NO_RESULT, UNKNOWN_HERO));
+        }
+        Path dump = Files.write(directory.resolve("matches.jsonl"), lines);
+
+        // ACT: Chunks far smaller than a line, so each one is cut at the next line break
+        MatchDumpIngester.Result result = new MatchDumpIngester(64, 4).ingest(List.of(dump));
+        HeroMatchStats stats = result.stats();
+
+        // ASSERT
+        assertEquals(200, result.chunks());
+        assertEquals(100, stats.matches());
+        assertEquals(100, result.skipped());
+        assertEquals(100, stats.games(1));
+        assertEquals(0.5, stats.winRate(1));
+        assertEquals(1.0, stats.pickRate(1));
+        assertEquals(0.5, stats.pickRate(11));
+        assertEquals(50, stats.allyGames(1, 2));
+        assertEquals(1.0, stats.allyWinRate(1, 2));
+        assertEquals(50, stats.enemyGames(2, 1));
+        assertEquals(0.0, stats.winRateAgainst(1, 2));
+        assertEquals(1.0, stats.winRateAgainst(2, 1));
+        assertEquals(0, stats.games(17));
+    }
+
+    @Test
+    @DisplayName("A gzipped array dump gives the same stats, which survive the stats file")
+    void testGzipArrayRoundTrip() throws IOException {
+        // ARRANGE
+        Path dump = directory.resolve("matches.json.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(dump))) {
+            out.write(("[\n" + PLAYERS_MATCH + ",\n" + TEAMS_MATCH + ",\n" + NO_RESULT + "\n]")
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        Path file = directory.resolve("stats/hero-stats.bin");
+
+        // ACT
+        MatchDumpIngester.Result result = new MatchDumpIngester(MatchDumpIngester.DEFAULT_CHUNK_BYTES, 2)
+                .ingest(List.of(dump));
+        result.stats().write(file);
+        HeroMatchStats loaded = HeroMatchStats.read(file);
+
+        // ASSERT: Trimmed to the highest hero id, counts unchanged in both directions
+        assertEquals(1, result.chunks());
+        assertEquals(1, result.skipped());
+        assertEquals(2, loaded.matches());
+        assertEquals(17, loaded.idLimit());
+        for (int a = 0; a < 20; a++) {
+            assertEquals(result.stats().games(a), loaded.games(a));
+            assertEquals(result.stats().winRate(a), loaded.winRate(a));
+            for (int b = 0; b < 20; b++) {
+                assertEquals(result.stats().allyGames(a, b), loaded.allyGames(a, b));
+                assertEquals(result.stats().allyWinRate(a, b), loaded.allyWinRate(a, b));
+                assertEquals(result.stats().enemyGames(a, b), loaded.enemyGames(a, b));
+                assertEquals(result.stats().winRateAgainst(a, b), loaded.winRateAgainst(a, b));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A file that is not a stats file is rejected")
+    void testRejectsForeignFile() throws IOException {
+        Path file = Files.writeString(directory.resolve("hero-stats.bin"), "not stats at all, just some text");
+
+        assertThrows(IOException.class, () -> HeroMatchStats.read(file));
+    }
+}